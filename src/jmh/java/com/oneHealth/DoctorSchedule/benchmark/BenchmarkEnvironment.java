@@ -0,0 +1,117 @@
+package com.oneHealth.DoctorSchedule.benchmark;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.oneHealth.DoctorSchedule.OneHealthDoctorScheduleServicesApplication;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * An embedded PostgreSQL seeded with doctor schedules and the application context running on top of it,
+ * shared by the benchmarks that go through the service layer.
+ *
+ * Every doctor gets SLOTS_PER_DOCTOR slots: three shifts a day from 30 days ago to 60 days ahead, so the
+ * today-and-upcoming reads see a realistic mix of past and future slots whatever the table size.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+final class BenchmarkEnvironment implements AutoCloseable {
+
+    // 90 days of three shifts
+    static final int SLOTS_PER_DOCTOR = 270;
+
+    private static final String SEED_SQL = "INSERT INTO doctor_schedule (slot_id, doctor_id, date, start_time, end_time,"
+            + " type_availability, address_availability, shift)"
+            + " SELECT g + 1, g % ? + 1, current_date - 30 + (g / ?) / 3,"
+            + " time '09:00' + ((g / ?) % 3) * interval '4 hours',"
+            + " time '12:00' + ((g / ?) % 3) * interval '4 hours',"
+            + " CASE WHEN g % 2 = 0 THEN 'ONLINE' ELSE 'IN_PERSON' END,"
+            + " 'Clinic ' || (g % 50),"
+            + " (ARRAY['MORNING', 'AFTERNOON', 'EVENING'])[(g / ?) % 3 + 1]"
+            + " FROM generate_series(0, ? - 1) AS g";
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+    private final int doctors;
+
+    private BenchmarkEnvironment(EmbeddedPostgres postgres, ConfigurableApplicationContext context, int doctors) {
+        this.postgres = postgres;
+        this.context = context;
+        this.doctors = doctors;
+    }
+
+    /**
+     * Starts PostgreSQL and the application, then seeds the given number of slots.
+     *
+     * @param slots      The number of slots to seed.
+     * @param properties Application properties overriding the defaults, e.g. to disable the index.
+     * @return BenchmarkEnvironment The running environment; close it in the benchmark's tear-down.
+     */
+    static BenchmarkEnvironment start(int slots, Map<String, Object> properties) throws IOException {
+        // Restarts would reload the context mid-measurement
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try {
+            Map<String, Object> defaults = new HashMap<>();
+            defaults.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            defaults.put("spring.datasource.username", "postgres");
+            defaults.put("spring.datasource.password", "postgres");
+            defaults.put("spring.r2dbc.url", "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+            defaults.put("spring.r2dbc.username", "postgres");
+            defaults.put("spring.r2dbc.password", "postgres");
+            defaults.put("eureka.client.enabled", "false");
+            defaults.put("spring.jpa.properties.hibernate.format_sql", "false");
+            defaults.put("logging.level.root", "WARN");
+            defaults.putAll(properties);
+
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(OneHealthDoctorScheduleServicesApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(defaults)
+                    .run();
+
+            // The schema exists once the Flyway migrations have run at startup
+            int doctors = Math.max(1, slots / SLOTS_PER_DOCTOR);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            jdbc.update(SEED_SQL, doctors, doctors, doctors, doctors, doctors, slots);
+            jdbc.queryForObject("SELECT setval('" + DoctorSchedule.SLOT_ID_SEQUENCE + "', ?)", Long.class,
+                    (long) slots + 2L * DoctorSchedule.SLOT_ID_ALLOCATION_SIZE);
+            jdbc.execute("ANALYZE doctor_schedule");
+            return new BenchmarkEnvironment(postgres, context, doctors);
+        } catch (RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int getDoctors() {
+        return doctors;
+    }
+
+    long randomDoctorId() {
+        return ThreadLocalRandom.current().nextLong(1, doctors + 1L);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.oneHealth.DoctorSchedule.benchmark;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.logging.SampledLogger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Benchmarks the cost of the per-request log line of a doctor schedule read: the payload concatenated into the
+ * message as the endpoints used to log it, against the count passed as a placeholder, with and without sampling.
+ * Run with -prof gc (the benchmark profile does) and compare gc.alloc.rate.norm, the bytes allocated per request.
+ *
+ * The logger is enabled at INFO but has no appender, so the numbers are the cost of building the line rather
+ * than of writing it.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleLoggingBenchmark {
+
+    @Param({"10", "270", "10000"})
+    public int size;
+
+    private Logger logger;
+    private SampledLogger sampledLogger;
+    private List<DoctorSchedule> schedules;
+    private Long doctorId;
+
+    @Setup
+    public void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(ScheduleLoggingBenchmark.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        sampledLogger = SampledLogger.of(logger, Duration.ofSeconds(1));
+
+        doctorId = 1L;
+        schedules = new ArrayList<>(size);
+        LocalDate start = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            schedules.add(new DoctorSchedule((long) i + 1, doctorId, Date.valueOf(start.plusDays(i / 3)),
+                    Time.valueOf(LocalTime.of(9 + 4 * (i % 3), 0)), Time.valueOf(LocalTime.of(12 + 4 * (i % 3), 0)),
+                    i % 2 == 0 ? "ONLINE" : "IN_PERSON", "Clinic " + i % 50, i % 3 == 0 ? "MORNING" : "EVENING"));
+        }
+    }
+
+    @Benchmark
+    public void concatenatedPayload() {
+        logger.info("In Controller - Doctor Schedule Retrieved: " + schedules);
+    }
+
+    @Benchmark
+    public void parameterizedCount() {
+        logger.info("In Controller - Doctor Schedules Retrieved for doctor {}: {} schedules", doctorId, schedules.size());
+    }
+
+    @Benchmark
+    public void sampledCount() {
+        sampledLogger.info("In Controller - Doctor Schedules Retrieved for doctor {}: {} schedules", doctorId, schedules.size());
+    }
+}
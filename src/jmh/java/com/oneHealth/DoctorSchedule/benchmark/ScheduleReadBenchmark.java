@@ -0,0 +1,69 @@
+package com.oneHealth.DoctorSchedule.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.service.DoctorScheduleService;
+
+/**
+ * Benchmarks the per-doctor read paths of DoctorScheduleServiceImpl, with and without the in-process index,
+ * for a random doctor on every call.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ScheduleReadBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int slots;
+
+    @Param({"true", "false"})
+    public boolean indexEnabled;
+
+    private BenchmarkEnvironment environment;
+    private DoctorScheduleService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = BenchmarkEnvironment.start(slots, Map.of("doctorschedule.index.enabled", String.valueOf(indexEnabled)));
+        service = environment.getBean(DoctorScheduleService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public List<DoctorSchedule> findByDoctorId() {
+        return service.findByDoctorId(environment.randomDoctorId());
+    }
+
+    @Benchmark
+    public List<DoctorSchedule> getTodaysAndUpcomingSchedule() throws Exception {
+        return service.getTodaysAndUpcomingScheduleForDoctor(environment.randomDoctorId());
+    }
+}
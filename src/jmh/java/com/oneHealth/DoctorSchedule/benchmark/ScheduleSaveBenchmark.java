@@ -0,0 +1,87 @@
+package com.oneHealth.DoctorSchedule.benchmark;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
+import com.oneHealth.DoctorSchedule.service.DoctorScheduleService;
+
+/**
+ * Benchmarks the save path of DoctorScheduleServiceImpl including its duplicate and overlap checks: once for new
+ * slots, which are inserted, and once for a slot that already exists, which is rejected.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ScheduleSaveBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int slots;
+
+    private BenchmarkEnvironment environment;
+    private DoctorScheduleService service;
+
+    // Numbers the new slots so that each lands on a free doctor and date after the seeded ones
+    private final AtomicLong saved = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = BenchmarkEnvironment.start(slots, Map.of());
+        service = environment.getBean(DoctorScheduleService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public String saveNewSchedule() throws Exception {
+        long n = saved.getAndIncrement();
+        LocalDate date = LocalDate.now().plusDays(100 + n / environment.getDoctors());
+        return service.saveDoctorSchedule(schedule(n % environment.getDoctors() + 1, date, "MORNING"));
+    }
+
+    @Benchmark
+    public String saveDuplicateSchedule() throws Exception {
+        // The first seeded slot of every doctor
+        DoctorSchedule duplicate = schedule(environment.randomDoctorId(), LocalDate.now().minusDays(30), "MORNING");
+        try {
+            return service.saveDoctorSchedule(duplicate);
+        } catch (ScheduleConflictException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static DoctorSchedule schedule(long doctorId, LocalDate date, String shift) {
+        return new DoctorSchedule(null, doctorId, Date.valueOf(date), Time.valueOf(LocalTime.of(9, 0)),
+                Time.valueOf(LocalTime.of(12, 0)), "ONLINE", "Clinic 1", shift);
+    }
+}
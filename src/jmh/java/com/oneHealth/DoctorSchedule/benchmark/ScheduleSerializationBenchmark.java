@@ -0,0 +1,73 @@
+package com.oneHealth.DoctorSchedule.benchmark;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneHealth.DoctorSchedule.DTO.CompactScheduleListDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.json.DoctorScheduleSerializer;
+
+/**
+ * Benchmarks the Jackson serialization of schedule lists as the endpoints return them, using an ObjectMapper
+ * configured like Spring Boot's: with the DoctorScheduleSerializer in place of the reflective bean serializer,
+ * and in the compact form that leaves out null fields.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleSerializationBenchmark {
+
+    @Param({"10", "270", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<DoctorSchedule> schedules;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().serializers(new DoctorScheduleSerializer()).build();
+        schedules = new ArrayList<>(size);
+        LocalDate start = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            schedules.add(new DoctorSchedule((long) i + 1, 1L + i % 100, Date.valueOf(start.plusDays(i / 3)),
+                    Time.valueOf(LocalTime.of(9 + 4 * (i % 3), 0)), Time.valueOf(LocalTime.of(12 + 4 * (i % 3), 0)),
+                    i % 2 == 0 ? "ONLINE" : "IN_PERSON", i % 2 == 0 ? null : "Clinic " + i % 50, i % 3 == 0 ? "MORNING" : "EVENING"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeScheduleList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(schedules);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactScheduleList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new CompactScheduleListDTO(schedules));
+    }
+}
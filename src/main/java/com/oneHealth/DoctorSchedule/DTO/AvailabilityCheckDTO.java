@@ -0,0 +1,77 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.sql.Date;
+import java.sql.Time;
+
+/**
+ * Data Transfer Object (DTO) class representing the answer to whether a doctor is available for a stretch of time,
+ * as read from the doctor's availability bitmap.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class AvailabilityCheckDTO {
+
+    private Long doctorId; // The doctor asked about.
+    private Date date; // The date asked about.
+    private Time startTime; // When the stretch starts.
+    private int minutes; // Length of the stretch in minutes.
+    private boolean free; // Whether the doctor's schedules cover every 5-minute cell the stretch touches.
+
+    public AvailabilityCheckDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public AvailabilityCheckDTO(Long doctorId, Date date, Time startTime, int minutes, boolean free) {
+        this.doctorId = doctorId;
+        this.date = date;
+        this.startTime = startTime;
+        this.minutes = minutes;
+        this.free = free;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public Time getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Time startTime) {
+        this.startTime = startTime;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public boolean isFree() {
+        return free;
+    }
+
+    public void setFree(boolean free) {
+        this.free = free;
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityCheckDTO [doctorId=" + doctorId + ", date=" + date + ", startTime=" + startTime
+                + ", minutes=" + minutes + ", free=" + free + "]";
+    }
+}
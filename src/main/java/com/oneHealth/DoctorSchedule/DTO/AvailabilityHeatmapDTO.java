@@ -0,0 +1,54 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+/**
+ * Data Transfer Object (DTO) class representing how much of every day of a month a doctor is available, for
+ * calendar heatmaps.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class AvailabilityHeatmapDTO {
+
+    private Long doctorId; // The doctor.
+    private String month; // The month, as yyyy-MM.
+    private int[] freeMinutes; // Available minutes of every day of the month, the first day first.
+
+    public AvailabilityHeatmapDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public AvailabilityHeatmapDTO(Long doctorId, String month, int[] freeMinutes) {
+        this.doctorId = doctorId;
+        this.month = month;
+        this.freeMinutes = freeMinutes;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public int[] getFreeMinutes() {
+        return freeMinutes;
+    }
+
+    public void setFreeMinutes(int[] freeMinutes) {
+        this.freeMinutes = freeMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityHeatmapDTO [doctorId=" + doctorId + ", month=" + month + ", days="
+                + (freeMinutes == null ? 0 : freeMinutes.length) + "]";
+    }
+}
@@ -0,0 +1,92 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.sql.Date;
+import java.sql.Time;
+
+/**
+ * Data Transfer Object (DTO) class representing one bookable window of a doctor: a contiguous stretch of time on one
+ * date covered by the doctor's schedules with the same type and address of availability.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class AvailabilityWindowDTO {
+
+    private Long doctorId; // The doctor who is available.
+    private Date date; // The date of the window.
+    private Time startTime; // When the window starts.
+    private Time endTime; // When the window ends.
+    private long durationMinutes; // Length of the window in whole minutes.
+    private String typeAvailability; // Type of availability shared by the schedules in the window.
+    private String addressAvailability; // Address shared by the schedules in the window.
+
+    public AvailabilityWindowDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public AvailabilityWindowDTO(Long doctorId, Date date, Time startTime, Time endTime, long durationMinutes,
+            String typeAvailability, String addressAvailability) {
+        this.doctorId = doctorId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.durationMinutes = durationMinutes;
+        this.typeAvailability = typeAvailability;
+        this.addressAvailability = addressAvailability;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public Time getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Time startTime) {
+        this.startTime = startTime;
+    }
+
+    public Time getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Time endTime) {
+        this.endTime = endTime;
+    }
+
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(long durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public String getTypeAvailability() {
+        return typeAvailability;
+    }
+
+    public void setTypeAvailability(String typeAvailability) {
+        this.typeAvailability = typeAvailability;
+    }
+
+    public String getAddressAvailability() {
+        return addressAvailability;
+    }
+
+    public void setAddressAvailability(String addressAvailability) {
+        this.addressAvailability = addressAvailability;
+    }
+}
@@ -0,0 +1,115 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Data Transfer Object (DTO) class representing the outcome of a bulk schedule import.
+ * It holds the totals per outcome and the result of every row, in request order.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class BulkImportResultDTO {
+
+    private int received; // The number of rows received.
+    private int created; // The number of schedules created.
+    private int duplicates; // The number of rows rejected because the doctor, date and shift already exist.
+    private int overlaps; // The number of rows rejected because they overlap another schedule of the doctor that day.
+    private int invalid; // The number of rows rejected because they are incomplete or malformed.
+    private List<BulkImportRowResultDTO> rows = new ArrayList<>(); // The outcome of every row.
+
+    @JsonIgnore
+    private Set<Long> affectedDoctorIds = new HashSet<>(); // Doctors that received new schedules.
+
+    public BulkImportResultDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    /**
+     * Records the outcome of one row and updates the totals.
+     *
+     * @param row The outcome of the row.
+     */
+    public void addRow(BulkImportRowResultDTO row) {
+        rows.add(row);
+        received++;
+        switch (row.getStatus()) {
+            case CREATED -> created++;
+            case DUPLICATE -> duplicates++;
+            case OVERLAP -> overlaps++;
+            case INVALID -> invalid++;
+        }
+    }
+
+    /**
+     * Appends the rows and totals of another import, e.g. the next chunk of a streamed import.
+     *
+     * @param other The result to append.
+     * @return BulkImportResultDTO This result, for chaining.
+     */
+    public BulkImportResultDTO merge(BulkImportResultDTO other) {
+        other.getRows().forEach(this::addRow);
+        affectedDoctorIds.addAll(other.getAffectedDoctorIds());
+        return this;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getOverlaps() {
+        return overlaps;
+    }
+
+    public void setOverlaps(int overlaps) {
+        this.overlaps = overlaps;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<BulkImportRowResultDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<BulkImportRowResultDTO> rows) {
+        this.rows = rows;
+    }
+
+    public Set<Long> getAffectedDoctorIds() {
+        return affectedDoctorIds;
+    }
+
+    public void setAffectedDoctorIds(Set<Long> affectedDoctorIds) {
+        this.affectedDoctorIds = affectedDoctorIds;
+    }
+}
@@ -0,0 +1,62 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+/**
+ * Data Transfer Object (DTO) class representing the outcome of one row of a bulk schedule import.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class BulkImportRowResultDTO {
+
+    // Possible outcomes of an imported row
+    public enum Status {
+        CREATED, DUPLICATE, OVERLAP, INVALID
+    }
+
+    private int row; // The position of the row in the request, starting at 1.
+    private Status status; // The outcome of the row.
+    private Long slotId; // The slotId of the created schedule, only set for CREATED rows.
+    private String message; // The reason a row was rejected, only set for rejected rows.
+
+    public BulkImportRowResultDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public BulkImportRowResultDTO(int row, Status status, Long slotId, String message) {
+        this.row = row;
+        this.status = status;
+        this.slotId = slotId;
+        this.message = message;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
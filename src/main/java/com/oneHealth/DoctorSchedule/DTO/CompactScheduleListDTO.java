@@ -0,0 +1,19 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.json.DoctorScheduleSerializer;
+
+/**
+ * Data Transfer Object (DTO) wrapping a list of doctor schedules that is written in the compact form:
+ * a plain JSON array whose objects leave out null fields.
+ *
+ * @param schedules The schedules to write.
+ * @author Madhavi
+ * @version 1.0
+ */
+@JsonSerialize(using = DoctorScheduleSerializer.CompactListSerializer.class)
+public record CompactScheduleListDTO(List<DoctorSchedule> schedules) {
+}
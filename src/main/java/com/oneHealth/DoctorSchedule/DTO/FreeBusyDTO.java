@@ -0,0 +1,78 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.sql.Date;
+
+/**
+ * Data Transfer Object (DTO) class representing the availability of a doctor on one date as a bitmap of 5-minute
+ * cells: cell i starts at i * cellMinutes minutes after midnight and is bit i % 8 of byte i / 8 of cells, which is
+ * sent as Base64. A set bit means the doctor's bookable schedules cover the whole cell (free), a clear bit that
+ * they do not (busy).
+ * @author Madhavi
+ * @version 1.0
+ */
+public class FreeBusyDTO {
+
+    private Long doctorId; // The doctor.
+    private Date date; // The date.
+    private int cellMinutes; // Length of one cell in minutes.
+    private byte[] cells; // One bit per cell, 288 cells in 36 bytes.
+    private int freeMinutes; // Minutes covered by the set cells.
+
+    public FreeBusyDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public FreeBusyDTO(Long doctorId, Date date, int cellMinutes, byte[] cells, int freeMinutes) {
+        this.doctorId = doctorId;
+        this.date = date;
+        this.cellMinutes = cellMinutes;
+        this.cells = cells;
+        this.freeMinutes = freeMinutes;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public int getCellMinutes() {
+        return cellMinutes;
+    }
+
+    public void setCellMinutes(int cellMinutes) {
+        this.cellMinutes = cellMinutes;
+    }
+
+    public byte[] getCells() {
+        return cells;
+    }
+
+    public void setCells(byte[] cells) {
+        this.cells = cells;
+    }
+
+    public int getFreeMinutes() {
+        return freeMinutes;
+    }
+
+    public void setFreeMinutes(int freeMinutes) {
+        this.freeMinutes = freeMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "FreeBusyDTO [doctorId=" + doctorId + ", date=" + date + ", cellMinutes=" + cellMinutes
+                + ", freeMinutes=" + freeMinutes + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+/**
+ * Data Transfer Object (DTO) class representing one committed change to a doctor's schedule, as pushed to the
+ * subscribers of the change feed. It tells which doctor changed and how; clients that need the new slots fetch
+ * them with a conditional GET, whose ETag carries the same version.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ScheduleChangeEventDTO {
+
+    /**
+     * The kind of write that changed the schedule. ARCHIVED means past slots moved out of the live table,
+     * MOVED that the doctor's schedule moved to another shard without changing.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED, IMPORTED, TEMPLATE_CHANGED, ARCHIVED, MOVED
+    }
+
+    private final Type type; // The kind of write.
+    private final Long doctorId; // The doctor whose schedule changed.
+    private final Long slotId; // The slot written, or null for bulk imports and template changes.
+    private final long version; // The doctor's schedule version after the change.
+    private final long timestamp; // When the change was published, in epoch milliseconds.
+
+    public ScheduleChangeEventDTO(Type type, Long doctorId, Long slotId, long version, long timestamp) {
+        this.type = type;
+        this.doctorId = doctorId;
+        this.slotId = slotId;
+        this.version = version;
+        this.timestamp = timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleChangeEventDTO [type=" + type + ", doctorId=" + doctorId + ", slotId=" + slotId
+                + ", version=" + version + ", timestamp=" + timestamp + "]";
+    }
+}
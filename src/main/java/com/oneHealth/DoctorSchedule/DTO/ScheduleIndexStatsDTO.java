@@ -0,0 +1,89 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+/**
+ * Data Transfer Object (DTO) class representing the counters of the in-process doctor schedule index
+ * and of the single-flight today-and-upcoming reads.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ScheduleIndexStatsDTO {
+
+    private long hits; // Reads answered from the index.
+    private long misses; // Reads that had to load the doctor's slots from the database.
+    private long evictions; // Doctors dropped to stay within the size limits.
+    private int doctors; // Doctors currently held in the index.
+    private int slots; // Slots currently held in the index.
+    private long singleFlightLoads; // Today-and-upcoming reads that started a load of their own.
+    private long singleFlightShares; // Today-and-upcoming reads that shared another read's load.
+
+    public ScheduleIndexStatsDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public ScheduleIndexStatsDTO(long hits, long misses, long evictions, int doctors, int slots,
+            long singleFlightLoads, long singleFlightShares) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.doctors = doctors;
+        this.slots = slots;
+        this.singleFlightLoads = singleFlightLoads;
+        this.singleFlightShares = singleFlightShares;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public int getDoctors() {
+        return doctors;
+    }
+
+    public void setDoctors(int doctors) {
+        this.doctors = doctors;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public long getSingleFlightLoads() {
+        return singleFlightLoads;
+    }
+
+    public void setSingleFlightLoads(long singleFlightLoads) {
+        this.singleFlightLoads = singleFlightLoads;
+    }
+
+    public long getSingleFlightShares() {
+        return singleFlightShares;
+    }
+
+    public void setSingleFlightShares(long singleFlightShares) {
+        this.singleFlightShares = singleFlightShares;
+    }
+}
@@ -0,0 +1,42 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Data Transfer Object (DTO) class representing one keyset-paginated page of doctor schedules.
+ * The next page is requested by passing nextCursor as the "after" parameter; it is null on the last page.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class SchedulePageDTO {
+
+    private List<DoctorSchedule> items; // The doctor schedules of this page, ordered by slotId.
+    private Long nextCursor; // The slotId to continue after, or null when there are no more pages.
+
+    public SchedulePageDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public SchedulePageDTO(List<DoctorSchedule> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DoctorSchedule> getItems() {
+        return items;
+    }
+
+    public void setItems(List<DoctorSchedule> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
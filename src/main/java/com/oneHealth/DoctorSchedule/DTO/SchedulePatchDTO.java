@@ -0,0 +1,99 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+import java.sql.Date;
+import java.sql.Time;
+
+/**
+ * Data Transfer Object (DTO) class representing a partial update of a doctor schedule.
+ * Only the fields present in the request are written; absent (null) fields keep their current value.
+ * The version is the one the client last read and is required: the update only applies if the schedule
+ * has not been changed since.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class SchedulePatchDTO {
+
+    private Long version; // The version of the schedule the patch is based on.
+    private Date date; // The new date, or null to keep it.
+    private Time startTime; // The new start time, or null to keep it.
+    private Time endTime; // The new end time, or null to keep it.
+    private String typeAvailability; // The new type of availability, or null to keep it.
+    private String addressAvailability; // The new address, or null to keep it.
+    private String shift; // The new shift, or null to keep it.
+
+    public SchedulePatchDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    /**
+     * Tells whether the patch moves the schedule in time, so it has to be checked for overlaps.
+     *
+     * @return boolean Whether the date, start time or end time changes.
+     */
+    public boolean changesTimeRange() {
+        return date != null || startTime != null || endTime != null;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public Time getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Time startTime) {
+        this.startTime = startTime;
+    }
+
+    public Time getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Time endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getTypeAvailability() {
+        return typeAvailability;
+    }
+
+    public void setTypeAvailability(String typeAvailability) {
+        this.typeAvailability = typeAvailability;
+    }
+
+    public String getAddressAvailability() {
+        return addressAvailability;
+    }
+
+    public void setAddressAvailability(String addressAvailability) {
+        this.addressAvailability = addressAvailability;
+    }
+
+    public String getShift() {
+        return shift;
+    }
+
+    public void setShift(String shift) {
+        this.shift = shift;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulePatchDTO [version=" + version + ", date=" + date + ", startTime=" + startTime + ", endTime="
+                + endTime + ", typeAvailability=" + typeAvailability + ", addressAvailability=" + addressAvailability
+                + ", shift=" + shift + "]";
+    }
+}
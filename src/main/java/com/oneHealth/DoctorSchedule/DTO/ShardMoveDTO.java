@@ -0,0 +1,73 @@
+package com.oneHealth.DoctorSchedule.DTO;
+
+/**
+ * Data Transfer Object (DTO) class representing the move of one doctor's schedule from one shard to another.
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ShardMoveDTO {
+
+    private Long doctorId; // The doctor that moved.
+    private String fromShard; // The shard the doctor left.
+    private String toShard; // The shard now holding the doctor's schedule.
+    private int slots; // Slots copied, live and archived.
+    private int templates; // Recurring templates copied.
+
+    public ShardMoveDTO() {
+        // Default constructor required for deserialization by Jackson or other serialization frameworks.
+    }
+
+    public ShardMoveDTO(Long doctorId, String fromShard, String toShard, int slots, int templates) {
+        this.doctorId = doctorId;
+        this.fromShard = fromShard;
+        this.toShard = toShard;
+        this.slots = slots;
+        this.templates = templates;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public String getFromShard() {
+        return fromShard;
+    }
+
+    public void setFromShard(String fromShard) {
+        this.fromShard = fromShard;
+    }
+
+    public String getToShard() {
+        return toShard;
+    }
+
+    public void setToShard(String toShard) {
+        this.toShard = toShard;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public int getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(int templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardMoveDTO [doctorId=" + doctorId + ", fromShard=" + fromShard + ", toShard=" + toShard
+                + ", slots=" + slots + ", templates=" + templates + "]";
+    }
+}
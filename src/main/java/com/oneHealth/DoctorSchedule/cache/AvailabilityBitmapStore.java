@@ -0,0 +1,188 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process store of availability bitmaps, one per doctor and month.
+ *
+ * A day is split into CELLS_PER_DAY cells of CELL_MINUTES minutes; bit i of a day is set when the doctor's
+ * bookable schedules cover cell i completely. A month is a flat long[] of WORDS_PER_DAY words per day, so answering whether
+ * a doctor is available at some time is a few bit tests, and a month takes about 1.2 KB.
+ *
+ * Every bitmap carries the doctor's version from the ScheduleVersionRegistry read before it was built. A write
+ * bumps the version, on this instance and, through the shared cache tier, on the others, so a bitmap whose version
+ * is no longer current is rebuilt on the next read instead of being updated in place. The store is bounded by the
+ * number of doctor-months; the least recently used ones are evicted first.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class AvailabilityBitmapStore {
+
+    public static final int CELL_MINUTES = 5;
+
+    public static final int CELLS_PER_DAY = 24 * 60 / CELL_MINUTES;
+
+    public static final int WORDS_PER_DAY = (CELLS_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    private record Key(long doctorId, YearMonth month) {
+    }
+
+    private record Entry(long version, long[] words) {
+    }
+
+    private final int maxMonths;
+
+    // Access-ordered, so the least recently read doctor-month is evicted first. Guarded by "this".
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AvailabilityBitmapStore(@Value("${doctorschedule.availability.bitmap.max-months:20000}") int maxMonths) {
+        this.maxMonths = maxMonths;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > AvailabilityBitmapStore.this.maxMonths;
+            }
+        };
+    }
+
+    /**
+     * Returns a doctor's bitmap of a month if it was built from the given version.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param month    The month.
+     * @param version  The doctor's current version.
+     * @return long[] The month's words, not to be modified, or null if there is no current bitmap.
+     */
+    public synchronized long[] get(long doctorId, YearMonth month, long version) {
+        Entry entry = entries.get(new Key(doctorId, month));
+        if (entry == null || entry.version() != version) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.words();
+    }
+
+    /**
+     * Stores a doctor's bitmap of a month, unless a bitmap of a newer version got there first.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param month    The month.
+     * @param version  The doctor's version read before the bitmap was built.
+     * @param words    The month's words; the store keeps them, so they must not be modified afterwards.
+     */
+    public synchronized void put(long doctorId, YearMonth month, long version, long[] words) {
+        Key key = new Key(doctorId, month);
+        Entry existing = entries.get(key);
+        if (existing == null || existing.version() < version) {
+            entries.put(key, new Entry(version, words));
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int getMonthCount() {
+        return entries.size();
+    }
+
+    /**
+     * Creates the empty bitmap of a month.
+     *
+     * @param month The month.
+     * @return long[] WORDS_PER_DAY words per day of the month, all cells clear.
+     */
+    public static long[] newMonth(YearMonth month) {
+        return new long[month.lengthOfMonth() * WORDS_PER_DAY];
+    }
+
+    /**
+     * Marks the cells a time range covers completely: a range that starts or ends within a cell leaves that cell clear.
+     *
+     * @param words The month's words.
+     * @param day   The day of the month, starting at 1.
+     * @param start When the range starts.
+     * @param end   When the range ends, after start.
+     */
+    public static void cover(long[] words, int day, LocalTime start, LocalTime end) {
+        int from = (start.toSecondOfDay() + CELL_MINUTES * 60 - 1) / (CELL_MINUTES * 60);
+        int to = end.toSecondOfDay() / (CELL_MINUTES * 60);
+        int base = (day - 1) * WORDS_PER_DAY;
+        for (int cell = from; cell < to; cell++) {
+            words[base + cell / Long.SIZE] |= 1L << (cell % Long.SIZE);
+        }
+    }
+
+    /**
+     * Tells whether every cell of a range of cells is covered.
+     *
+     * @param words The month's words.
+     * @param day   The day of the month, starting at 1.
+     * @param from  The first cell.
+     * @param to    The cell after the last one.
+     * @return boolean True if all cells from from to to are covered.
+     */
+    public static boolean allCovered(long[] words, int day, int from, int to) {
+        int base = (day - 1) * WORDS_PER_DAY;
+        for (int cell = from; cell < to; ) {
+            int bit = cell % Long.SIZE;
+            int bits = Math.min(Long.SIZE - bit, to - cell);
+            long mask = (bits == Long.SIZE ? -1L : (1L << bits) - 1) << bit;
+            if ((words[base + cell / Long.SIZE] & mask) != mask) {
+                return false;
+            }
+            cell += bits;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the covered cells of a day.
+     *
+     * @param words The month's words.
+     * @param day   The day of the month, starting at 1.
+     * @return int The number of covered cells.
+     */
+    public static int countCovered(long[] words, int day) {
+        int count = 0;
+        for (int i = (day - 1) * WORDS_PER_DAY; i < day * WORDS_PER_DAY; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Copies the cells of a day into bytes: cell i is bit i % 8 of byte i / 8.
+     *
+     * @param words The month's words.
+     * @param day   The day of the month, starting at 1.
+     * @return byte[] The CELLS_PER_DAY / 8 bytes of the day.
+     */
+    public static byte[] dayBytes(long[] words, int day) {
+        byte[] bytes = new byte[(CELLS_PER_DAY + 7) / 8];
+        int base = (day - 1) * WORDS_PER_DAY;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[base + i / 8] >>> (i % 8 * 8));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,259 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Bounded in-process index of doctor schedules, keyed by doctorId.
+ *
+ * Each entry holds the complete list of a doctor's slots sorted by date and start time. Entries are
+ * loaded lazily on the first read for a doctor and dropped again whenever that doctor's schedule is
+ * written, so the next read goes back to the database. The index is bounded both by the number of
+ * doctors and by the total number of slots it holds; once either limit is exceeded the least recently
+ * used doctors are evicted.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class DoctorScheduleIndex {
+
+    // Orders a doctor's slots by date and then by start time, keeping incomplete rows at the end
+    private static final Comparator<DoctorSchedule> SLOT_ORDER = Comparator
+            .comparing(DoctorSchedule::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final boolean enabled;
+    private final int maxDoctors;
+    private final int maxSlots;
+
+    // Access-ordered map, so iteration starts at the least recently used doctor. Guarded by "this".
+    private final LinkedHashMap<Long, List<DoctorSchedule>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int slotCount;
+
+    // The loads running per doctor. Invalidating a doctor drops its entry, so only loads that raced with a write to
+    // that doctor are not cached; loads of other doctors are. Guarded by "this".
+    private final Map<Long, PendingLoad> pendingLoads = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DoctorScheduleIndex(@Value("${doctorschedule.index.enabled:true}") boolean enabled,
+            @Value("${doctorschedule.index.max-doctors:10000}") int maxDoctors,
+            @Value("${doctorschedule.index.max-slots:500000}") int maxSlots) {
+        this.enabled = enabled;
+        this.maxDoctors = maxDoctors;
+        this.maxSlots = maxSlots;
+    }
+
+    /**
+     * Returns the date-sorted slots of a doctor, loading them through the given loader on a miss.
+     *
+     * @param doctorId The ID of the doctor whose slots are requested.
+     * @param loader   Loads the doctor's slots from the database when they are not indexed yet.
+     * @return List<DoctorSchedule> An unmodifiable, date-sorted list of the doctor's slots.
+     */
+    public List<DoctorSchedule> get(Long doctorId, Function<Long, List<DoctorSchedule>> loader) {
+        if (!enabled) {
+            return sort(loader.apply(doctorId));
+        }
+        PendingLoad pending;
+        synchronized (this) {
+            List<DoctorSchedule> cached = entries.get(doctorId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            pending = startLoad(doctorId);
+        }
+        misses.incrementAndGet();
+
+        // Load outside the lock so a slow query for one doctor does not block reads for the others
+        List<DoctorSchedule> slots = null;
+        try {
+            slots = sort(loader.apply(doctorId));
+        } finally {
+            synchronized (this) {
+                finishLoad(doctorId, pending, slots);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the date-sorted slots of many doctors, loading all doctors that are not indexed in one call.
+     *
+     * @param doctorIds The IDs of the doctors whose slots are requested.
+     * @param loader    Loads the slots of the missing doctors; doctors without slots may be left out.
+     * @return Map<Long, List<DoctorSchedule>> The unmodifiable, date-sorted slots of every requested doctor,
+     *         in the order the doctors were given.
+     */
+    public Map<Long, List<DoctorSchedule>> getAll(Collection<Long> doctorIds,
+            Function<Set<Long>, Map<Long, List<DoctorSchedule>>> loader) {
+        Map<Long, List<DoctorSchedule>> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        Map<Long, PendingLoad> pending = new HashMap<>();
+        synchronized (this) {
+            for (Long doctorId : doctorIds) {
+                List<DoctorSchedule> cached = enabled ? entries.get(doctorId) : null;
+                if (cached != null) {
+                    found.put(doctorId, cached);
+                } else if (missing.add(doctorId) && enabled) {
+                    pending.put(doctorId, startLoad(doctorId));
+                }
+            }
+        }
+        if (enabled) {
+            hits.addAndGet(found.size());
+            misses.addAndGet(missing.size());
+        }
+
+        // Load and sort outside the lock, as in get
+        Map<Long, List<DoctorSchedule>> sorted = new LinkedHashMap<>();
+        try {
+            Map<Long, List<DoctorSchedule>> loaded = missing.isEmpty() ? Map.of() : loader.apply(missing);
+            for (Long doctorId : missing) {
+                sorted.put(doctorId, sort(loaded.getOrDefault(doctorId, List.of())));
+            }
+        } finally {
+            synchronized (this) {
+                pending.forEach((doctorId, load) -> finishLoad(doctorId, load, sorted.get(doctorId)));
+            }
+        }
+
+        Map<Long, List<DoctorSchedule>> slots = new LinkedHashMap<>();
+        for (Long doctorId : doctorIds) {
+            List<DoctorSchedule> cached = found.get(doctorId);
+            slots.put(doctorId, cached != null ? cached : sorted.get(doctorId));
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the date-sorted slots of a doctor only if they are already indexed, without loading them.
+     *
+     * @param doctorId The ID of the doctor whose slots are requested.
+     * @return List<DoctorSchedule> The indexed slots, or null if the doctor is not indexed.
+     */
+    public List<DoctorSchedule> getIfPresent(Long doctorId) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (this) {
+            List<DoctorSchedule> cached = entries.get(doctorId);
+            if (cached != null) {
+                hits.incrementAndGet();
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Drops the indexed slots of a doctor. Must be called after every write to that doctor's schedule.
+     *
+     * @param doctorId The ID of the doctor whose schedule changed.
+     */
+    public synchronized void invalidate(Long doctorId) {
+        pendingLoads.remove(doctorId);
+        List<DoctorSchedule> removed = entries.remove(doctorId);
+        if (removed != null) {
+            slotCount -= removed.size();
+        }
+    }
+
+    /**
+     * Drops every indexed doctor.
+     */
+    public synchronized void clear() {
+        pendingLoads.clear();
+        entries.clear();
+        slotCount = 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getDoctorCount() {
+        return entries.size();
+    }
+
+    public synchronized int getSlotCount() {
+        return slotCount;
+    }
+
+    // Registers a load of a doctor's slots; loads of the same doctor running at once share one registration
+    private PendingLoad startLoad(Long doctorId) {
+        PendingLoad pending = pendingLoads.computeIfAbsent(doctorId, id -> new PendingLoad());
+        pending.loaders++;
+        return pending;
+    }
+
+    // Stores the loaded slots unless the doctor was invalidated since the load started, i.e. its registration is
+    // gone or was replaced, and drops the registration once its last load finished
+    private void finishLoad(Long doctorId, PendingLoad pending, List<DoctorSchedule> slots) {
+        boolean current = pendingLoads.get(doctorId) == pending;
+        if (current && slots != null) {
+            put(doctorId, slots);
+        }
+        if (--pending.loaders == 0 && current) {
+            pendingLoads.remove(doctorId);
+        }
+    }
+
+    // Stores a doctor's slots and evicts least recently used doctors until both limits hold again
+    private void put(Long doctorId, List<DoctorSchedule> slots) {
+        if (slots.size() > maxSlots) {
+            return;
+        }
+        List<DoctorSchedule> previous = entries.put(doctorId, slots);
+        if (previous != null) {
+            slotCount -= previous.size();
+        }
+        slotCount += slots.size();
+
+        Iterator<Map.Entry<Long, List<DoctorSchedule>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxDoctors || slotCount > maxSlots) && eldest.hasNext()) {
+            Map.Entry<Long, List<DoctorSchedule>> entry = eldest.next();
+            slotCount -= entry.getValue().size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static List<DoctorSchedule> sort(List<DoctorSchedule> slots) {
+        List<DoctorSchedule> sorted = new ArrayList<>(slots);
+        sorted.sort(SLOT_ORDER);
+        return Collections.unmodifiableList(sorted);
+    }
+
+    // The loads of one doctor's slots running at once
+    private static class PendingLoad {
+        int loaders;
+    }
+}
@@ -0,0 +1,99 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.routing.ReplicaRoutingDataSource;
+
+/**
+ * In-process stand-in for the shared tier, with the same expiry and generation rules as the Redis one, so the
+ * two-level path can run without a Redis server, e.g. in tests. There are no other instances, so listeners are
+ * never called, and expired entries are only replaced, never swept, so it is not meant for production. Active when
+ * doctorschedule.cache.shared is "in-memory".
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.cache.shared", havingValue = "in-memory")
+public class InMemorySharedScheduleCache implements SharedScheduleCache {
+
+    private record Entry<V>(V value, long generation, long expiresAt) {
+    }
+
+    // Bumped by every write to the doctor; entries loaded under an older generation are not served
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Entry<List<DoctorSchedule>>> doctors = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Entry<DoctorSchedule>> slots = new ConcurrentHashMap<>();
+
+    private final long doctorTtlNanos;
+    private final long slotTtlNanos;
+
+    public InMemorySharedScheduleCache(@Value("${doctorschedule.cache.shared.doctor-ttl-seconds:300}") long doctorTtlSeconds,
+            @Value("${doctorschedule.cache.shared.slot-ttl-seconds:60}") long slotTtlSeconds) {
+        this.doctorTtlNanos = TimeUnit.SECONDS.toNanos(doctorTtlSeconds);
+        this.slotTtlNanos = TimeUnit.SECONDS.toNanos(slotTtlSeconds);
+    }
+
+    @Override
+    public List<DoctorSchedule> getDoctorSlots(Long doctorId, Function<Long, List<DoctorSchedule>> loader) {
+        long generation = generations.getOrDefault(doctorId, 0L);
+        Entry<List<DoctorSchedule>> entry = doctors.get(doctorId);
+        if (entry != null && entry.generation() == generation && entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.value();
+        }
+        List<DoctorSchedule> loaded = loader.apply(doctorId);
+        if (ReplicaRoutingDataSource.isReadingReplica()) {
+            return loaded;
+        }
+        doctors.put(doctorId, new Entry<>(loaded, generation, System.nanoTime() + doctorTtlNanos));
+        return loaded;
+    }
+
+    @Override
+    public DoctorSchedule getSlot(Long slotId, Function<Long, DoctorSchedule> loader) {
+        Entry<DoctorSchedule> entry = slots.get(slotId);
+        if (entry != null && entry.generation() == generations.getOrDefault(entry.value().getDoctorId(), 0L)
+                && entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.value();
+        }
+        DoctorSchedule loaded = loader.apply(slotId);
+        if (loaded != null && loaded.getDoctorId() != null && !ReplicaRoutingDataSource.isReadingReplica()) {
+            slots.put(slotId, new Entry<>(loaded, generations.getOrDefault(loaded.getDoctorId(), 0L),
+                    System.nanoTime() + slotTtlNanos));
+        }
+        return loaded;
+    }
+
+    @Override
+    public void invalidate(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        if (doctorId != null) {
+            generations.merge(doctorId, 1L, Long::sum);
+            doctors.remove(doctorId);
+        }
+        if (slotId != null) {
+            slots.remove(slotId);
+        }
+    }
+
+    @Override
+    public void addInvalidationListener(InvalidationListener listener) {
+        // No other instance reports writes
+    }
+
+    @Override
+    public boolean seesOtherInstances() {
+        // Meant for a single process, where there are no other instances to miss
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * No shared tier: every lookup goes to the loader. For single-instance deployments; active when
+ * doctorschedule.cache.shared is "none" (the default).
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.cache.shared", havingValue = "none", matchIfMissing = true)
+public class NoSharedScheduleCache implements SharedScheduleCache {
+
+    @Override
+    public List<DoctorSchedule> getDoctorSlots(Long doctorId, Function<Long, List<DoctorSchedule>> loader) {
+        return loader.apply(doctorId);
+    }
+
+    @Override
+    public DoctorSchedule getSlot(Long slotId, Function<Long, DoctorSchedule> loader) {
+        return loader.apply(slotId);
+    }
+
+    @Override
+    public void invalidate(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        // Nothing is shared
+    }
+
+    @Override
+    public void addInvalidationListener(InvalidationListener listener) {
+        // No other instance reports writes
+    }
+
+    @Override
+    public boolean seesOtherInstances() {
+        // Writes made through other instances go unnoticed
+        return false;
+    }
+}
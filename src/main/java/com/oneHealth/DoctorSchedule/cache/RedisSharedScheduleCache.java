@@ -0,0 +1,230 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.logging.SampledLogger;
+import com.oneHealth.DoctorSchedule.routing.ReplicaRoutingDataSource;
+
+/**
+ * Shared tier in Redis (or any server speaking its protocol), active when doctorschedule.cache.shared is "redis".
+ *
+ * A doctor's slots are stored as JSON under a key that contains the doctor's generation, a counter every write
+ * to the doctor increments. A reader reads the generation first and stores what it loads under that generation,
+ * so a load that raced with a write ends up under a key nobody reads any more, and old generations simply expire.
+ * A slot is stored with the generation of its doctor as read after the load, and is also deleted by writes to it;
+ * its shorter TTL bounds the rare case of a write committing between the load and that read. Loads that read
+ * from a read replica are returned without being stored.
+ *
+ * Writes are broadcast on a pub/sub channel as "instance|type|doctorId|slotId"; every other instance hands them
+ * to its InvalidationListeners. A message lost while an instance was disconnected is not redelivered, which the
+ * TTLs bound as well. When Redis cannot be reached, reads fall back to the loader and writes log a warning.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.cache.shared", havingValue = "redis")
+public class RedisSharedScheduleCache implements SharedScheduleCache, InitializingBean, DisposableBean {
+
+    private static final TypeReference<List<DoctorSchedule>> SLOT_LIST = new TypeReference<>() {
+    };
+
+    // Value of a shared slot: the doctor's generation when it was stored, and the slot
+    record SlotEntry(long generation, DoctorSchedule slot) {
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RedisSharedScheduleCache.class);
+
+    // Redis outages would otherwise log once per request
+    private final SampledLogger failureLogger = SampledLogger.of(logger, Duration.ofSeconds(10));
+
+    @Autowired
+    private StringRedisTemplate redis;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private ObjectMapper applicationMapper;
+
+    // Slots are written with their dates and times in the JVM's zone (java.sql.Date/Time.toString), so they must
+    // be read back in that zone rather than Jackson's default UTC, or dates would shift by a day west of UTC
+    private ObjectMapper objectMapper;
+
+    @Value("${doctorschedule.cache.shared.key-prefix:doctorschedule:}")
+    private String keyPrefix;
+
+    @Value("${doctorschedule.cache.shared.doctor-ttl-seconds:300}")
+    private long doctorTtlSeconds;
+
+    @Value("${doctorschedule.cache.shared.slot-ttl-seconds:60}")
+    private long slotTtlSeconds;
+
+    // Tells this instance's own broadcasts apart from the others'
+    private final String instanceId = Long.toString(System.nanoTime() ^ System.currentTimeMillis(), 36);
+
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    private RedisMessageListenerContainer container;
+
+    @Override
+    public void afterPropertiesSet() {
+        objectMapper = applicationMapper.copy().setTimeZone(TimeZone.getDefault());
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this::onMessage, new ChannelTopic(channel()));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+
+    @Override
+    public List<DoctorSchedule> getDoctorSlots(Long doctorId, Function<Long, List<DoctorSchedule>> loader) {
+        String key;
+        try {
+            key = doctorKey(doctorId, generation(doctorId));
+            String json = redis.opsForValue().get(key);
+            if (json != null) {
+                return objectMapper.readValue(json, SLOT_LIST);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            failureLogger.info("Shared cache - Read of doctor {} failed, loading from the database: {}", doctorId, e.toString());
+            return loader.apply(doctorId);
+        }
+
+        List<DoctorSchedule> loaded = loader.apply(doctorId);
+        if (ReplicaRoutingDataSource.isReadingReplica()) {
+            return loaded;
+        }
+        try {
+            redis.opsForValue().set(key, objectMapper.writeValueAsString(loaded), Duration.ofSeconds(doctorTtlSeconds));
+        } catch (DataAccessException | JsonProcessingException e) {
+            failureLogger.info("Shared cache - Store of doctor {} failed: {}", doctorId, e.toString());
+        }
+        return loaded;
+    }
+
+    @Override
+    public DoctorSchedule getSlot(Long slotId, Function<Long, DoctorSchedule> loader) {
+        try {
+            String json = redis.opsForValue().get(slotKey(slotId));
+            if (json != null) {
+                SlotEntry entry = objectMapper.readValue(json, SlotEntry.class);
+                if (entry.generation() == generation(entry.slot().getDoctorId())) {
+                    return entry.slot();
+                }
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            failureLogger.info("Shared cache - Read of slot {} failed, loading from the database: {}", slotId, e.toString());
+            return loader.apply(slotId);
+        }
+
+        DoctorSchedule loaded = loader.apply(slotId);
+        if (loaded == null || loaded.getDoctorId() == null || ReplicaRoutingDataSource.isReadingReplica()) {
+            return loaded;
+        }
+        try {
+            redis.opsForValue().set(slotKey(slotId),
+                    objectMapper.writeValueAsString(new SlotEntry(generation(loaded.getDoctorId()), loaded)),
+                    Duration.ofSeconds(slotTtlSeconds));
+        } catch (DataAccessException | JsonProcessingException e) {
+            failureLogger.info("Shared cache - Store of slot {} failed: {}", slotId, e.toString());
+        }
+        return loaded;
+    }
+
+    @Override
+    public void invalidate(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        try {
+            if (doctorId != null) {
+                redis.opsForValue().increment(generationKey(doctorId));
+            }
+            if (slotId != null) {
+                redis.delete(slotKey(slotId));
+            }
+            redis.convertAndSend(channel(), String.join("|", instanceId, type.name(), String.valueOf(doctorId),
+                    String.valueOf(slotId)));
+        } catch (DataAccessException e) {
+            // Other instances keep serving their copies until the TTLs expire
+            logger.warn("Shared cache - Invalidation of doctor {} slot {} failed: {}", doctorId, slotId, e.toString());
+        }
+    }
+
+    @Override
+    public void addInvalidationListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean seesOtherInstances() {
+        return true;
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+        try {
+            ScheduleChangeEventDTO.Type type = ScheduleChangeEventDTO.Type.valueOf(parts[1]);
+            Long doctorId = "null".equals(parts[2]) ? null : Long.valueOf(parts[2]);
+            Long slotId = "null".equals(parts[3]) ? null : Long.valueOf(parts[3]);
+            for (InvalidationListener listener : listeners) {
+                listener.invalidated(type, doctorId, slotId);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Shared cache - Ignoring malformed invalidation {}", String.join("|", parts));
+        }
+    }
+
+    // The doctor's current generation; 0 until the first write after the counter was created
+    private long generation(Long doctorId) {
+        String value = redis.opsForValue().get(generationKey(doctorId));
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    private String generationKey(Long doctorId) {
+        return keyPrefix + "gen:" + doctorId;
+    }
+
+    private String doctorKey(Long doctorId, long generation) {
+        return keyPrefix + "doctor:" + doctorId + ":" + generation;
+    }
+
+    private String slotKey(Long slotId) {
+        return keyPrefix + "slot:" + slotId;
+    }
+
+    private String channel() {
+        return keyPrefix + "invalidations";
+    }
+}
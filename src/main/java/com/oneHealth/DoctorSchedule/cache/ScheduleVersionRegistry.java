@@ -0,0 +1,102 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-doctor version counters of the schedule data, used as validators for HTTP conditional GETs.
+ *
+ * Every committed write to a doctor's slots or templates bumps the doctor's version, so a client that sends back
+ * the ETag of its last response can be answered with 304 Not Modified without loading anything. Counters live in
+ * memory and start over on every restart; the ETags therefore carry an ID of the running instance, so an ETag
+ * from before a restart never matches. The counters see the writes made through this instance, and those of the
+ * other instances only when the shared cache tier reports them. Without such a tier a client polling another
+ * instance would be answered 304 after a write landed elsewhere, so validators are only sent when the tier sees
+ * every instance, see sendsValidators.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ScheduleVersionRegistry {
+
+    /**
+     * The version of one doctor's schedule data.
+     *
+     * @param version      Incremented on every committed write.
+     * @param lastModified When the version was bumped, in epoch milliseconds rounded to whole seconds.
+     */
+    public record Version(long version, long lastModified) {
+    }
+
+    private final String instanceId;
+
+    // Whether the counters hear of the writes made through the other instances
+    private final boolean sendsValidators;
+
+    // Version of the doctors that have not been written since startup
+    private final Version initial;
+
+    private final ConcurrentHashMap<Long, Version> versions = new ConcurrentHashMap<>();
+
+    public ScheduleVersionRegistry(SharedScheduleCache sharedCache) {
+        this.sendsValidators = sharedCache.seesOtherInstances();
+        long startedAt = System.currentTimeMillis();
+        this.instanceId = Long.toString(startedAt, 36);
+        this.initial = new Version(0L, startedAt / 1000L * 1000L);
+    }
+
+    /**
+     * Tells whether responses may carry an ETag and Last-Modified built from these versions and be answered with
+     * 304. False when doctorschedule.cache.shared is "none", because writes made through other instances would
+     * not bump the versions here.
+     *
+     * @return boolean Whether conditional GETs are answered.
+     */
+    public boolean sendsValidators() {
+        return sendsValidators;
+    }
+
+    /**
+     * Returns the current version of a doctor's schedule data. Callers must read it before loading the data,
+     * so that a write racing with the load can only make the ETag older than the body, never newer.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return Version The doctor's current version.
+     */
+    public Version current(Long doctorId) {
+        return versions.getOrDefault(doctorId, initial);
+    }
+
+    /**
+     * Bumps a doctor's version after a committed write.
+     *
+     * Last-Modified has a resolution of one second, so every bump also moves lastModified forward by at least
+     * one second; otherwise a client that read between two writes in the same second would be sent 304 for an
+     * If-Modified-Since request.
+     *
+     * @param doctorId The ID of the doctor whose schedule changed.
+     * @return Version The doctor's new version.
+     */
+    public Version bump(Long doctorId) {
+        long now = System.currentTimeMillis() / 1000L * 1000L;
+        return versions.merge(doctorId, new Version(1L, Math.max(now, initial.lastModified() + 1000L)),
+                (previous, first) -> new Version(previous.version() + 1L, Math.max(now, previous.lastModified() + 1000L)));
+    }
+
+    /**
+     * Builds the strong ETag of a response from the doctor's version. Responses that depend on the current date,
+     * like the upcoming schedules, change at midnight without a write, so the date is part of the tag; the variant
+     * tells apart the representations served under the same version, e.g. the compact form.
+     *
+     * @param version The version read before loading the data.
+     * @param today   The date the response was computed for.
+     * @param variant A short name of the representation.
+     * @return String The quoted ETag.
+     */
+    public String etag(Version version, LocalDate today, String variant) {
+        return "\"" + instanceId + "-" + version.version() + "-" + today.toEpochDay() + "-" + variant + "\"";
+    }
+}
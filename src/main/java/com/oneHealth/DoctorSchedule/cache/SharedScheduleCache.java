@@ -0,0 +1,53 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * The shared tier behind the per-instance caches: the slots of a doctor and single slots looked up by ID, held
+ * where every instance of the service can read them, so an instance that misses its own schedule index does not
+ * have to go to the database when another instance already did.
+ *
+ * Every committed write is reported through invalidate, which drops the affected entries and tells the other
+ * instances, whose InvalidationListeners then drop their own cached copies. Implementations never fail a read
+ * because the shared tier is unavailable; they fall back to the loader. What a loader read from a read replica is
+ * returned but never shared: the replica may not have caught up with a write whose invalidation already went out,
+ * and the stale copy would be served to every instance, the writer included, under the new generation.
+ *
+ * doctorschedule.cache.shared selects the implementation: "none" (the default), "in-memory" (a single-process
+ * stand-in, e.g. for tests) or "redis".
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface SharedScheduleCache {
+
+    /**
+     * Receives the writes committed on other instances.
+     */
+    @FunctionalInterface
+    interface InvalidationListener {
+
+        // Called once per write on another instance, with the arguments that instance passed to invalidate
+        void invalidated(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId);
+    }
+
+    // Method to return the stored slots of a doctor, loading and sharing them on a miss
+    List<DoctorSchedule> getDoctorSlots(Long doctorId, Function<Long, List<DoctorSchedule>> loader);
+
+    // Method to return a slot by its ID, loading and sharing it on a miss; a null from the loader is not shared
+    DoctorSchedule getSlot(Long slotId, Function<Long, DoctorSchedule> loader);
+
+    // Method to drop the entries of a committed write and tell the other instances about it
+    void invalidate(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId);
+
+    // Method to register a listener for the writes committed on other instances
+    void addInvalidationListener(InvalidationListener listener);
+
+    // Method to tell whether the listeners hear of the writes committed on every other instance, so that
+    // per-instance state kept current by them (e.g. the schedule versions) reflects every write
+    boolean seesOtherInstances();
+}
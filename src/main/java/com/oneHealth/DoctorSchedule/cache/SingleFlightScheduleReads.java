@@ -0,0 +1,147 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Single-flight deduplication of the today-and-upcoming reads, which popular doctors get in bursts at the top
+ * of every hour.
+ *
+ * Concurrent reads of the same doctor, window and day share one in-flight load; its result is then handed to
+ * further reads for a short TTL. This is not a cache: entries are dropped once the TTL after their load passed,
+ * failures are never kept, and every committed write to a doctor drops the doctor's entries (see
+ * ScheduleChangeNotifier), so a read that starts after a write never gets a result loaded before it. The day is
+ * part of the key because the window starts today.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class SingleFlightScheduleReads {
+
+    // A requested window of one doctor, as of one day
+    private record Window(LocalDate day, LocalDate from, LocalDate to) {
+    }
+
+    private final class Flight {
+        private final Long doctorId;
+        private final Window window;
+        private final Mono<List<DoctorSchedule>> result;
+
+        // Set once the load completed; a failed load expires at once
+        private volatile boolean done;
+        private volatile long expiresAt;
+
+        private Flight(Long doctorId, Window window, Mono<List<DoctorSchedule>> load) {
+            this.doctorId = doctorId;
+            this.window = window;
+            this.result = load
+                    .doOnSuccess(slots -> complete(ttlNanos))
+                    .doOnError(e -> complete(0L))
+                    .cache();
+        }
+
+        // Starts the TTL and drops the flight once it passed, so neither the doctor's windows nor their result
+        // lists outlive it, however many different windows are requested
+        private void complete(long ttlNanos) {
+            expiresAt = System.nanoTime() + ttlNanos;
+            done = true;
+            if (ttlNanos == 0L) {
+                remove(this);
+            } else {
+                Schedulers.parallel().schedule(() -> remove(this), ttlNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean isLive(long now) {
+            return !done || expiresAt - now > 0;
+        }
+    }
+
+    private final boolean enabled;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Window, Flight>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong shares = new AtomicLong();
+
+    public SingleFlightScheduleReads(@Value("${doctorschedule.single-flight.enabled:true}") boolean enabled,
+            @Value("${doctorschedule.single-flight.result-ttl-ms:500}") long resultTtlMillis) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, resultTtlMillis));
+    }
+
+    /**
+     * Returns the doctor's slots within a window, sharing the load with concurrent reads of the same window.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The requested first date, or null.
+     * @param to       The requested last date, or null.
+     * @param loader   Creates the load when no live flight exists; called at most once per flight.
+     * @return Mono<List<DoctorSchedule>> The slots, possibly loaded for another read within the TTL.
+     */
+    public Mono<List<DoctorSchedule>> get(Long doctorId, LocalDate from, LocalDate to, Supplier<Mono<List<DoctorSchedule>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return Mono.defer(() -> {
+            Window window = new Window(LocalDate.now(), from, to);
+            ConcurrentHashMap<Window, Flight> windows = flights.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>());
+            Flight[] started = new Flight[1];
+            Flight flight = windows.compute(window, (key, current) -> {
+                if (current != null && current.isLive(System.nanoTime())) {
+                    return current;
+                }
+                started[0] = new Flight(doctorId, key, loader.get());
+                return started[0];
+            });
+            if (started[0] == null) {
+                shares.incrementAndGet();
+            } else {
+                loads.incrementAndGet();
+            }
+            return flight.result;
+        });
+    }
+
+    /**
+     * Drops the flights of a doctor, so reads after a committed write load afresh.
+     *
+     * @param doctorId The ID of the doctor whose schedule changed.
+     */
+    public void invalidate(Long doctorId) {
+        flights.remove(doctorId);
+    }
+
+    // Reads that started a load of their own
+    public long getLoads() {
+        return loads.get();
+    }
+
+    // Reads answered by a load started for another read
+    public long getShares() {
+        return shares.get();
+    }
+
+    // Drops an expired flight unless a newer one replaced it, and the doctor's map once it is empty. A flight
+    // whose doctor was invalidated meanwhile lives in a map that is no longer reachable, so nothing is left to do.
+    private void remove(Flight flight) {
+        flights.computeIfPresent(flight.doctorId, (id, windows) -> {
+            windows.remove(flight.window, flight);
+            return windows.isEmpty() ? null : windows;
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the metrics that Spring Boot does not record on its own.
+ *
+ * HTTP requests, Spring Data repository calls and the JDBC connection pool are timed by Spring Boot.
+ * The aspect registered here times the methods annotated with @Timed, e.g. the JDBC repository.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.oneHealth.DoctorSchedule.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuration of the read replicas, active when doctorschedule.replicas.urls lists at least one JDBC URL.
+ *
+ * The primary keeps its spring.datasource settings; every replica gets a pool of its own with the primary's
+ * credentials unless doctorschedule.replicas.username/password are set. The DataSource used by JPA and
+ * JdbcTemplate routes read-only transactions to the replicas, see ReplicaRoutingDataSource. The R2DBC data
+ * path keeps using spring.r2dbc.url. With doctorschedule.shards.urls set, ShardingConfig takes over and the replicas
+ * are not used.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnExpression("!'${doctorschedule.replicas.urls:}'.trim().isEmpty() and '${doctorschedule.shards.urls:}'.trim().isEmpty()")
+public class ReplicaRoutingConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    /**
+     * Creates the pool of the primary from the spring.datasource settings.
+     *
+     * @param properties The spring.datasource settings.
+     * @return HikariDataSource The pool of the primary.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the DataSource that routes read-only transactions to the replicas.
+     *
+     * @param primary  The pool of the primary.
+     * @param urls     The JDBC URLs of the replicas, comma separated.
+     * @param username The user for the replicas, or empty for the primary's.
+     * @param password The password for the replicas, or empty for the primary's.
+     * @param poolSize The maximum size of each replica pool.
+     * @return ReplicaRoutingDataSource The routing DataSource, which owns the replica pools.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primary,
+            @Value("${doctorschedule.replicas.urls}") List<String> urls,
+            @Value("${doctorschedule.replicas.username:}") String username,
+            @Value("${doctorschedule.replicas.password:}") String password,
+            @Value("${doctorschedule.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(primary.getDriverClassName());
+            replica.setUsername(username.isEmpty() ? primary.getUsername() : username);
+            replica.setPassword(password.isEmpty() ? primary.getPassword() : password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        logger.info("Read-only transactions are routed to {} replicas", replicas.size());
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * Creates the DataSource used by JPA, JdbcTemplate and Flyway. Connections are fetched lazily, once the
+     * read-only flag of the transaction is known.
+     *
+     * @param routing The routing DataSource.
+     * @return DataSource The lazy proxy of the routing DataSource.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
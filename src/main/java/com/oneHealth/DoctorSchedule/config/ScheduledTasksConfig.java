@@ -0,0 +1,18 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs of the service: the schedule outbox relay, the partition maintenance and, with
+ * shards, the refresh of the doctor moves (ShardRebalanceServiceImpl).
+ * Each job can be switched off with its own property (doctorschedule.outbox.relay.enabled,
+ * doctorschedule.partitions.maintenance.enabled), e.g. on instances that should leave it to others.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Configuration
+@EnableScheduling
+public class ScheduledTasksConfig {
+}
@@ -0,0 +1,80 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration of the scheduler that runs blocking JDBC/JPA work on behalf of the reactive endpoints.
+ *
+ * The controller runs on the Netty event loop, so every call that may block on the database is
+ * subscribed on this scheduler instead. doctorschedule.jdbc-scheduler.mode selects how:
+ * "bounded-elastic" (the default) uses a bounded pool of platform threads, "virtual" starts one
+ * virtual thread per call (Java 21 or later), so slow clients no longer compete for a few platform threads.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Configuration
+public class SchedulerConfig {
+
+    public static final String MODE_BOUNDED_ELASTIC = "bounded-elastic";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final Logger logger = LoggerFactory.getLogger(SchedulerConfig.class);
+
+    /**
+     * Creates the scheduler used to offload blocking database calls from the event loop.
+     *
+     * @param mode         "bounded-elastic" or "virtual".
+     * @param threads      The maximum number of worker threads, or 0 for Reactor's bounded-elastic default.
+     *                     Ignored in virtual mode.
+     * @param queuedTasks  The maximum number of tasks waiting for a worker, or 0 for Reactor's bounded-elastic default.
+     *                     Ignored in virtual mode.
+     * @param poolSize     The maximum size of the JDBC connection pool, used to check the sizing of the scheduler.
+     * @return Scheduler The scheduler for blocking database calls.
+     */
+    @Bean(name = "jdbcScheduler", destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${doctorschedule.jdbc-scheduler.mode:" + MODE_BOUNDED_ELASTIC + "}") String mode,
+            @Value("${doctorschedule.jdbc-scheduler.threads:0}") int threads,
+            @Value("${doctorschedule.jdbc-scheduler.queued-tasks:0}") int queuedTasks,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        if (MODE_VIRTUAL.equals(mode)) {
+            // Concurrency is no longer capped by the scheduler, so the connection pool is the only limit on
+            // concurrent queries; callers beyond it park cheaply until a connection frees up or the
+            // pool's connection-timeout expires.
+            logger.info("JDBC scheduler uses virtual threads; concurrent queries are limited by the connection pool ({} connections)",
+                    poolSize);
+            return Schedulers.fromExecutorService(newVirtualThreadPerTaskExecutor(), "jdbc-virtual");
+        }
+        if (!MODE_BOUNDED_ELASTIC.equals(mode)) {
+            throw new IllegalArgumentException("Unknown doctorschedule.jdbc-scheduler.mode: " + mode);
+        }
+
+        int size = threads > 0 ? threads : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        if (size > poolSize) {
+            // Threads beyond the pool size can only wait for a connection while holding a platform thread
+            logger.info("JDBC scheduler has {} threads for {} pooled connections; threads beyond the pool size wait for a connection",
+                    size, poolSize);
+        }
+        return Schedulers.newBoundedElastic(size,
+                queuedTasks > 0 ? queuedTasks : Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+    }
+
+    // Looked up reflectively so the service still builds and runs on Java 17 when virtual mode is not used
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("doctorschedule.jdbc-scheduler.mode=" + MODE_VIRTUAL + " requires Java 21 or later", e);
+        }
+    }
+}
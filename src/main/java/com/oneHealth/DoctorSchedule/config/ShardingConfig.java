@@ -0,0 +1,139 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+import com.oneHealth.DoctorSchedule.routing.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuration of the doctor shards, active when doctorschedule.shards.urls lists at least one "name=jdbcUrl".
+ *
+ * Every shard gets a pool of its own with the spring.datasource credentials unless doctorschedule.shards.username/
+ * password are set; spring.datasource.url is not used. The DataSource used by JPA, JdbcTemplate and Flyway routes
+ * every transaction to the shard it names, see ShardRouter. At startup the Flyway migrations run on every shard,
+ * and each shard's sequences are moved to the shard's own ID range. The shards replace the read replicas, and the
+ * R2DBC data path, which has a single connection, cannot be used with them.
+ *
+ * For local testing the shards can be databases of one server, or schemas of one database selected with
+ * currentSchema in the JDBC URL.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnExpression("!'${doctorschedule.shards.urls:}'.trim().isEmpty()")
+public class ShardingConfig {
+
+    // Sequences whose values must not repeat across shards
+    private static final List<String> SEQUENCES = List.of(DoctorSchedule.SLOT_ID_SEQUENCE, "schedule_template_seq",
+            ScheduleOutboxEvent.ID_SEQUENCE);
+
+    private final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    public ShardingConfig(@Value("${doctorschedule.data-path:jpa}") String dataPath) {
+        if ("r2dbc".equals(dataPath)) {
+            throw new IllegalStateException("doctorschedule.data-path=r2dbc cannot be combined with doctorschedule.shards.urls");
+        }
+    }
+
+    /**
+     * Creates the DataSource that routes every transaction to its shard.
+     *
+     * @param router     The shard router, which holds the parsed shard URLs.
+     * @param properties The spring.datasource settings, for the driver and the default credentials.
+     * @param username   The user for the shards, or empty for spring.datasource.username.
+     * @param password   The password for the shards, or empty for spring.datasource.password.
+     * @param poolSize   The maximum size of each shard pool.
+     * @param timeout    The connection timeout of each shard pool, in milliseconds.
+     * @return ShardRoutingDataSource The routing DataSource, which owns the shard pools.
+     */
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(ShardRouter router, DataSourceProperties properties,
+            @Value("${doctorschedule.shards.username:}") String username,
+            @Value("${doctorschedule.shards.password:}") String password,
+            @Value("${doctorschedule.shards.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long timeout) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        router.getUrls().forEach((name, url) -> {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + name);
+            shard.setJdbcUrl(url);
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            shard.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            shard.setMaximumPoolSize(poolSize);
+            shard.setConnectionTimeout(timeout);
+            shards.put(name, shard);
+        });
+        logger.info("Doctor schedules are sharded over {} databases; {} is the home shard", shards.size(), router.getHomeShard());
+        return new ShardRoutingDataSource(shards, router.getHomeShard());
+    }
+
+    /**
+     * Creates the DataSource used by JPA, JdbcTemplate and Flyway. Connections are fetched lazily, once the
+     * transaction has named its shard.
+     *
+     * @param routing The routing DataSource.
+     * @return DataSource The lazy proxy of the routing DataSource.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Runs the Flyway migrations on every shard instead of the home shard only, and moves the sequences of each
+     * shard to the start of its ID range.
+     *
+     * @param router The shard router.
+     * @return FlywayMigrationStrategy The strategy Spring Boot migrates with at startup.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRouter router) {
+        return flyway -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+            for (String shard : router.getShards()) {
+                long idRangeStart = router.idRangeStart(shard);
+                try {
+                    ShardRouter.callOnShard(shard, () -> {
+                        flyway.migrate();
+                        for (String sequence : SEQUENCES) {
+                            // Only ever moves a sequence forward, so restarts leave it alone
+                            jdbcTemplate.queryForList("SELECT setval('" + sequence + "', ?) FROM " + sequence
+                                    + " WHERE last_value < ?", Long.class, idRangeStart, idRangeStart);
+                            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                            if (lastValue != null && lastValue >= idRangeStart + ShardRouter.ID_RANGE) {
+                                throw new IllegalStateException("Sequence " + sequence + " is at " + lastValue
+                                        + ", past the ID range of shard " + shard);
+                            }
+                        }
+                        return null;
+                    });
+                } catch (Exception e) {
+                    throw new IllegalStateException("Migrating shard " + shard + " failed", e);
+                }
+                logger.info("Shard {} migrated, IDs start at {}", shard, idRangeStart);
+            }
+        };
+    }
+}
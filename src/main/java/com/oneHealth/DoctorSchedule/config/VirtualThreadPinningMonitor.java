@@ -0,0 +1,85 @@
+package com.oneHealth.DoctorSchedule.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier thread, typically because they block inside a
+ * synchronized block or method (for example in the JDBC driver or connection pool).
+ *
+ * A pinned virtual thread holds on to one of the few carrier threads, so a handful of them is enough to stall
+ * every other request in virtual mode. The monitor listens to the JDK's jdk.VirtualThreadPinned flight recorder
+ * event and logs each pin that lasts longer than the threshold, with the frames that caused it.
+ *
+ * Active when doctorschedule.jdbc-scheduler.mode is "virtual", unless
+ * doctorschedule.virtual-threads.pinning-monitor.enabled is false.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.jdbc-scheduler.mode", havingValue = SchedulerConfig.MODE_VIRTUAL)
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Number of stack frames logged per pinning event
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    @Value("${doctorschedule.virtual-threads.pinning-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${doctorschedule.virtual-threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMillis;
+
+    private RecordingStream stream;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::logPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning monitor started, threshold {} ms", thresholdMillis);
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void logPinned(RecordedEvent event) {
+        String frames = "";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> top = event.getStackTrace().getFrames();
+            frames = top.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        }
+        logger.warn("Virtual thread {} pinned its carrier for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), frames);
+    }
+}
@@ -1,26 +1,60 @@
 package com.oneHealth.DoctorSchedule.controller;
 
-import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
-
-import javax.management.InstanceAlreadyExistsException;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityHeatmapDTO;
+import com.oneHealth.DoctorSchedule.DTO.BulkImportResultDTO;
+import com.oneHealth.DoctorSchedule.DTO.CompactScheduleListDTO;
+import com.oneHealth.DoctorSchedule.DTO.FreeBusyDTO;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleIndexStatsDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePageDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.cache.ScheduleVersionRegistry;
 import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
 import com.oneHealth.DoctorSchedule.exception.DatabaseException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
 import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
+import com.oneHealth.DoctorSchedule.logging.SampledLogger;
+import com.oneHealth.DoctorSchedule.service.AvailabilityBitmapService;
+import com.oneHealth.DoctorSchedule.service.AvailabilitySearchService;
 import com.oneHealth.DoctorSchedule.service.DoctorScheduleService;
+import com.oneHealth.DoctorSchedule.service.ScheduleChangeFeedService;
+import com.oneHealth.DoctorSchedule.service.ScheduleHistoryService;
+import com.oneHealth.DoctorSchedule.service.ReactiveDoctorScheduleService;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+import com.oneHealth.DoctorSchedule.service.ShardRebalanceService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Controller class for handling Doctor Schedule related HTTP requests.
  *
  * This class defines methods for saving, retrieving, updating, and deleting doctor schedules.
- * It uses a service class, DoctorScheduleService, to perform the actual business logic.
+ * It uses a service class, ReactiveDoctorScheduleService, to perform the actual business logic without blocking
+ * the event loop, and DoctorScheduleService (offloaded to the jdbcScheduler) for the bulk and paging endpoints.
  * The controller maps HTTP endpoints to these methods, allowing clients to interact with the application.
  * Additionally, the class includes logging statements to log important events for monitoring and debugging.
  *
@@ -38,28 +72,119 @@ public class DoctorScheduleController {
     // Logger for logging important events
     private final Logger logger = LoggerFactory.getLogger(DoctorScheduleController.class);
 
+    // Logger for the read endpoints, which are called too often to log every request
+    private final SampledLogger readLogger;
+
     @Autowired
     private DoctorScheduleService service;
 
+    @Autowired
+    private ReactiveDoctorScheduleService reactiveService;
+
+    @Autowired
+    private AvailabilitySearchService availabilityService;
+
+    @Autowired
+    private AvailabilityBitmapService availabilityBitmapService;
+
+    @Autowired
+    private ScheduleTemplateService templateService;
+
+    @Autowired
+    private ScheduleHistoryService historyService;
+
+    @Autowired
+    private ShardRebalanceService shardRebalanceService;
+
+    @Autowired
+    private ScheduleVersionRegistry versions;
+
+    @Autowired
+    private ScheduleChangeFeedService changeFeed;
+
+    // Interval of the keep-alive comments on the change feed, below the idle timeout of common proxies
+    @Value("${doctorschedule.changes.heartbeat:15s}")
+    private Duration changeHeartbeat;
+
+    // Runs the blocking service calls that have no reactive counterpart off the event loop
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    // Number of rows imported per transaction when a bulk import is streamed
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    public DoctorScheduleController(@Value("${doctorschedule.logging.read-sample-interval-ms:1000}") long readSampleIntervalMillis) {
+        this.readLogger = SampledLogger.of(logger, Duration.ofMillis(readSampleIntervalMillis));
+    }
+
     // Endpoint to save the doctor's schedule information into the database.
     /**
      * Saves a doctor schedule by accepting a JSON representation of the schedule.
      *
      * @param schedule The JSON representation of the doctor schedule to be saved.
-     * @return ResponseEntity<String> A ResponseEntity containing a message indicating the result of the save operation.
-     * @throws DatabaseException If there is an issue with the database during the save operation.
+     * @return Mono<ResponseEntity<String>> A ResponseEntity containing a message indicating the result of the save operation,
+     *         with status 409 CONFLICT if the doctor already has a schedule for that date and shift.
      */
     @PostMapping("/saveSchedule")
-    public ResponseEntity<String> saveDoctorSchedule(@RequestBody DoctorSchedule schedule) throws DatabaseException {
-        String s;
-		try {
-				s = service.saveDoctorSchedule(schedule);
-				logger.info("In Controller - Doctor Schedule Saved Successfully: " + schedule);
-				return new ResponseEntity<>(s, HttpStatus.CREATED);
-			} catch (InstanceAlreadyExistsException e) {
-				return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-			}
-        
+    public Mono<ResponseEntity<String>> saveDoctorSchedule(@RequestBody DoctorSchedule schedule) {
+        return reactiveService.saveDoctorSchedule(schedule)
+                .map(s -> {
+                    logger.info("In Controller - Doctor Schedule Saved Successfully for doctor {} on {}", schedule.getDoctorId(), schedule.getDate());
+                    return new ResponseEntity<>(s, HttpStatus.CREATED);
+                })
+                .onErrorResume(ScheduleConflictException.class,
+                        e -> Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT)));
+    }
+
+    
+    
+    
+    // Endpoint to save many schedules at once, e.g. a clinic's rota for a whole month.
+    /**
+     * Saves a JSON array of doctor schedules in one request and reports the outcome of every row.
+     *
+     * @param schedules The doctor schedules to be saved.
+     * @return Mono<ResponseEntity<BulkImportResultDTO>> The totals and the outcome of every row.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BulkImportResultDTO>> importSchedules(@RequestBody List<DoctorSchedule> schedules) {
+        return Mono.fromCallable(() -> service.importSchedules(schedules, 1))
+                .subscribeOn(jdbcScheduler)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Saves a stream of doctor schedules sent as newline-delimited JSON, importing it in chunks as it arrives.
+     *
+     * @param schedules The stream of doctor schedules to be saved, one JSON object per line.
+     * @return Mono<ResponseEntity<BulkImportResultDTO>> The totals and the outcome of every row.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<BulkImportResultDTO>> importScheduleStream(@RequestBody Flux<DoctorSchedule> schedules) {
+        return schedules.buffer(BULK_CHUNK_SIZE).index()
+                .concatMap(chunk -> Mono.fromCallable(() -> service.importSchedules(chunk.getT2(),
+                        (int) (chunk.getT1() * BULK_CHUNK_SIZE) + 1)).subscribeOn(jdbcScheduler))
+                .reduce(BulkImportResultDTO::merge)
+                .defaultIfEmpty(new BulkImportResultDTO())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Saves doctor schedules sent as CSV (doctorId,date,startTime,endTime,typeAvailability,addressAvailability,shift),
+     * importing it in chunks as it arrives. Row numbers in the result are line numbers.
+     *
+     * @param lines The CSV lines, optionally starting with a header line.
+     * @return Mono<ResponseEntity<BulkImportResultDTO>> The totals and the outcome of every data line.
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public Mono<ResponseEntity<BulkImportResultDTO>> importScheduleCsv(@RequestBody Flux<String> lines) {
+        return lines.buffer(BULK_CHUNK_SIZE).index()
+                .concatMap(chunk -> Mono.fromCallable(() -> service.importSchedulesCsv(chunk.getT2(),
+                        (int) (chunk.getT1() * BULK_CHUNK_SIZE) + 1)).subscribeOn(jdbcScheduler))
+                .reduce(BulkImportResultDTO::merge)
+                .defaultIfEmpty(new BulkImportResultDTO())
+                .map(ResponseEntity::ok);
     }
 
     
@@ -70,48 +195,118 @@ public class DoctorScheduleController {
      * Retrieves a doctor schedule by its ID.
      *
      * @param slotId The ID of the doctor schedule to be retrieved.
-     * @return ResponseEntity<DoctorSchedule> A ResponseEntity containing the retrieved doctor schedule.
-     * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
+     * @return Mono<ResponseEntity<?>> A ResponseEntity containing the retrieved doctor schedule,
+     *         or 400 BAD_REQUEST if no doctor schedule is found with the given ID.
      */
     @GetMapping("/getDoctorScheduleByID/{slotId}")
-    public ResponseEntity<?> getDoctorSchduleByID(@PathVariable(value = "slotId") Long slotId) {
-        DoctorSchedule obj;
-		try {
-			logger.info("In Controller - Doctor Schedule Retrieved: ");
-			obj = service.getDoctorScheduleById(slotId);
-			return ResponseEntity.ok().body(obj);
-		} catch (ScheduleNotFoundException e) {
-			// TODO Auto-generated catch block
-			//e.printStackTrace();
-			return ResponseEntity.badRequest().body("No Schedule Found");
-		}
-        
-        
+    public Mono<ResponseEntity<?>> getDoctorSchduleByID(@PathVariable(value = "slotId") Long slotId) {
+        return reactiveService.getDoctorScheduleById(slotId)
+                .<ResponseEntity<?>>map(obj -> {
+                    readLogger.info("In Controller - Doctor Schedule Retrieved with ID: {}", slotId);
+                    return ResponseEntity.ok().body(obj);
+                })
+                .onErrorResume(ScheduleNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body("No Schedule Found")));
     }
 
+
+
+
+
+    // Endpoint to retrieve many doctor schedules by their slotIds in one request.
+    /**
+     * Retrieves many doctor schedules by their IDs at once, instead of one request per slot.
+     *
+     * @param slotIds The IDs of the doctor schedules, comma separated.
+     * @return Mono<ResponseEntity<?>> The schedules found, keyed by doctorId; unknown IDs are left out,
+     *         or 400 BAD_REQUEST if too many IDs are given.
+     */
+    @GetMapping("/schedules/bySlotIds")
+    public Mono<ResponseEntity<?>> getDoctorSchedulesByIDs(@RequestParam List<Long> slotIds) {
+        return Mono.fromCallable(() -> service.getDoctorSchedulesByIds(slotIds))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(schedules -> ResponseEntity.ok().body(schedules))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+
+
+    // Endpoint to retrieve the schedules of many doctors in one request.
+    /**
+     * Retrieves the schedules of many doctors at once, instead of one request per doctor.
+     *
+     * @param doctorIds The IDs of the doctors, comma separated.
+     * @return Mono<ResponseEntity<?>> The schedules keyed by doctorId, each sorted by date and start time,
+     *         or 400 BAD_REQUEST if too many IDs are given.
+     */
+    @GetMapping("/schedules/byDoctorIds")
+    public Mono<ResponseEntity<?>> getDoctorSchedulesByDoctorIDs(@RequestParam List<Long> doctorIds) {
+        return Mono.fromCallable(() -> service.findByDoctorIds(doctorIds))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(schedules -> ResponseEntity.ok().body(schedules))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
     
     
     
     // Endpoint to retrieve the list of all doctors' schedules from the database.
     /**
      * Retrieves a list of all doctor schedules.
+     * This loads the whole table at once; use /schedules or /schedules/stream for large tables.
      *
-     * @return ResponseEntity<List<DoctorSchedule>> A ResponseEntity containing the list of all doctor schedules.
-     * @throws DatabaseException If there is an issue with the database during the retrieval.
+     * @return Mono<ResponseEntity<List<DoctorSchedule>>> A ResponseEntity containing the list of all doctor schedules.
      */
     @GetMapping("/getAllDoctors")
-    public ResponseEntity<List<DoctorSchedule>> getAllDoctorSchedule() {
-        List<DoctorSchedule> doctorScheduleList;
-		try {
-			doctorScheduleList = service.getAllDoctorsList();
-			logger.info("In Controller - All Doctor Schedules Retrieved: " + doctorScheduleList);
-	        return new ResponseEntity<>(doctorScheduleList, HttpStatus.OK);
-		} catch (DatabaseException e) {
-			// TODO Auto-generated catch block
-			//e.printStackTrace();
-			return ResponseEntity.badRequest().build();
-		}
-        
+    public Mono<ResponseEntity<List<DoctorSchedule>>> getAllDoctorSchedule() {
+        return reactiveService.getAllDoctorsList()
+                .collectList()
+                .map(doctorScheduleList -> {
+                    readLogger.info("In Controller - All Doctor Schedules Retrieved: {} schedules", doctorScheduleList.size());
+                    return new ResponseEntity<>(doctorScheduleList, HttpStatus.OK);
+                })
+                .onErrorResume(DatabaseException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+
+
+    // Endpoint to page through all doctors' schedules using the last seen slotId as the cursor.
+    /**
+     * Retrieves one keyset-paginated page of doctor schedules, ordered by slotId.
+     *
+     * @param after    The slotId to continue after (the nextCursor of the previous page), or absent for the first page.
+     * @param limit    The maximum number of schedules per page.
+     * @param doctorId The ID of the doctor to filter on, optional.
+     * @param date     The date to filter on (ISO yyyy-MM-dd), optional.
+     * @return ResponseEntity<SchedulePageDTO> A ResponseEntity containing the page and the cursor for the next page.
+     */
+    @GetMapping("/schedules")
+    public Mono<ResponseEntity<SchedulePageDTO>> getSchedulePage(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return Mono.fromCallable(() -> service.getSchedulePage(after, limit, doctorId, date))
+                .subscribeOn(jdbcScheduler)
+                .map(page -> {
+                    readLogger.info("In Controller - Doctor Schedule Page Retrieved: {} schedules after slot {}", page.getItems().size(), after);
+                    return ResponseEntity.ok(page);
+                });
+    }
+
+
+
+    // Endpoint to stream all doctors' schedules as newline-delimited JSON.
+    /**
+     * Streams doctor schedules ordered by slotId as newline-delimited JSON, one schedule per line.
+     * Memory use stays constant regardless of how many schedules match.
+     *
+     * @param doctorId The ID of the doctor to filter on, optional.
+     * @param date     The date to filter on (ISO yyyy-MM-dd), optional.
+     * @return Flux<DoctorSchedule> A stream of the matching doctor schedules.
+     */
+    @GetMapping(value = "/schedules/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DoctorSchedule> streamSchedules(@RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return reactiveService.streamSchedules(doctorId, date);
     }
 
     
@@ -122,22 +317,21 @@ public class DoctorScheduleController {
      * Updates a doctor schedule by its ID with the provided updated schedule data.
      *
      * @param slotId          The ID of the doctor schedule to be updated.
-     * @param doctorSchedule  The updated doctor schedule data.
-     * @return ResponseEntity<String> A ResponseEntity containing a message indicating the result of the update operation.
-     * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
+     * @param doctorSchedule  The updated doctor schedule data. If it carries a version, the update only applies to that version.
+     * @return Mono<ResponseEntity<String>> A ResponseEntity containing a message indicating the result of the update operation,
+     *         with status 409 CONFLICT if the schedule was changed concurrently or collides with another schedule.
      */
     @PutMapping("/updateDoctorSchedule/{slotId}")
-    public ResponseEntity<String> updateDoctorSchedule(@PathVariable(value = "slotId") long slotId, @RequestBody DoctorSchedule doctorSchedule) {
-        try {
-			service.updateScheduleByID(slotId, doctorSchedule);
-			logger.info("In Controller - Doctor Schedule Updated Successfully: " + doctorSchedule);
-	        return new ResponseEntity<>("Doctor Schedule updated successfully", HttpStatus.CREATED);
-		} catch (ScheduleNotFoundException e) {
-			// TODO Auto-generated catch block
-			//e.printStackTrace();
-			return new ResponseEntity<>("Doctor Schedule updation Failed", HttpStatus.BAD_REQUEST);
-		}
-        
+    public Mono<ResponseEntity<String>> updateDoctorSchedule(@PathVariable(value = "slotId") long slotId, @RequestBody DoctorSchedule doctorSchedule) {
+        return reactiveService.updateScheduleByID(slotId, doctorSchedule)
+                .map(updated -> {
+                    logger.info("In Controller - Doctor Schedule Updated Successfully with ID: {}", slotId);
+                    return new ResponseEntity<>("Doctor Schedule updated successfully", HttpStatus.CREATED);
+                })
+                .onErrorResume(ScheduleNotFoundException.class,
+                        e -> Mono.just(new ResponseEntity<>("Doctor Schedule updation Failed", HttpStatus.BAD_REQUEST)))
+                .onErrorResume(ScheduleConflictException.class,
+                        e -> Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT)));
     }
 
     
@@ -145,26 +339,54 @@ public class DoctorScheduleController {
     
     
     
+    // Endpoint to change some fields of the doctor's schedule without sending the whole schedule.
+    /**
+     * Changes only the fields present in the request body, if the schedule still has the version given in the body.
+     *
+     * @param slotId The ID of the doctor schedule to be changed.
+     * @param patch  The fields to change and the version of the schedule they are based on.
+     * @return Mono<ResponseEntity<?>> The changed doctor schedule with its new version, 409 CONFLICT if the schedule was
+     *         changed since that version or the change collides with another schedule, or 400 BAD_REQUEST if no
+     *         schedule has that ID or the version is missing.
+     */
+    @PatchMapping("/updateDoctorSchedule/{slotId}")
+    public Mono<ResponseEntity<?>> patchDoctorSchedule(@PathVariable(value = "slotId") long slotId, @RequestBody SchedulePatchDTO patch) {
+        return reactiveService.patchScheduleByID(slotId, patch)
+                .<ResponseEntity<?>>map(patched -> {
+                    logger.info("In Controller - Doctor Schedule Patched Successfully with ID: {}", slotId);
+                    return ResponseEntity.ok().body(patched);
+                })
+                .onErrorResume(ScheduleNotFoundException.class,
+                        e -> Mono.just(new ResponseEntity<>("Doctor Schedule updation Failed", HttpStatus.BAD_REQUEST)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(ScheduleConflictException.class,
+                        e -> Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT)));
+    }
+
+
+
+
     // Endpoint to delete the doctor's schedule information by doctorId from the database.
     /**
      * Deletes a doctor schedule by its ID.
      *
-     * @param slotId The ID of the doctor schedule to be deleted.
-     * @return ResponseEntity<String> A ResponseEntity containing a message indicating the result of the delete operation.
-     * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
+     * @param slotId  The ID of the doctor schedule to be deleted.
+     * @param version The version of the schedule the client last read; when given, the delete only applies to that version.
+     * @return Mono<ResponseEntity<String>> A ResponseEntity containing a message indicating the result of the delete operation,
+     *         with status 409 CONFLICT if the schedule was changed since the given version.
      */
     @DeleteMapping("/deleteDoctorSchedule/{slotId}")
-    public ResponseEntity<String> deleteScheduleByID(@PathVariable(value = "slotId") long slotId) {
-        try {
-			service.deleteScheduleByID(slotId);
-	        logger.info("In Controller - Doctor Schedule Deleted Successfully with ID: " + slotId);
-	        return new ResponseEntity<>("Doctor Schedule deleted Successfully", HttpStatus.OK);
-		} catch (ScheduleNotFoundException e) {
-			// TODO Auto-generated catch block
-			//e.printStackTrace();
-			return new ResponseEntity<>("No Schedule Found with this slot ID" , HttpStatus.BAD_REQUEST);
-		}
-
+    public Mono<ResponseEntity<String>> deleteScheduleByID(@PathVariable(value = "slotId") long slotId,
+            @RequestParam(required = false) Long version) {
+        return reactiveService.deleteScheduleByID(slotId, version)
+                .map(deleted -> {
+                    logger.info("In Controller - Doctor Schedule Deleted Successfully with ID: {}", slotId);
+                    return new ResponseEntity<>("Doctor Schedule deleted Successfully", HttpStatus.OK);
+                })
+                .onErrorResume(ScheduleNotFoundException.class,
+                        e -> Mono.just(new ResponseEntity<>("No Schedule Found with this slot ID", HttpStatus.BAD_REQUEST)))
+                .onErrorResume(ScheduleConflictException.class,
+                        e -> Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT)));
     }
     
     
@@ -175,18 +397,18 @@ public class DoctorScheduleController {
      * Retrieves a list of doctor schedules for a specific doctor by their ID.
      *
      * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
-     * @return ResponseEntity<List<DoctorSchedule>> A ResponseEntity containing the list of doctor schedules for the specified doctor.
+     * @param compact  Whether to leave null fields out of the schedules, e.g. for mobile clients.
+     * @param exchange The current exchange, used to answer conditional requests.
+     * @return Mono<ResponseEntity<?>> A ResponseEntity containing the list of doctor schedules for the specified doctor,
+     *         or 304 NOT_MODIFIED if the client's ETag or Last-Modified is still current (with a shared cache tier only).
      */
     @GetMapping("/getDoctorScheduleByDoctorID/{doctorId}")
-    public ResponseEntity<?> getDoctorSchduleByDoctorID(@PathVariable(value = "doctorId") Long doctorId){
-        try {
-    	List<DoctorSchedule> obj = service.findByDoctorId(doctorId);
-        logger.info("In Controller - Doctor Schedule Retrieved: " + obj);
-        return ResponseEntity.ok().body(obj);
-        }catch(Exception e) {
-        	return ResponseEntity.badRequest().body("No Schedule Found");
-        }
-        
+    public Mono<ResponseEntity<?>> getDoctorSchduleByDoctorID(@PathVariable(value = "doctorId") Long doctorId,
+            @RequestParam(defaultValue = "false") boolean compact, ServerWebExchange exchange){
+        return conditionalSchedules(exchange, doctorId, compact, () -> reactiveService.findByDoctorId(doctorId)
+                .collectList()
+                .doOnNext(obj -> readLogger.info("In Controller - Doctor Schedules Retrieved for doctor {}: {} schedules", doctorId, obj.size())))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body("No Schedule Found")));
     }
     
     
@@ -195,19 +417,281 @@ public class DoctorScheduleController {
     
     /**
      * Retrieves today's doctor schedule and upcoming schedules for a specific doctor by their ID.
+     * An optional from/to window limits the result, e.g. to the next few days.
      *
      * @param doctorId The ID of the doctor for whom schedules are retrieved.
-     * @return List<DoctorSchedule> A list of today's and upcoming doctor schedules for the specified doctor.
+     * @param from     The first date to include (ISO yyyy-MM-dd), defaults to today.
+     * @param to       The last date to include (ISO yyyy-MM-dd), defaults to no upper bound.
+     * @param compact  Whether to leave null fields out of the schedules, e.g. for mobile clients.
+     * @param exchange The current exchange, used to answer conditional requests.
+     * @return Mono<ResponseEntity<?>> A list of today's and upcoming doctor schedules for the specified doctor,
+     *         or 304 NOT_MODIFIED if the client's ETag or Last-Modified is still current (with a shared cache tier only).
      */
     @GetMapping("/todayandupcoming/{doctorId}")
-    public ResponseEntity<?> getTodaysAndUpcomingSchedule(@PathVariable Long doctorId) {
-        try {
-        	List<DoctorSchedule> scheduleList;
-            scheduleList = service.getTodaysAndUpcomingScheduleForDoctor(doctorId);
-            return new ResponseEntity<>(scheduleList,HttpStatus.OK);
-		} catch (Exception e) {
-			return ResponseEntity.badRequest().body("No Schedule found for this Doctor ID");
-		}
-        
+    public Mono<ResponseEntity<?>> getTodaysAndUpcomingSchedule(@PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean compact, ServerWebExchange exchange) {
+        return conditionalSchedules(exchange, doctorId, compact,
+                () -> reactiveService.getTodaysAndUpcomingScheduleForDoctor(doctorId, from, to).collectList())
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body("No Schedule found for this Doctor ID")));
+    }
+
+
+
+    /**
+     * Streams the changes committed to the schedules of the given doctors as server-sent events, so clients can
+     * refresh when something changed instead of polling. Each event is named after the kind of write and carries
+     * the doctor's new schedule version; a comment line is sent periodically to keep idle connections open.
+     * A client that falls behind loses its oldest pending events.
+     *
+     * @param doctorIds The doctors to watch, comma separated.
+     * @return Flux<ServerSentEvent<ScheduleChangeEventDTO>> The changes from now on,
+     *         or 400 BAD_REQUEST if no doctor or too many doctors are given.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ScheduleChangeEventDTO>> streamScheduleChanges(@RequestParam List<Long> doctorIds) {
+        Flux<ServerSentEvent<ScheduleChangeEventDTO>> events = Flux.defer(() -> changeFeed.subscribe(doctorIds))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getDoctorId() + "-" + event.getVersion())
+                        .event(event.getType().name())
+                        .build())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        Flux<ServerSentEvent<ScheduleChangeEventDTO>> heartbeats = Flux.interval(changeHeartbeat)
+                .map(tick -> ServerSentEvent.<ScheduleChangeEventDTO>builder().comment("keep-alive").build());
+        return Flux.merge(events, heartbeats);
+    }
+
+
+
+    /**
+     * Retrieves a doctor's slots between two dates, including past months that have been moved to the archive.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The first date (ISO yyyy-MM-dd), inclusive.
+     * @param to       The last date (ISO yyyy-MM-dd), inclusive.
+     * @return Mono<ResponseEntity<?>> The slots ordered by date and start time,
+     *         or 400 BAD_REQUEST if the date range is invalid or too long.
+     */
+    @GetMapping("/history/{doctorId}")
+    public Mono<ResponseEntity<?>> getScheduleHistory(@PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return Mono.fromCallable(() -> historyService.getHistory(doctorId, from, to))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(schedules -> ResponseEntity.ok().body(schedules))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+
+
+    /**
+     * Searches the bookable windows of many doctors at once.
+     *
+     * @param from               The first date of the search (ISO yyyy-MM-dd), inclusive.
+     * @param to                 The last date of the search (ISO yyyy-MM-dd), inclusive.
+     * @param doctorIds          The doctors to search, comma separated; all doctors when omitted.
+     * @param type               The type of availability to match, any bookable type when omitted.
+     * @param address            The address to match, any when omitted.
+     * @param minDurationMinutes The minimum length of a window in minutes.
+     * @return Mono<ResponseEntity<?>> The windows ordered by doctor, date and start time,
+     *         or 400 BAD_REQUEST if the search is out of bounds.
+     */
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<?>> searchAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> doctorIds,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String address,
+            @RequestParam(defaultValue = "1") int minDurationMinutes) {
+        return Mono.fromCallable(() -> availabilityService.findAvailableWindows(from, to, doctorIds, type, address, minDurationMinutes))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(windows -> ResponseEntity.ok().body(windows))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+
+
+    /**
+     * Tells whether a doctor is free for a stretch of time, from the doctor's availability bitmap.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param date     The date (ISO yyyy-MM-dd).
+     * @param time     When the stretch starts (ISO HH:mm[:ss]).
+     * @param minutes  The length of the stretch in minutes.
+     * @return Mono<ResponseEntity<?>> The answer, or 400 BAD_REQUEST if the stretch is empty or runs past midnight.
+     */
+    @GetMapping("/availability/{doctorId}/free")
+    public Mono<ResponseEntity<?>> isDoctorFree(@PathVariable long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+            @RequestParam(defaultValue = "5") int minutes) {
+        return Mono.fromCallable(() -> availabilityBitmapService.isFree(doctorId, date, time, minutes))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(check -> ResponseEntity.ok().body(check))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+
+
+    /**
+     * Retrieves a doctor's free/busy bitmap of one date, one bit per 5-minute cell.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param date     The date (ISO yyyy-MM-dd).
+     * @return Mono<ResponseEntity<FreeBusyDTO>> The bitmap.
+     */
+    @GetMapping("/availability/{doctorId}/freebusy")
+    public Mono<ResponseEntity<FreeBusyDTO>> getFreeBusy(@PathVariable long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return Mono.fromCallable(() -> availabilityBitmapService.getFreeBusy(doctorId, date))
+                .subscribeOn(jdbcScheduler)
+                .map(freeBusy -> ResponseEntity.ok().body(freeBusy));
+    }
+
+
+
+    /**
+     * Retrieves the available minutes of every day of a month, for calendar heatmaps.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param month    The month (yyyy-MM).
+     * @return Mono<ResponseEntity<AvailabilityHeatmapDTO>> The minutes of every day.
+     */
+    @GetMapping("/availability/{doctorId}/heatmap")
+    public Mono<ResponseEntity<AvailabilityHeatmapDTO>> getAvailabilityHeatmap(@PathVariable long doctorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return Mono.fromCallable(() -> availabilityBitmapService.getHeatmap(doctorId, month))
+                .subscribeOn(jdbcScheduler)
+                .map(heatmap -> ResponseEntity.ok().body(heatmap));
+    }
+
+
+
+    /**
+     * Saves a recurring weekly schedule template.
+     *
+     * @param template The template to save.
+     * @return Mono<ResponseEntity<?>> The saved template with status 201 CREATED, 400 BAD_REQUEST if it is incomplete,
+     *         or 409 CONFLICT if it overlaps another template or a stored schedule of another shift.
+     */
+    @PostMapping("/templates")
+    public Mono<ResponseEntity<?>> saveScheduleTemplate(@RequestBody ScheduleTemplate template) {
+        return Mono.fromCallable(() -> templateService.saveTemplate(template))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(saved -> new ResponseEntity<>(saved, HttpStatus.CREATED))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(ScheduleConflictException.class, e -> Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT)));
+    }
+
+    /**
+     * Retrieves the recurring schedule templates of a doctor.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return Mono<ResponseEntity<List<ScheduleTemplate>>> The doctor's templates.
+     */
+    @GetMapping("/templates/doctor/{doctorId}")
+    public Mono<ResponseEntity<List<ScheduleTemplate>>> getScheduleTemplates(@PathVariable Long doctorId) {
+        return Mono.fromCallable(() -> templateService.getTemplatesForDoctor(doctorId))
+                .subscribeOn(jdbcScheduler)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stops a recurring schedule template from applying on one date.
+     *
+     * @param templateId The ID of the template.
+     * @param date       The date to exclude (ISO yyyy-MM-dd).
+     * @return Mono<ResponseEntity<?>> The updated template, or 400 BAD_REQUEST if no template has that ID.
+     */
+    @PostMapping("/templates/{templateId}/exceptions")
+    public Mono<ResponseEntity<?>> addScheduleTemplateException(@PathVariable Long templateId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return Mono.fromCallable(() -> templateService.addExcludedDate(templateId, date))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(template -> ResponseEntity.ok().body(template))
+                .onErrorResume(ScheduleNotFoundException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    /**
+     * Deletes a recurring schedule template.
+     *
+     * @param templateId The ID of the template.
+     * @return Mono<ResponseEntity<String>> A message indicating the result of the delete operation.
+     */
+    @DeleteMapping("/templates/{templateId}")
+    public Mono<ResponseEntity<String>> deleteScheduleTemplate(@PathVariable Long templateId) {
+        return Mono.fromCallable(() -> templateService.deleteTemplate(templateId))
+                .subscribeOn(jdbcScheduler)
+                .map(deleted -> new ResponseEntity<>("Schedule Template deleted Successfully", HttpStatus.OK))
+                .onErrorResume(ScheduleNotFoundException.class,
+                        e -> Mono.just(new ResponseEntity<>("No Schedule Template Found with this ID", HttpStatus.BAD_REQUEST)));
+    }
+
+
+
+    /**
+     * Moves a doctor's schedule to another shard while it stays readable and writable.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param shard    The name of the shard to move to.
+     * @return Mono<ResponseEntity<?>> The move, or 400 BAD_REQUEST if the shard is unknown or schedules are not sharded.
+     */
+    @PostMapping("/shards/move/{doctorId}")
+    public Mono<ResponseEntity<?>> moveDoctorToShard(@PathVariable Long doctorId, @RequestParam String shard) {
+        return Mono.fromCallable(() -> shardRebalanceService.moveDoctor(doctorId, shard))
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(move -> ResponseEntity.ok().body(move))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    /**
+     * Moves every doctor to its owner on the configured consistent-hash ring.
+     *
+     * @return Mono<ResponseEntity<?>> The moves made, or 400 BAD_REQUEST if schedules are not sharded.
+     */
+    @PostMapping("/shards/rebalance")
+    public Mono<ResponseEntity<?>> rebalanceShards() {
+        return Mono.fromCallable(() -> shardRebalanceService.rebalance())
+                .subscribeOn(jdbcScheduler)
+                .<ResponseEntity<?>>map(moves -> ResponseEntity.ok().body(moves))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the in-process schedule index.
+     *
+     * @return ResponseEntity<ScheduleIndexStatsDTO> A ResponseEntity containing the current index counters.
+     */
+    @GetMapping("/index/stats")
+    public ResponseEntity<ScheduleIndexStatsDTO> getScheduleIndexStats() {
+        return ResponseEntity.ok(service.getIndexStats());
+    }
+
+    // Answers from the doctor's schedule version alone when the client's copy is current. Otherwise loads the
+    // schedules and tags them with the version read before the load, so a racing write can only make the tag stale.
+    // Without a shared cache tier the versions miss other instances' writes, so no validators are sent at all.
+    private Mono<ResponseEntity<?>> conditionalSchedules(ServerWebExchange exchange, Long doctorId, boolean compact,
+            Supplier<Mono<List<DoctorSchedule>>> loader) {
+        if (!versions.sendsValidators()) {
+            return loader.get()
+                    .<ResponseEntity<?>>map(schedules -> ResponseEntity.ok().body(scheduleBody(schedules, compact)));
+        }
+        ScheduleVersionRegistry.Version version = versions.current(doctorId);
+        String etag = versions.etag(version, LocalDate.now(), compact ? "compact" : "full");
+        Instant lastModified = Instant.ofEpochMilli(version.lastModified());
+        if (exchange.checkNotModified(etag, lastModified)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified).build());
+        }
+        return loader.get()
+                .<ResponseEntity<?>>map(schedules -> ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(scheduleBody(schedules, compact)));
+    }
+
+    // The compact form is the same JSON array without the null fields
+    private static Object scheduleBody(List<DoctorSchedule> schedules, boolean compact) {
+        return compact ? new CompactScheduleListDTO(schedules) : schedules;
     }
 }
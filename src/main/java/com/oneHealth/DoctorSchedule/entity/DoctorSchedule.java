@@ -3,14 +3,22 @@ package com.oneHealth.DoctorSchedule.entity;
 import java.sql.Time;
 import java.sql.Date;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 /**
  * Entity class representing DoctorSchedule information.
  * This class is mapped to a database table to store schedule details of doctors.
+ * The table is partitioned by month of date and created by the Flyway migrations in db/migration;
+ * months past the retention are moved to doctor_schedule_archive.
  * 
  * Note: Make sure to import the required annotations from the appropriate packages.
  * 
@@ -18,10 +26,28 @@ import jakarta.persistence.Id;
  * @version 1.0
  */
 @Entity
+@Table(indexes = {
+        // Serves every per-doctor range read (today and upcoming, by date) in date and start time order
+        @Index(name = "idx_doctor_schedule_doctor_date_start", columnList = "doctorId, date, startTime")
+})
 public class DoctorSchedule {
 
+    // Name of the unique index on (doctorId, date, shift). A doctor holds at most one slot per date and shift,
+    // a missing shift included; enforced by the database (V4 migration) so concurrent saves cannot both succeed.
+    public static final String UNIQUE_DOCTOR_DATE_SHIFT = "uk_doctor_schedule_doctor_date_shift";
+
+    // Key of that index, as named by the ON CONFLICT clause of inserts
+    public static final String UNIQUE_DOCTOR_DATE_SHIFT_KEY = "doctor_id, date, (coalesce(shift, ''))";
+
+    // Name and increment of the sequence that hands out slot IDs
+    public static final String SLOT_ID_SEQUENCE = "doctor_schedule_seq";
+    public static final int SLOT_ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence: one round trip hands out 50 ids. Same sequence and increment Hibernate used for AUTO,
+    // and shared with the JDBC bulk import, which allocates its ids in the same blocks.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SLOT_ID_SEQUENCE)
+    @SequenceGenerator(name = SLOT_ID_SEQUENCE, sequenceName = SLOT_ID_SEQUENCE, allocationSize = SLOT_ID_ALLOCATION_SIZE)
     private Long slotId; // Primary key field for the DoctorSchedule table
 
     // ID of the doctor associated with this schedule
@@ -44,6 +70,16 @@ public class DoctorSchedule {
     
     private String shift;
 
+    // Incremented by every update; writes that carry an older version are rejected instead of overwriting a
+    // concurrent change. The default fills the column for rows written before it existed.
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // ID of the recurring template this slot is an occurrence of; null for slots stored in the table
+    @Transient
+    private Long templateId;
+
     public DoctorSchedule() {
         super();
     }
@@ -140,11 +176,27 @@ public class DoctorSchedule {
 		this.shift = shift;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Long getTemplateId() {
+		return templateId;
+	}
+
+	public void setTemplateId(Long templateId) {
+		this.templateId = templateId;
+	}
+
 	@Override
 	public String toString() {
 		return "DoctorSchedule [slotId=" + slotId + ", doctorId=" + doctorId + ", date=" + date + ", startTime="
 				+ startTime + ", endTime=" + endTime + ", typeAvailability=" + typeAvailability
-				+ ", addressAvailability=" + addressAvailability + ", shift=" + shift + "]";
+				+ ", addressAvailability=" + addressAvailability + ", shift=" + shift + ", version=" + version + "]";
 	}
 
 }
@@ -0,0 +1,119 @@
+package com.oneHealth.DoctorSchedule.entity;
+
+import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a schedule change waiting in the outbox to be relayed to downstream services.
+ * A row is written in the same transaction as the change it describes and deleted once it has been published.
+ *
+ * The eventId is taken from its sequence one value at a time, while the writer holds the doctor's schedule lock,
+ * so the events of one doctor are numbered in commit order.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Entity
+@Table(name = "schedule_outbox")
+public class ScheduleOutboxEvent {
+
+    public static final String ID_SEQUENCE = "schedule_outbox_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 1)
+    private Long eventId; // Primary key field for the ScheduleOutboxEvent table
+
+    // ID of the doctor whose schedule changed
+    private Long doctorId;
+
+    // ID of the slot that changed
+    private Long slotId;
+
+    // Kind of change (CREATED, UPDATED or DELETED)
+    private String eventType;
+
+    // The schedule as JSON: its new state, or its last state for DELETED
+    @JsonRawValue
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    // When the change was written
+    private Timestamp createdAt;
+
+    public ScheduleOutboxEvent() {
+        super();
+    }
+
+    public ScheduleOutboxEvent(Long eventId, Long doctorId, Long slotId, String eventType, String payload, Timestamp createdAt) {
+        this.eventId = eventId;
+        this.doctorId = doctorId;
+        this.slotId = slotId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleOutboxEvent [eventId=" + eventId + ", doctorId=" + doctorId + ", slotId=" + slotId
+                + ", eventType=" + eventType + ", createdAt=" + createdAt + "]";
+    }
+}
@@ -0,0 +1,176 @@
+package com.oneHealth.DoctorSchedule.entity;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a recurring weekly schedule of a doctor.
+ * A template stands for one slot on the same weekday every week between validFrom and validUntil, except on the
+ * excluded dates. Occurrences are not stored; reads expand the template for the requested window only.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Entity
+@Table(indexes = {
+        // Serves the per-doctor lookup of the templates that are valid in a window
+        @Index(name = "idx_schedule_template_doctor", columnList = "doctorId, validFrom")
+})
+public class ScheduleTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_template_seq")
+    @SequenceGenerator(name = "schedule_template_seq", sequenceName = "schedule_template_seq", allocationSize = 50)
+    private Long templateId; // Primary key field for the ScheduleTemplate table
+
+    // ID of the doctor associated with this template
+    private Long doctorId;
+
+    // Weekday on which the slot repeats
+    @Enumerated(EnumType.STRING)
+    private DayOfWeek dayOfWeek;
+
+    // Start time of every occurrence
+    private Time startTime;
+
+    // End time of every occurrence
+    private Time endTime;
+
+    // Type of availability of every occurrence (e.g., available, unavailable, busy, etc.)
+    private String typeAvailability;
+
+    // Address for the availability of every occurrence
+    private String addressAvailability;
+
+    private String shift;
+
+    // First date on which the template applies
+    private Date validFrom;
+
+    // Last date on which the template applies, or null if it applies indefinitely
+    private Date validUntil;
+
+    // Dates on which the template does not apply, e.g. holidays
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "schedule_template_exception", joinColumns = @JoinColumn(name = "template_id"))
+    @Column(name = "excluded_date")
+    private Set<Date> excludedDates = new HashSet<>();
+
+    public ScheduleTemplate() {
+        super();
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(Long templateId) {
+        this.templateId = templateId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public Time getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Time startTime) {
+        this.startTime = startTime;
+    }
+
+    public Time getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Time endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getTypeAvailability() {
+        return typeAvailability;
+    }
+
+    public void setTypeAvailability(String typeAvailability) {
+        this.typeAvailability = typeAvailability;
+    }
+
+    public String getAddressAvailability() {
+        return addressAvailability;
+    }
+
+    public void setAddressAvailability(String addressAvailability) {
+        this.addressAvailability = addressAvailability;
+    }
+
+    public String getShift() {
+        return shift;
+    }
+
+    public void setShift(String shift) {
+        this.shift = shift;
+    }
+
+    public Date getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(Date validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public Date getValidUntil() {
+        return validUntil;
+    }
+
+    public void setValidUntil(Date validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    public Set<Date> getExcludedDates() {
+        return excludedDates;
+    }
+
+    public void setExcludedDates(Set<Date> excludedDates) {
+        this.excludedDates = excludedDates;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleTemplate [templateId=" + templateId + ", doctorId=" + doctorId + ", dayOfWeek=" + dayOfWeek
+                + ", startTime=" + startTime + ", endTime=" + endTime + ", typeAvailability=" + typeAvailability
+                + ", addressAvailability=" + addressAvailability + ", shift=" + shift + ", validFrom=" + validFrom
+                + ", validUntil=" + validUntil + ", excludedDates=" + excludedDates + "]";
+    }
+}
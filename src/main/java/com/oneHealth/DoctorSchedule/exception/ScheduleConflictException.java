@@ -0,0 +1,27 @@
+package com.oneHealth.DoctorSchedule.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class for representing the scenario when a schedule write conflicts with existing data,
+ * such as a second schedule for the same doctor, date and shift.
+ * This exception is annotated with @ResponseStatus, indicating that it will trigger a 409 CONFLICT response
+ * when thrown.
+ * @author Madhavi
+ * @version 1.0
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ScheduleConflictException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for creating a new instance of ScheduleConflictException with a custom error message.
+     *
+     * @param message The error message indicating the reason for the exception.
+     */
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+}
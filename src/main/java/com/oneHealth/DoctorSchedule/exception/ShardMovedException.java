@@ -0,0 +1,27 @@
+package com.oneHealth.DoctorSchedule.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class for representing the scenario when a write reached the shard a doctor just moved away from.
+ * Nothing was written, and this instance now routes the doctor to the new shard, so the request can be retried.
+ * This exception is annotated with @ResponseStatus, indicating that it will trigger a 503 SERVICE_UNAVAILABLE
+ * response when thrown.
+ * @author Madhavi
+ * @version 1.0
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ShardMovedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for creating a new instance of ShardMovedException with a custom error message.
+     *
+     * @param message The error message indicating the reason for the exception.
+     */
+    public ShardMovedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,114 @@
+package com.oneHealth.DoctorSchedule.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.oneHealth.DoctorSchedule.DTO.CompactScheduleListDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Writes doctor schedules field by field instead of through Jackson's reflective bean serializer.
+ *
+ * The output is the same as the bean serializer's: every property in declaration order, dates as yyyy-MM-dd and
+ * times as HH:mm:ss. Field names are pre-encoded once. The compact variant leaves out null fields, e.g. the
+ * addressAvailability of online slots or the slotId, version and templateId a slot does not have; the compact list
+ * endpoints use it through CompactScheduleListDTO.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@JsonComponent
+public class DoctorScheduleSerializer extends StdSerializer<DoctorSchedule> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString SLOT_ID = new SerializedString("slotId");
+    private static final SerializableString DOCTOR_ID = new SerializedString("doctorId");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString START_TIME = new SerializedString("startTime");
+    private static final SerializableString END_TIME = new SerializedString("endTime");
+    private static final SerializableString TYPE_AVAILABILITY = new SerializedString("typeAvailability");
+    private static final SerializableString ADDRESS_AVAILABILITY = new SerializedString("addressAvailability");
+    private static final SerializableString SHIFT = new SerializedString("shift");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString TEMPLATE_ID = new SerializedString("templateId");
+
+    // Instance used for the compact responses
+    static final DoctorScheduleSerializer COMPACT = new DoctorScheduleSerializer(true);
+
+    private final boolean omitNulls;
+
+    public DoctorScheduleSerializer() {
+        this(false);
+    }
+
+    public DoctorScheduleSerializer(boolean omitNulls) {
+        super(DoctorSchedule.class);
+        this.omitNulls = omitNulls;
+    }
+
+    @Override
+    public void serialize(DoctorSchedule schedule, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(schedule);
+        writeNumber(gen, SLOT_ID, schedule.getSlotId());
+        writeNumber(gen, DOCTOR_ID, schedule.getDoctorId());
+        writeString(gen, DATE, schedule.getDate() == null ? null : schedule.getDate().toString());
+        writeString(gen, START_TIME, schedule.getStartTime() == null ? null : schedule.getStartTime().toString());
+        writeString(gen, END_TIME, schedule.getEndTime() == null ? null : schedule.getEndTime().toString());
+        writeString(gen, TYPE_AVAILABILITY, schedule.getTypeAvailability());
+        writeString(gen, ADDRESS_AVAILABILITY, schedule.getAddressAvailability());
+        writeString(gen, SHIFT, schedule.getShift());
+        writeNumber(gen, VERSION, schedule.getVersion());
+        writeNumber(gen, TEMPLATE_ID, schedule.getTemplateId());
+        gen.writeEndObject();
+    }
+
+    private void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        } else if (!omitNulls) {
+            gen.writeFieldName(name);
+            gen.writeNull();
+        }
+    }
+
+    private void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        } else if (!omitNulls) {
+            gen.writeFieldName(name);
+            gen.writeNull();
+        }
+    }
+
+    /**
+     * Writes a CompactScheduleListDTO as a plain JSON array of compact schedules.
+     */
+    public static class CompactListSerializer extends StdSerializer<CompactScheduleListDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        public CompactListSerializer() {
+            super(CompactScheduleListDTO.class);
+        }
+
+        @Override
+        public void serialize(CompactScheduleListDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            List<DoctorSchedule> schedules = value.schedules();
+            gen.writeStartArray(value, schedules.size());
+            for (DoctorSchedule schedule : schedules) {
+                COMPACT.serialize(schedule, gen, provider);
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.oneHealth.DoctorSchedule.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+/**
+ * Logs a high-frequency INFO line at most once per interval, e.g. for the read endpoints that are called many
+ * times a second. The lines dropped in between are counted and the count is logged with the next line that passes.
+ *
+ * Nothing is formatted or allocated for a dropped line, and nothing at all when INFO is disabled: arguments are
+ * handed to SLF4J as placeholders, and the fixed-arity methods avoid the varargs array. Callers should pass counts
+ * and IDs rather than entities or lists, so even the lines that pass stay small.
+ *
+ * Thread-safe: the instance is meant to be shared by all requests of one endpoint or service method.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public final class SampledLogger {
+
+    private final Logger logger;
+    private final long intervalNanos;
+
+    // System.nanoTime() from which the next line may pass
+    private final AtomicLong nextNanos;
+
+    // Lines dropped since the last line that passed
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private SampledLogger(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = Math.max(0L, interval.toNanos());
+        this.nextNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Creates a sampled logger writing to the given logger.
+     *
+     * @param logger   The logger to write to.
+     * @param interval The minimum time between two lines; zero logs every line.
+     * @return SampledLogger The sampled logger.
+     */
+    public static SampledLogger of(Logger logger, Duration interval) {
+        return new SampledLogger(logger, interval);
+    }
+
+    public void info(String format, Object arg) {
+        if (acquire()) {
+            logger.info(format, arg);
+            reportSuppressed();
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (acquire()) {
+            logger.info(format, arg1, arg2);
+            reportSuppressed();
+        }
+    }
+
+    // Lets one caller through per interval; the others only bump the suppressed count
+    private boolean acquire() {
+        if (!logger.isInfoEnabled()) {
+            return false;
+        }
+        if (intervalNanos == 0L) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long next = nextNanos.get();
+        if (now - next < 0 || !nextNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void reportSuppressed() {
+        long dropped = suppressed.getAndSet(0L);
+        if (dropped > 0) {
+            logger.info("{} similar lines suppressed since the previous one", dropped);
+        }
+    }
+}
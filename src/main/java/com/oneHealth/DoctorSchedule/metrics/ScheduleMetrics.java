@@ -0,0 +1,160 @@
+package com.oneHealth.DoctorSchedule.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.cache.AvailabilityBitmapStore;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * Application-level meters of the doctor schedule service, next to the HTTP, repository and connection pool meters
+ * Spring Boot records on its own:
+ *
+ * - doctorschedule.writes.rejected (reason = duplicate | overlap | stale): writes refused with 409.
+ * - doctorschedule.not.found (entity = schedule | template): lookups of an ID that does not exist.
+ * - doctorschedule.query.results (query = ...): number of slots returned per doctor query, as a histogram.
+ * - doctorschedule.index.*: size and hit/miss/eviction counts of the in-process index.
+ * - doctorschedule.availability.bitmap.*: size and hit/miss counts of the availability bitmaps.
+ * - doctorschedule.single.flight.requests (result = load | shared): today-and-upcoming reads that loaded
+ *   themselves or shared another read's load.
+ * - doctorschedule.changes.dropped: change feed events dropped because a subscriber fell behind.
+ * - doctorschedule.outbox.relayed: outbox events published to the event sink.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ScheduleMetrics {
+
+    public static final String REJECTED_DUPLICATE = "duplicate";
+    public static final String REJECTED_OVERLAP = "overlap";
+    public static final String REJECTED_STALE = "stale";
+
+    public static final String ENTITY_SCHEDULE = "schedule";
+    public static final String ENTITY_TEMPLATE = "template";
+
+    private final MeterRegistry registry;
+
+    public ScheduleMetrics(MeterRegistry registry, DoctorScheduleIndex index, SingleFlightScheduleReads singleFlight,
+            AvailabilityBitmapStore bitmaps) {
+        this.registry = registry;
+
+        Gauge.builder("doctorschedule.index.doctors", index, DoctorScheduleIndex::getDoctorCount)
+                .description("Doctors held in the in-process schedule index").register(registry);
+        Gauge.builder("doctorschedule.index.slots", index, DoctorScheduleIndex::getSlotCount)
+                .description("Slots held in the in-process schedule index").register(registry);
+        FunctionCounter.builder("doctorschedule.index.requests", index, DoctorScheduleIndex::getHits)
+                .tag("result", "hit").description("Reads answered by the in-process schedule index").register(registry);
+        FunctionCounter.builder("doctorschedule.index.requests", index, DoctorScheduleIndex::getMisses)
+                .tag("result", "miss").description("Reads answered by the in-process schedule index").register(registry);
+        FunctionCounter.builder("doctorschedule.index.evictions", index, DoctorScheduleIndex::getEvictions)
+                .description("Doctors evicted from the in-process schedule index").register(registry);
+        FunctionCounter.builder("doctorschedule.single.flight.requests", singleFlight, SingleFlightScheduleReads::getLoads)
+                .tag("result", "load").description("Today-and-upcoming reads that started a load").register(registry);
+        FunctionCounter.builder("doctorschedule.single.flight.requests", singleFlight, SingleFlightScheduleReads::getShares)
+                .tag("result", "shared").description("Today-and-upcoming reads that shared another read's load").register(registry);
+        Gauge.builder("doctorschedule.availability.bitmap.months", bitmaps, AvailabilityBitmapStore::getMonthCount)
+                .description("Doctor-months held as availability bitmaps").register(registry);
+        FunctionCounter.builder("doctorschedule.availability.bitmap.requests", bitmaps, AvailabilityBitmapStore::getHits)
+                .tag("result", "hit").description("Reads answered by a current availability bitmap").register(registry);
+        FunctionCounter.builder("doctorschedule.availability.bitmap.requests", bitmaps, AvailabilityBitmapStore::getMisses)
+                .tag("result", "miss").description("Reads answered by a current availability bitmap").register(registry);
+    }
+
+    /**
+     * Counts a write rejected because it conflicts with an existing schedule.
+     *
+     * @param reason REJECTED_DUPLICATE or REJECTED_OVERLAP.
+     * @param count  The number of rejected writes, e.g. rows of a bulk import.
+     */
+    public void rejected(String reason, int count) {
+        if (count > 0) {
+            registry.counter("doctorschedule.writes.rejected", "reason", reason).increment(count);
+        }
+    }
+
+    /**
+     * Counts a single write rejected because it conflicts with an existing schedule and hands back the exception to throw.
+     *
+     * @param reason    REJECTED_DUPLICATE, REJECTED_OVERLAP or REJECTED_STALE.
+     * @param exception The exception reporting the conflict.
+     * @return E The given exception.
+     */
+    public <E extends Exception> E rejected(String reason, E exception) {
+        rejected(reason, 1);
+        return exception;
+    }
+
+    /**
+     * Counts a lookup of an ID that does not exist and hands back the exception to throw.
+     *
+     * @param entity    ENTITY_SCHEDULE or ENTITY_TEMPLATE.
+     * @param exception The exception reporting the missing entity.
+     * @return E The given exception.
+     */
+    public <E extends Exception> E notFound(String entity, E exception) {
+        registry.counter("doctorschedule.not.found", "entity", entity).increment();
+        return exception;
+    }
+
+    /**
+     * Counts a change feed event dropped from the buffer of a subscriber that fell behind.
+     */
+    public void changeDropped() {
+        registry.counter("doctorschedule.changes.dropped").increment();
+    }
+
+    /**
+     * Counts outbox events published to the event sink and removed from the outbox.
+     *
+     * @param count The number of events in the relayed batch.
+     */
+    public void outboxRelayed(int count) {
+        registry.counter("doctorschedule.outbox.relayed").increment(count);
+    }
+
+    /**
+     * Records how many slots a doctor query returned and hands back the result.
+     *
+     * @param query  The name of the query, used as tag.
+     * @param result The query result.
+     * @return List<T> The given result.
+     */
+    public <T> List<T> resultSize(String query, List<T> result) {
+        resultSummary(query).record(result.size());
+        return result;
+    }
+
+    /**
+     * Records how many slots a streamed doctor query returned once the stream completes.
+     *
+     * @param query  The name of the query, used as tag.
+     * @param result The query result.
+     * @return Flux<T> The given result, counted as it passes.
+     */
+    public <T> Flux<T> resultSize(String query, Flux<T> result) {
+        return Flux.defer(() -> {
+            AtomicLong count = new AtomicLong();
+            return result.doOnNext(item -> count.incrementAndGet())
+                    .doOnComplete(() -> resultSummary(query).record(count.get()));
+        });
+    }
+
+    private DistributionSummary resultSummary(String query) {
+        return DistributionSummary.builder("doctorschedule.query.results")
+                .tag("query", query)
+                .baseUnit("slots")
+                .publishPercentileHistogram()
+                .description("Slots returned per doctor query")
+                .register(registry);
+    }
+}
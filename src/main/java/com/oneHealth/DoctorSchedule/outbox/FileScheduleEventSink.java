@@ -0,0 +1,54 @@
+package com.oneHealth.DoctorSchedule.outbox;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+
+/**
+ * Appends relayed schedule changes to a file, one JSON object per line (NDJSON), for local testing or for a
+ * log shipper to pick up. Every batch is forced to disk before the relay deletes it from the outbox. Active when
+ * doctorschedule.outbox.sink is "file"; the file is doctorschedule.outbox.file.path.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.outbox.sink", havingValue = "file")
+public class FileScheduleEventSink implements ScheduleEventSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path path;
+
+    public FileScheduleEventSink(@Value("${doctorschedule.outbox.file.path:schedule-events.ndjson}") String path) {
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void publish(List<ScheduleOutboxEvent> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            for (ScheduleOutboxEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.oneHealth.DoctorSchedule.outbox;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+
+/**
+ * Publishes relayed schedule changes as Spring application events, one ScheduleOutboxEvent at a time, so
+ * @EventListener methods in the same application receive them. Meant for local testing and for running without
+ * a broker; active when doctorschedule.outbox.sink is "in-process" (the default).
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class InProcessScheduleEventSink implements ScheduleEventSink {
+
+    private final Logger logger = LoggerFactory.getLogger(InProcessScheduleEventSink.class);
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Override
+    public void publish(List<ScheduleOutboxEvent> events) {
+        // Listeners run synchronously on the relay thread, in eventId order
+        for (ScheduleOutboxEvent event : events) {
+            publisher.publishEvent(event);
+        }
+        logger.debug("Outbox - Published {} schedule events in process, up to event {}", events.size(),
+                events.get(events.size() - 1).getEventId());
+    }
+}
@@ -0,0 +1,27 @@
+package com.oneHealth.DoctorSchedule.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+
+/**
+ * Destination the outbox relay publishes schedule changes to, selected with doctorschedule.outbox.sink.
+ *
+ * A batch holds events of many doctors ordered by eventId, which is commit order per doctor; a sink must keep
+ * that order for the events of a doctor. Delivery is at least once: a batch is published again if the relay
+ * fails before deleting it, so consumers should ignore eventIds they have already seen.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ScheduleEventSink {
+
+    /**
+     * Publishes a batch of events. The batch is only removed from the outbox if this returns normally.
+     *
+     * @param events The events ordered by eventId.
+     * @throws IOException If the events could not be published.
+     */
+    void publish(List<ScheduleOutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,106 @@
+package com.oneHealth.DoctorSchedule.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.repository.ScheduleOutboxRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+
+/**
+ * Drains the schedule outbox into the configured ScheduleEventSink.
+ *
+ * Every doctorschedule.outbox.relay.interval-ms the relay reads the oldest events in batches, publishes each batch
+ * and deletes it, all in one transaction per batch. The transaction first takes the relay lock, so with several
+ * instances only one relays at a time and the events leave the outbox in eventId order. A batch whose publishing
+ * or delete fails stays in the outbox and is published again on the next run. With shards every shard has an outbox
+ * of its own, written in the transactions of its doctors, and a relay lock of its own; the shards are relayed in
+ * turn, so the events of a doctor keep their order as long as the doctor stays on one shard.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduleOutboxRelay {
+
+    private final Logger logger = LoggerFactory.getLogger(ScheduleOutboxRelay.class);
+
+    @Autowired
+    private ScheduleOutboxRepository outbox;
+
+    @Autowired
+    private ScheduleEventSink sink;
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Autowired
+    private ShardRouter shards;
+
+    @Value("${doctorschedule.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    // Bounds one run, so a large backlog does not keep the scheduling thread busy indefinitely
+    @Value("${doctorschedule.outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    private final TransactionTemplate transaction;
+
+    public ScheduleOutboxRelay(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Relays batches until the outbox is empty, another instance holds the relay lock, or maxBatchesPerRun is reached.
+     */
+    @Scheduled(fixedDelayString = "${doctorschedule.outbox.relay.interval-ms:1000}")
+    public void relay() {
+        for (String shard : shards.getShards()) {
+            try {
+                for (int i = 0; i < maxBatchesPerRun; i++) {
+                    Integer relayed = transaction.execute(status -> {
+                        shards.useShard(shard);
+                        return relayBatch();
+                    });
+                    if (relayed == null || relayed < batchSize) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Outbox - Relaying schedule events of shard {} failed, retrying in the next run", shard, e);
+            }
+        }
+    }
+
+    // Publishes and deletes one batch; returns its size, or 0 if another instance is relaying
+    private int relayBatch() {
+        if (!outbox.tryLockRelay()) {
+            return 0;
+        }
+        List<ScheduleOutboxEvent> events = outbox.findBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(events);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outbox.delete(events);
+        metrics.outboxRelayed(events.size());
+        return events.size();
+    }
+}
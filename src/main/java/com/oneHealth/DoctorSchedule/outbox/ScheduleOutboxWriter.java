@@ -0,0 +1,91 @@
+package com.oneHealth.DoctorSchedule.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.repository.ScheduleOutboxRepository;
+
+/**
+ * Writes schedule changes to the outbox, in the transaction of the change itself: either both commit or neither does.
+ *
+ * The doctors are locked before their events take an eventId, and the lock is held until commit, so a doctor's
+ * next event can only be numbered once the previous one is committed. Relaying in eventId order therefore
+ * publishes every doctor's events in commit order.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ScheduleOutboxWriter {
+
+    @Autowired
+    private ScheduleOutboxRepository outbox;
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Appends the change of one schedule to the outbox.
+     *
+     * @param type     CREATED, UPDATED or DELETED.
+     * @param schedule The schedule as written, or as it was before a delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ScheduleChangeEventDTO.Type type, DoctorSchedule schedule) {
+        appendAll(type, List.of(schedule));
+    }
+
+    /**
+     * Appends the changes of many schedules to the outbox with one batch, e.g. the rows created by a bulk import.
+     *
+     * @param type      CREATED, UPDATED or DELETED.
+     * @param schedules The schedules as written.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(ScheduleChangeEventDTO.Type type, List<DoctorSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        Set<Long> doctorIds = new TreeSet<>();
+        List<ScheduleOutboxEvent> events = new ArrayList<>(schedules.size());
+        for (DoctorSchedule schedule : schedules) {
+            if (schedule.getDoctorId() != null) {
+                doctorIds.add(schedule.getDoctorId());
+            }
+            events.add(new ScheduleOutboxEvent(null, schedule.getDoctorId(), schedule.getSlotId(), type.name(),
+                    toPayload(schedule), null));
+        }
+        jdbcRepo.lockDoctors(doctorIds);
+        outbox.append(events);
+    }
+
+    /**
+     * Serializes a schedule the way the REST endpoints do, as the payload of its outbox event.
+     *
+     * @param schedule The schedule to serialize.
+     * @return String The schedule as JSON.
+     */
+    public String toPayload(DoctorSchedule schedule) {
+        try {
+            return objectMapper.writeValueAsString(schedule);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize schedule " + schedule.getSlotId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.time.LocalDate;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * One doctor on one date, the unit within which schedules must not overlap.
+ *
+ * @param doctorId The ID of the doctor.
+ * @param date     The date.
+ * @author Madhavi
+ * @version 1.0
+ */
+public record DoctorDay(Long doctorId, LocalDate date) {
+
+    // Builds the doctor and date of an existing or incoming schedule
+    public static DoctorDay of(DoctorSchedule schedule) {
+        return new DoctorDay(schedule.getDoctorId(),
+                schedule.getDate() == null ? null : schedule.getDate().toLocalDate());
+    }
+}
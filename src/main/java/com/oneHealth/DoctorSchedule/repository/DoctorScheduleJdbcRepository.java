@@ -0,0 +1,538 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+
+import io.micrometer.core.annotation.Timed;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * JDBC access to the doctor_schedule table for the paths where going through JPA would be too costly,
+ * such as streaming the whole table without materializing it in memory or inserting thousands of rows at once.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+public class DoctorScheduleJdbcRepository {
+
+    private final Logger logger = LoggerFactory.getLogger(DoctorScheduleJdbcRepository.class);
+
+    private static final DoctorScheduleRowMapper ROW_MAPPER = new DoctorScheduleRowMapper();
+
+    // Timer of the blocking methods, tagged with the method name; the streaming read is not timed since it returns at once
+    private static final String TIMER = "doctorschedule.jdbc.repository";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    @Value("${doctorschedule.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${doctorschedule.bulk.batch-size:500}")
+    private int batchSize;
+
+    // Rows that would violate the unique (doctorId, date, shift) index are skipped and report an update count of 0
+    private static final String INSERT_SQL = "INSERT INTO doctor_schedule (" + DoctorScheduleRowMapper.COLUMNS
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0) ON CONFLICT (" + DoctorSchedule.UNIQUE_DOCTOR_DATE_SHIFT_KEY + ") DO NOTHING";
+
+    // Matches incoming (doctorId, date, shift) keys against the table in one statement
+    private static final String EXISTING_KEYS_SQL = "SELECT s.doctor_id, s.date, s.shift FROM doctor_schedule s"
+            + " JOIN unnest(?, ?, ?) AS k(doctor_id, slot_date, shift)"
+            + " ON s.doctor_id = k.doctor_id AND s.date = k.slot_date AND s.shift IS NOT DISTINCT FROM k.shift";
+
+    // First half of the two-part advisory lock key used for doctor schedule locks
+    public static final int DOCTOR_LOCK_NAMESPACE = 0x5C4ED;
+
+    // Locks the doctors' keys one after another in ascending order
+    private static final String LOCK_DOCTORS_SQL = "SELECT pg_advisory_xact_lock(?, k.lock_key)"
+            + " FROM (SELECT unnest(?::integer[]) AS lock_key ORDER BY 1) AS k";
+
+    // Reads the schedules of many (doctorId, date) pairs in one statement
+    private static final String SCHEDULES_ON_DAYS_SQL = "SELECT " + DoctorScheduleRowMapper.COLUMNS
+            + " FROM doctor_schedule WHERE (doctor_id, date) IN (SELECT * FROM unnest(?::bigint[], ?::date[]))";
+
+    // Batch lookups, one array parameter instead of one statement per ID
+    private static final String SCHEDULES_BY_SLOT_IDS_SQL = "SELECT " + DoctorScheduleRowMapper.COLUMNS
+            + " FROM doctor_schedule WHERE slot_id = ANY(?) ORDER BY doctor_id, date, start_time";
+
+    private static final String SCHEDULES_BY_DOCTOR_IDS_SQL = "SELECT " + DoctorScheduleRowMapper.COLUMNS
+            + " FROM doctor_schedule WHERE doctor_id = ANY(?) ORDER BY doctor_id, date, start_time";
+
+    /**
+     * Allocates slot IDs from the doctor_schedule sequence in pooled blocks, the same way Hibernate does,
+     * so IDs handed out here never collide with IDs handed out to JPA inserts.
+     *
+     * @param count The number of IDs needed.
+     * @return long[] The allocated IDs.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public long[] allocateSlotIds(int count) {
+        long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            int blocks = (count - allocated + DoctorSchedule.SLOT_ID_ALLOCATION_SIZE - 1) / DoctorSchedule.SLOT_ID_ALLOCATION_SIZE;
+            List<Long> highValues = jdbcTemplate.queryForList(
+                    "SELECT nextval('" + DoctorSchedule.SLOT_ID_SEQUENCE + "') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long high : highValues) {
+                // Each sequence value is the top of a block of ALLOCATION_SIZE ids; a fresh sequence starts at 1
+                long low = Math.max(1L, high - DoctorSchedule.SLOT_ID_ALLOCATION_SIZE + 1);
+                for (long id = low; id <= high && allocated < count; id++) {
+                    ids[allocated++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Finds which of the given (doctorId, date, shift) keys already exist, using a single query.
+     *
+     * @param keys The keys to look up.
+     * @return Set<ScheduleKey> The subset of keys that already exist in the table.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Set<ScheduleKey> findExistingKeys(Collection<ScheduleKey> keys) {
+        Set<ScheduleKey> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        Long[] doctorIds = new Long[keys.size()];
+        Date[] dates = new Date[keys.size()];
+        String[] shifts = new String[keys.size()];
+        int i = 0;
+        for (ScheduleKey key : keys) {
+            doctorIds[i] = key.doctorId();
+            dates[i] = Date.valueOf(key.date());
+            shifts[i] = key.shift();
+            i++;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXISTING_KEYS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", doctorIds));
+            statement.setArray(2, connection.createArrayOf("date", dates));
+            statement.setArray(3, connection.createArrayOf("text", shifts));
+            return statement;
+        }, (RowCallbackHandler) rs -> existing.add(new ScheduleKey(rs.getLong("doctor_id"),
+                rs.getDate("date").toLocalDate(), rs.getString("shift"))));
+        return existing;
+    }
+
+    /**
+     * Takes a transaction-scoped lock on each given doctor's schedule, in ascending order so that concurrent writers
+     * never deadlock. Writers that check for overlapping slots hold it until they commit, so two of them cannot both
+     * see a doctor's day as free. Must be called inside a transaction.
+     *
+     * @param doctorIds The doctors whose schedules are about to be written.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void lockDoctors(Collection<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return;
+        }
+        Integer[] keys = doctorIds.stream().map(DoctorScheduleJdbcRepository::lockKey).distinct().sorted().toArray(Integer[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_DOCTORS_SQL);
+            statement.setInt(1, DOCTOR_LOCK_NAMESPACE);
+            statement.setArray(2, connection.createArrayOf("integer", keys));
+            return statement;
+        }, (RowCallbackHandler) rs -> { });
+    }
+
+    /**
+     * Finds a schedule of the doctor on that date whose time range overlaps [startTime, endTime).
+     * Served by the (doctorId, date, startTime) index.
+     *
+     * @param doctorId      The ID of the doctor.
+     * @param date          The date of the schedule being written.
+     * @param startTime     The start of the schedule being written.
+     * @param endTime       The end of the schedule being written.
+     * @param excludeSlotId The slotId of the schedule being updated, or null for a new schedule.
+     * @return DoctorSchedule The earliest overlapping schedule, or null if there is none.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public DoctorSchedule findOverlappingSlot(Long doctorId, Date date, Time startTime, Time endTime, Long excludeSlotId) {
+        List<DoctorSchedule> overlapping = jdbcTemplate.query("SELECT " + DoctorScheduleRowMapper.COLUMNS
+                + " FROM doctor_schedule WHERE doctor_id = ? AND date = ? AND start_time < ? AND end_time > ?"
+                + " AND slot_id <> ? ORDER BY start_time LIMIT 1",
+                ROW_MAPPER, doctorId, date, endTime, startTime, excludeSlotId == null ? -1L : excludeSlotId);
+        return overlapping.isEmpty() ? null : overlapping.get(0);
+    }
+
+    /**
+     * Finds a schedule of the doctor that the occurrences of a template would overlap: one on the template's weekday
+     * within its validity, on a date it does not exclude, of another shift, whose time range overlaps the template's.
+     * Schedules of the template's own shift replace its occurrences instead. Served by the (doctorId, date, startTime)
+     * index.
+     *
+     * @param template The template being written.
+     * @return DoctorSchedule The earliest overlapping schedule, or null if there is none.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public DoctorSchedule findSlotOverlappingTemplate(ScheduleTemplate template) {
+        String sql = "SELECT " + DoctorScheduleRowMapper.COLUMNS + " FROM doctor_schedule WHERE doctor_id = ? AND date >= ?"
+                + (template.getValidUntil() != null ? " AND date <= ?" : "")
+                + " AND EXTRACT(ISODOW FROM date) = ? AND start_time < ? AND end_time > ? AND shift IS DISTINCT FROM ?"
+                + " AND date <> ALL(?) ORDER BY date, start_time LIMIT 1";
+        List<DoctorSchedule> overlapping = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            int i = 1;
+            statement.setLong(i++, template.getDoctorId());
+            statement.setDate(i++, template.getValidFrom());
+            if (template.getValidUntil() != null) {
+                statement.setDate(i++, template.getValidUntil());
+            }
+            statement.setInt(i++, template.getDayOfWeek().getValue());
+            statement.setTime(i++, template.getEndTime());
+            statement.setTime(i++, template.getStartTime());
+            statement.setString(i++, template.getShift());
+            statement.setArray(i, connection.createArrayOf("date", template.getExcludedDates().toArray()));
+            return statement;
+        }, ROW_MAPPER);
+        return overlapping.isEmpty() ? null : overlapping.get(0);
+    }
+
+    /**
+     * Reads every schedule of the given doctors on the given dates with a single query.
+     *
+     * @param days     The doctors and dates to read.
+     * @param consumer Receives every schedule found.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEachScheduleOnDays(Collection<DoctorDay> days, Consumer<DoctorSchedule> consumer) {
+        if (days.isEmpty()) {
+            return;
+        }
+        Long[] doctorIds = new Long[days.size()];
+        Date[] dates = new Date[days.size()];
+        int i = 0;
+        for (DoctorDay day : days) {
+            doctorIds[i] = day.doctorId();
+            dates[i] = Date.valueOf(day.date());
+            i++;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCHEDULES_ON_DAYS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", doctorIds));
+            statement.setArray(2, connection.createArrayOf("date", dates));
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    // Advisory lock key of a doctor; unrelated doctors sharing a key only serialize their writes
+    public static int lockKey(Long doctorId) {
+        return Long.hashCode(doctorId);
+    }
+
+    /**
+     * Inserts doctor schedules with JDBC batching. Every schedule must already carry its slotId.
+     * A schedule whose doctor, date and shift already exist is skipped rather than failing the batch.
+     *
+     * @param schedules The doctor schedules to insert.
+     * @return int[] The update count of each schedule, in input order: 0 for skipped duplicates.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public int[] insertBatch(List<DoctorSchedule> schedules) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, schedules, batchSize, (ps, schedule) -> {
+            ps.setLong(1, schedule.getSlotId());
+            ps.setLong(2, schedule.getDoctorId());
+            ps.setDate(3, schedule.getDate());
+            ps.setTime(4, schedule.getStartTime());
+            ps.setTime(5, schedule.getEndTime());
+            ps.setString(6, schedule.getTypeAvailability());
+            ps.setString(7, schedule.getAddressAvailability());
+            ps.setString(8, schedule.getShift());
+        });
+        int[] flat = new int[schedules.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                flat[i++] = count;
+            }
+        }
+        return flat;
+    }
+
+    /**
+     * Applies a partial update with a single conditional UPDATE, if the schedule still has the expected version.
+     * Only the columns set in the patch are written, and the version is incremented.
+     *
+     * @param slotId The ID of the schedule to update.
+     * @param patch  The columns to change and the version the change is based on.
+     * @return DoctorSchedule The updated schedule, or null if no schedule has that slotId and version.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public DoctorSchedule patch(long slotId, SchedulePatchDTO patch) {
+        StringBuilder sql = new StringBuilder("UPDATE doctor_schedule SET ");
+        List<Object> params = new ArrayList<>();
+        appendAssignment(sql, params, "date", patch.getDate());
+        appendAssignment(sql, params, "start_time", patch.getStartTime());
+        appendAssignment(sql, params, "end_time", patch.getEndTime());
+        appendAssignment(sql, params, "type_availability", patch.getTypeAvailability());
+        appendAssignment(sql, params, "address_availability", patch.getAddressAvailability());
+        appendAssignment(sql, params, "shift", patch.getShift());
+        sql.append("version = version + 1 WHERE slot_id = ? AND version = ? RETURNING ").append(DoctorScheduleRowMapper.COLUMNS);
+        params.add(slotId);
+        params.add(patch.getVersion());
+        List<DoctorSchedule> updated = jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+        return updated.isEmpty() ? null : updated.get(0);
+    }
+
+    /**
+     * Deletes a schedule with a single statement, optionally only if it still has the expected version.
+     *
+     * @param slotId          The ID of the schedule to delete.
+     * @param expectedVersion The version the delete is based on, or null to delete any version.
+     * @return DoctorSchedule The deleted schedule, or null if no schedule has that slotId (and version).
+     */
+    @Timed(value = TIMER, histogram = true)
+    public DoctorSchedule deleteReturning(long slotId, Long expectedVersion) {
+        String sql = "DELETE FROM doctor_schedule WHERE slot_id = ?" + (expectedVersion == null ? "" : " AND version = ?")
+                + " RETURNING " + DoctorScheduleRowMapper.COLUMNS;
+        List<DoctorSchedule> deleted = expectedVersion == null
+                ? jdbcTemplate.query(sql, ROW_MAPPER, slotId)
+                : jdbcTemplate.query(sql, ROW_MAPPER, slotId, expectedVersion);
+        return deleted.isEmpty() ? null : deleted.get(0);
+    }
+
+    /**
+     * Reads the current version of a schedule, to tell a stale write from a missing schedule after a
+     * conditional write matched no row.
+     *
+     * @param slotId The ID of the schedule.
+     * @return Long The current version, or null if no schedule has that slotId.
+     */
+    public Long findVersion(long slotId) {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM doctor_schedule WHERE slot_id = ?", Long.class, slotId);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    // Adds "column = ?, " for a value the patch sets
+    private static void appendAssignment(StringBuilder sql, List<Object> params, String column, Object value) {
+        if (value != null) {
+            sql.append(column).append(" = ?, ");
+            params.add(value);
+        }
+    }
+
+    /**
+     * Reads the schedules with the given slot IDs in one query.
+     *
+     * @param slotIds The IDs of the schedules.
+     * @return List<DoctorSchedule> The schedules found, ordered by doctor, date and start time.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<DoctorSchedule> findBySlotIds(Collection<Long> slotIds) {
+        return findByIds(SCHEDULES_BY_SLOT_IDS_SQL, slotIds);
+    }
+
+    /**
+     * Reads all schedules of the given doctors in one query.
+     *
+     * @param doctorIds The IDs of the doctors.
+     * @return List<DoctorSchedule> The schedules found, ordered by doctor, date and start time.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<DoctorSchedule> findByDoctorIds(Collection<Long> doctorIds) {
+        return findByIds(SCHEDULES_BY_DOCTOR_IDS_SQL, doctorIds);
+    }
+
+    private List<DoctorSchedule> findByIds(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, ROW_MAPPER);
+    }
+
+    /**
+     * Reads the schedules an availability search needs in one query, ordered by doctor, date and start time,
+     * and hands them to the consumer row by row instead of materializing them.
+     *
+     * @param doctorIds           The doctors to search, or null for all doctors.
+     * @param from                The first date of the search, inclusive.
+     * @param to                  The last date of the search, inclusive.
+     * @param typeAvailabilities  The types of availability to match, or null for any.
+     * @param addressAvailability The address to match, or null for any.
+     * @param consumer            Receives every matching schedule in order.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEachScheduleInRange(Collection<Long> doctorIds, LocalDate from, LocalDate to,
+            Collection<String> typeAvailabilities, String addressAvailability, Consumer<DoctorSchedule> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(DoctorScheduleRowMapper.COLUMNS)
+                .append(" FROM doctor_schedule WHERE date BETWEEN ? AND ?");
+        if (doctorIds != null) {
+            sql.append(" AND doctor_id = ANY(?)");
+        }
+        if (typeAvailabilities != null) {
+            sql.append(" AND type_availability = ANY(?)");
+        }
+        if (addressAvailability != null) {
+            sql.append(" AND address_availability = ?");
+        }
+        sql.append(" ORDER BY doctor_id, date, start_time");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            int i = 1;
+            statement.setDate(i++, Date.valueOf(from));
+            statement.setDate(i++, Date.valueOf(to));
+            if (doctorIds != null) {
+                statement.setArray(i++, connection.createArrayOf("bigint", doctorIds.toArray()));
+            }
+            if (typeAvailabilities != null) {
+                statement.setArray(i++, connection.createArrayOf("varchar", typeAvailabilities.toArray()));
+            }
+            if (addressAvailability != null) {
+                statement.setString(i, addressAvailability);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    /**
+     * Streams doctor schedules ordered by slotId, optionally filtered by doctor and date.
+     *
+     * Rows are read through a server-side cursor with a fixed fetch size and emitted as they are requested,
+     * so memory use stays constant regardless of the table size. The connection is held until the stream
+     * completes, fails or is cancelled.
+     *
+     * @param doctorId The ID of the doctor to filter on, or null for all doctors.
+     * @param date     The date to filter on, or null for all dates.
+     * @return Flux<DoctorSchedule> A stream of the matching doctor schedules.
+     */
+    public Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date) {
+        return streamSchedules(doctorId, date, null);
+    }
+
+    /**
+     * Streams doctor schedules from one shard, see streamSchedules(Long, LocalDate) and ShardRouter.
+     *
+     * @param doctorId The ID of the doctor to filter on, or null for all doctors.
+     * @param date     The date to filter on, or null for all dates.
+     * @param shard    The name of the shard to read, or null for the home shard.
+     * @return Flux<DoctorSchedule> A stream of the matching doctor schedules on the shard.
+     */
+    public Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date, String shard) {
+        return Flux.using(
+                () -> shard == null ? openCursor(doctorId, date) : ShardRouter.callOnShard(shard, () -> openCursor(doctorId, date)),
+                cursor -> Flux.<DoctorSchedule>generate(sink -> {
+                    try {
+                        if (cursor.resultSet.next()) {
+                            sink.next(ROW_MAPPER.mapRow(cursor.resultSet, cursor.rowNum++));
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (SQLException e) {
+                        sink.error(e);
+                    }
+                }),
+                ScheduleCursor::close)
+                // Opening the cursor and every fetch block, so keep them off the event loop
+                .subscribeOn(jdbcScheduler);
+    }
+
+    private ScheduleCursor openCursor(Long doctorId, LocalDate date) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(DoctorScheduleRowMapper.COLUMNS)
+                .append(" FROM doctor_schedule WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (doctorId != null) {
+            sql.append(" AND doctor_id = ?");
+            params.add(doctorId);
+        }
+        if (date != null) {
+            sql.append(" AND date = ?");
+            params.add(Date.valueOf(date));
+        }
+        sql.append(" ORDER BY slot_id");
+
+        Connection connection = dataSource.getConnection();
+        try {
+            // PostgreSQL only honours the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return new ScheduleCursor(connection, statement, statement.executeQuery());
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    // Open cursor over doctor_schedule together with the connection that owns it
+    private final class ScheduleCursor {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private int rowNum;
+
+        private ScheduleCursor(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+        }
+
+        private void close() {
+            try {
+                resultSet.close();
+                statement.close();
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.warn("Failed to release schedule stream cursor", e);
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("Failed to close schedule stream connection", e);
+                }
+            }
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.oneHealth.DoctorSchedule.repository;
 import java.sql.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 
 import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
@@ -13,10 +15,14 @@ import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
  * 
  * This repository provides the necessary methods to interact with the database and manage doctor schedule data.
  * It inherits basic CRUD operations from JpaRepository and supports additional custom queries if needed.
+ *
+ * The finder methods declared here run in read-only transactions unless they join a surrounding write transaction,
+ * so Hibernate loads their results as read-only entities without dirty-checking snapshots and never flushes.
  
  * @author Madhavi
  * @version 1.0
  */
+@Transactional(readOnly = true)
 public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long>{
 	/**
 	 * Finds a list of doctor schedules for a specific doctor by their ID.
@@ -44,6 +50,25 @@ public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule,
 	 */
 	List<DoctorSchedule> findByDoctorIdAndDateAfterOrderByDateAscStartTimeAsc(Long doctorId, Date date);
 
+	/**
+	 * Finds a list of doctor schedules for a specific doctor on or after a certain date, ordered by date and start time in ascending order.
+	 *
+	 * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
+	 * @param date     The first date for which doctor schedules are retrieved.
+	 * @return List<DoctorSchedule> A list of doctor schedules for the specified doctor from the given date onwards.
+	 */
+	List<DoctorSchedule> findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(Long doctorId, Date date);
+
+	/**
+	 * Finds a list of doctor schedules for a specific doctor within a date window (both ends inclusive), ordered by date and start time in ascending order.
+	 *
+	 * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
+	 * @param from     The first date of the window.
+	 * @param to       The last date of the window.
+	 * @return List<DoctorSchedule> A list of doctor schedules for the specified doctor within the window.
+	 */
+	List<DoctorSchedule> findByDoctorIdAndDateBetweenOrderByDateAscStartTimeAsc(Long doctorId, Date from, Date to);
+
 	/**
 	 * Finds a list of doctor schedules for a specific doctor by their ID, date, and shift.
 	 *
@@ -54,4 +79,44 @@ public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule,
 	 */
 	List<DoctorSchedule> findByDoctorIdAndDateAndShift(Long doctorId, Date date, String shift);
 
+	/**
+	 * Finds the next page of doctor schedules after a slotId cursor, ordered by slotId.
+	 *
+	 * @param slotId   The slotId to continue after.
+	 * @param pageable The page size; the offset is always zero for keyset pagination.
+	 * @return List<DoctorSchedule> The next page of doctor schedules.
+	 */
+	List<DoctorSchedule> findBySlotIdGreaterThanOrderBySlotIdAsc(Long slotId, Pageable pageable);
+
+	/**
+	 * Finds the next page of a doctor's schedules after a slotId cursor, ordered by slotId.
+	 *
+	 * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
+	 * @param slotId   The slotId to continue after.
+	 * @param pageable The page size; the offset is always zero for keyset pagination.
+	 * @return List<DoctorSchedule> The next page of doctor schedules for the specified doctor.
+	 */
+	List<DoctorSchedule> findByDoctorIdAndSlotIdGreaterThanOrderBySlotIdAsc(Long doctorId, Long slotId, Pageable pageable);
+
+	/**
+	 * Finds the next page of doctor schedules on a date after a slotId cursor, ordered by slotId.
+	 *
+	 * @param date     The date for which doctor schedules are retrieved.
+	 * @param slotId   The slotId to continue after.
+	 * @param pageable The page size; the offset is always zero for keyset pagination.
+	 * @return List<DoctorSchedule> The next page of doctor schedules for the specified date.
+	 */
+	List<DoctorSchedule> findByDateAndSlotIdGreaterThanOrderBySlotIdAsc(Date date, Long slotId, Pageable pageable);
+
+	/**
+	 * Finds the next page of a doctor's schedules on a date after a slotId cursor, ordered by slotId.
+	 *
+	 * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
+	 * @param date     The date for which doctor schedules are retrieved.
+	 * @param slotId   The slotId to continue after.
+	 * @param pageable The page size; the offset is always zero for keyset pagination.
+	 * @return List<DoctorSchedule> The next page of doctor schedules for the specified doctor and date.
+	 */
+	List<DoctorSchedule> findByDoctorIdAndDateAndSlotIdGreaterThanOrderBySlotIdAsc(Long doctorId, Date date, Long slotId, Pageable pageable);
+
 }
@@ -0,0 +1,38 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Maps rows of the doctor_schedule table to DoctorSchedule objects for the plain JDBC read paths.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class DoctorScheduleRowMapper implements RowMapper<DoctorSchedule> {
+
+    // Column list matching the mapping below, for use in hand-written SELECT statements
+    public static final String COLUMNS =
+            "slot_id, doctor_id, date, start_time, end_time, type_availability, address_availability, shift, version";
+
+    @Override
+    public DoctorSchedule mapRow(ResultSet rs, int rowNum) throws SQLException {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.setSlotId(rs.getLong("slot_id"));
+        long doctorId = rs.getLong("doctor_id");
+        schedule.setDoctorId(rs.wasNull() ? null : doctorId);
+        schedule.setDate(rs.getDate("date"));
+        schedule.setStartTime(rs.getTime("start_time"));
+        schedule.setEndTime(rs.getTime("end_time"));
+        schedule.setTypeAvailability(rs.getString("type_availability"));
+        schedule.setAddressAvailability(rs.getString("address_availability"));
+        schedule.setShift(rs.getString("shift"));
+        long version = rs.getLong("version");
+        schedule.setVersion(rs.wasNull() ? null : version);
+        return schedule;
+    }
+}
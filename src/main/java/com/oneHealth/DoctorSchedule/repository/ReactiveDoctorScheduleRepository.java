@@ -0,0 +1,295 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The ReactiveDoctorScheduleRepository class reads and writes the doctor_schedule table through R2DBC.
+ *
+ * It maps the same table as DoctorScheduleRepository, converting between the R2DBC java.time types and the
+ * java.sql types of the DoctorSchedule entity. Results are emitted as the database produces them, so the
+ * subscriber's demand propagates down to the connection.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+public class ReactiveDoctorScheduleRepository {
+
+    private static final String SELECT = "SELECT " + DoctorScheduleRowMapper.COLUMNS + " FROM doctor_schedule";
+
+    // Each insert takes its own sequence value as the slot ID. Hibernate treats every sequence value as the top
+    // of a block of ids, so the values used here never fall inside a block JPA or the bulk import hands out.
+    private static final String INSERT = "INSERT INTO doctor_schedule (" + DoctorScheduleRowMapper.COLUMNS + ")"
+            + " VALUES (nextval('" + DoctorSchedule.SLOT_ID_SEQUENCE + "'), :doctorId, :date, :startTime, :endTime,"
+            + " :typeAvailability, :addressAvailability, :shift, 0)"
+            + " ON CONFLICT (" + DoctorSchedule.UNIQUE_DOCTOR_DATE_SHIFT_KEY + ") DO NOTHING RETURNING slot_id";
+
+    private static final String UPDATE = "UPDATE doctor_schedule SET start_time = :startTime, end_time = :endTime,"
+            + " date = :date, type_availability = :typeAvailability, address_availability = :addressAvailability,"
+            + " shift = :shift, version = version + 1 WHERE slot_id = :slotId AND version = :version"
+            + " RETURNING " + DoctorScheduleRowMapper.COLUMNS;
+
+    // Same statement as ScheduleOutboxRepository.INSERT_SQL, with named parameters
+    private static final String INSERT_OUTBOX = "INSERT INTO schedule_outbox (event_id, doctor_id, slot_id, event_type, payload, created_at)"
+            + " VALUES (nextval('" + ScheduleOutboxEvent.ID_SEQUENCE + "'), :doctorId, :slotId, :eventType, :payload, now())";
+
+    @Autowired
+    private DatabaseClient client;
+
+    @Value("${doctorschedule.stream.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Inserts a doctor schedule unless its doctor, date and shift are already taken.
+     *
+     * @param schedule The doctor schedule to insert.
+     * @return Mono<Long> The new slotId, or empty if the doctor, date and shift already exist.
+     */
+    public Mono<Long> insert(DoctorSchedule schedule) {
+        GenericExecuteSpec spec = bindNullable(client.sql(INSERT), "doctorId", schedule.getDoctorId(), Long.class);
+        return bindColumns(spec, schedule)
+                .map((row, metadata) -> row.get("slot_id", Long.class))
+                .one();
+    }
+
+    public Mono<DoctorSchedule> findById(long slotId) {
+        return client.sql(SELECT + " WHERE slot_id = :slotId")
+                .bind("slotId", slotId)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    public Flux<DoctorSchedule> findAll() {
+        return client.sql(SELECT)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Flux<DoctorSchedule> findByDoctorId(long doctorId) {
+        return client.sql(SELECT + " WHERE doctor_id = :doctorId ORDER BY date, start_time")
+                .bind("doctorId", doctorId)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    /**
+     * Finds a doctor's schedules dated after a certain date, ordered by date and start time.
+     */
+    public Flux<DoctorSchedule> findByDoctorIdAfter(Long doctorId, LocalDate date) {
+        return client.sql(SELECT + " WHERE doctor_id = :doctorId AND date > :date ORDER BY date, start_time")
+                .bind("doctorId", doctorId)
+                .bind("date", date)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    /**
+     * Finds a doctor's schedules from a date onwards, optionally up to an inclusive end date, ordered by date and start time.
+     */
+    public Flux<DoctorSchedule> findByDoctorIdInWindow(Long doctorId, LocalDate from, LocalDate to) {
+        String sql = SELECT + " WHERE doctor_id = :doctorId AND date >= :from"
+                + (to == null ? "" : " AND date <= :to") + " ORDER BY date, start_time";
+        GenericExecuteSpec spec = client.sql(sql).bind("doctorId", doctorId).bind("from", from);
+        if (to != null) {
+            spec = spec.bind("to", to);
+        }
+        return spec.map((row, metadata) -> mapRow(row)).all();
+    }
+
+    /**
+     * Streams schedules ordered by slotId, optionally filtered by doctor and date, fetching fetchSize rows at a time.
+     */
+    public Flux<DoctorSchedule> stream(Long doctorId, LocalDate date) {
+        String sql = SELECT + " WHERE 1 = 1" + (doctorId == null ? "" : " AND doctor_id = :doctorId")
+                + (date == null ? "" : " AND date = :date") + " ORDER BY slot_id";
+        GenericExecuteSpec spec = client.sql(sql).filter(statement -> statement.fetchSize(fetchSize));
+        if (doctorId != null) {
+            spec = spec.bind("doctorId", doctorId);
+        }
+        if (date != null) {
+            spec = spec.bind("date", date);
+        }
+        return spec.map((row, metadata) -> mapRow(row)).all();
+    }
+
+    /**
+     * Takes the transaction-scoped lock on a doctor's schedule, shared with DoctorScheduleJdbcRepository.lockDoctors.
+     * Must run inside a transaction.
+     */
+    public Mono<Void> lockDoctor(Long doctorId) {
+        return client.sql("SELECT pg_advisory_xact_lock(:namespace, :key)")
+                .bind("namespace", DoctorScheduleJdbcRepository.DOCTOR_LOCK_NAMESPACE)
+                .bind("key", DoctorScheduleJdbcRepository.lockKey(doctorId))
+                .then();
+    }
+
+    /**
+     * Finds a schedule of the doctor on that date whose time range overlaps [startTime, endTime).
+     *
+     * @return Mono<DoctorSchedule> The earliest overlapping schedule, or empty if there is none.
+     */
+    public Mono<DoctorSchedule> findOverlapping(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime,
+            Long excludeSlotId) {
+        return client.sql(SELECT + " WHERE doctor_id = :doctorId AND date = :date AND start_time < :endTime"
+                        + " AND end_time > :startTime AND slot_id <> :excludeSlotId ORDER BY start_time LIMIT 1")
+                .bind("doctorId", doctorId)
+                .bind("date", date)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .bind("excludeSlotId", excludeSlotId == null ? -1L : excludeSlotId)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    /**
+     * Overwrites the editable columns of a schedule if it still has the expected version, and increments the version.
+     *
+     * @return Mono<DoctorSchedule> The updated schedule, or empty if no schedule has that slotId and version.
+     */
+    public Mono<DoctorSchedule> update(long slotId, long expectedVersion, DoctorSchedule schedule) {
+        GenericExecuteSpec spec = client.sql(UPDATE).bind("slotId", slotId).bind("version", expectedVersion);
+        return bindColumns(spec, schedule)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    /**
+     * Applies a partial update with a single conditional UPDATE, like DoctorScheduleJdbcRepository.patch.
+     *
+     * @return Mono<DoctorSchedule> The updated schedule, or empty if no schedule has that slotId and version.
+     */
+    public Mono<DoctorSchedule> patch(long slotId, SchedulePatchDTO patch) {
+        StringBuilder sql = new StringBuilder("UPDATE doctor_schedule SET ");
+        appendAssignment(sql, "date", "date", patch.getDate());
+        appendAssignment(sql, "start_time", "startTime", patch.getStartTime());
+        appendAssignment(sql, "end_time", "endTime", patch.getEndTime());
+        appendAssignment(sql, "type_availability", "typeAvailability", patch.getTypeAvailability());
+        appendAssignment(sql, "address_availability", "addressAvailability", patch.getAddressAvailability());
+        appendAssignment(sql, "shift", "shift", patch.getShift());
+        sql.append("version = version + 1 WHERE slot_id = :slotId AND version = :version RETURNING ")
+                .append(DoctorScheduleRowMapper.COLUMNS);
+
+        GenericExecuteSpec spec = client.sql(sql.toString()).bind("slotId", slotId).bind("version", patch.getVersion());
+        if (patch.getDate() != null) {
+            spec = spec.bind("date", patch.getDate().toLocalDate());
+        }
+        if (patch.getStartTime() != null) {
+            spec = spec.bind("startTime", patch.getStartTime().toLocalTime());
+        }
+        if (patch.getEndTime() != null) {
+            spec = spec.bind("endTime", patch.getEndTime().toLocalTime());
+        }
+        if (patch.getTypeAvailability() != null) {
+            spec = spec.bind("typeAvailability", patch.getTypeAvailability());
+        }
+        if (patch.getAddressAvailability() != null) {
+            spec = spec.bind("addressAvailability", patch.getAddressAvailability());
+        }
+        if (patch.getShift() != null) {
+            spec = spec.bind("shift", patch.getShift());
+        }
+        return spec.map((row, metadata) -> mapRow(row)).one();
+    }
+
+    /**
+     * Deletes a schedule with a single statement, optionally only if it still has the expected version.
+     *
+     * @return Mono<DoctorSchedule> The deleted schedule, or empty if no schedule has that slotId (and version).
+     */
+    public Mono<DoctorSchedule> deleteById(long slotId, Long expectedVersion) {
+        GenericExecuteSpec spec = client.sql("DELETE FROM doctor_schedule WHERE slot_id = :slotId"
+                        + (expectedVersion == null ? "" : " AND version = :version") + " RETURNING " + DoctorScheduleRowMapper.COLUMNS)
+                .bind("slotId", slotId);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.map((row, metadata) -> mapRow(row)).one();
+    }
+
+    /**
+     * Reads the doctor of a schedule, to lock the doctor before a statement locks the schedule's row.
+     *
+     * @return Mono<Long> The schedule's doctor, or empty if no schedule has that slotId or it has no doctor.
+     */
+    public Mono<Long> findDoctorId(long slotId) {
+        return client.sql("SELECT doctor_id FROM doctor_schedule WHERE slot_id = :slotId AND doctor_id IS NOT NULL")
+                .bind("slotId", slotId)
+                .map((row, metadata) -> row.get("doctor_id", Long.class))
+                .one();
+    }
+
+    /**
+     * Reads the current version of a schedule, to tell a stale write from a missing schedule.
+     *
+     * @return Mono<Long> The current version, or empty if no schedule has that slotId.
+     */
+    public Mono<Long> findVersion(long slotId) {
+        return client.sql("SELECT version FROM doctor_schedule WHERE slot_id = :slotId")
+                .bind("slotId", slotId)
+                .map((row, metadata) -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Appends a schedule change to the outbox. Must run in the transaction of the change, holding the doctor's lock.
+     */
+    public Mono<Void> appendOutbox(String eventType, Long doctorId, Long slotId, String payload) {
+        GenericExecuteSpec spec = bindNullable(client.sql(INSERT_OUTBOX), "doctorId", doctorId, Long.class);
+        spec = bindNullable(spec, "slotId", slotId, Long.class);
+        return spec.bind("eventType", eventType)
+                .bind("payload", payload)
+                .then();
+    }
+
+    // Adds "column = :parameter, " for a value the patch sets
+    private static void appendAssignment(StringBuilder sql, String column, String parameter, Object value) {
+        if (value != null) {
+            sql.append(column).append(" = :").append(parameter).append(", ");
+        }
+    }
+
+    // Binds the editable columns shared by INSERT and UPDATE
+    private static GenericExecuteSpec bindColumns(GenericExecuteSpec spec, DoctorSchedule schedule) {
+        spec = bindNullable(spec, "date", schedule.getDate() == null ? null : schedule.getDate().toLocalDate(), LocalDate.class);
+        spec = bindNullable(spec, "startTime", schedule.getStartTime() == null ? null : schedule.getStartTime().toLocalTime(), LocalTime.class);
+        spec = bindNullable(spec, "endTime", schedule.getEndTime() == null ? null : schedule.getEndTime().toLocalTime(), LocalTime.class);
+        spec = bindNullable(spec, "typeAvailability", schedule.getTypeAvailability(), String.class);
+        spec = bindNullable(spec, "addressAvailability", schedule.getAddressAvailability(), String.class);
+        return bindNullable(spec, "shift", schedule.getShift(), String.class);
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static DoctorSchedule mapRow(Row row) {
+        LocalDate date = row.get("date", LocalDate.class);
+        LocalTime startTime = row.get("start_time", LocalTime.class);
+        LocalTime endTime = row.get("end_time", LocalTime.class);
+        DoctorSchedule schedule = new DoctorSchedule(row.get("slot_id", Long.class), row.get("doctor_id", Long.class),
+                date == null ? null : Date.valueOf(date),
+                startTime == null ? null : Time.valueOf(startTime),
+                endTime == null ? null : Time.valueOf(endTime),
+                row.get("type_availability", String.class), row.get("address_availability", String.class),
+                row.get("shift", String.class));
+        schedule.setVersion(row.get("version", Long.class));
+        return schedule;
+    }
+}
@@ -0,0 +1,55 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Reads a doctor's slots over a date range from both the archive and the live table, so callers need not know
+ * which months have been archived. The range bounds the live query to the partitions it covers.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ScheduleHistoryRepository {
+
+    private static final String TIMER = "doctorschedule.jdbc.repository";
+
+    private static final DoctorScheduleRowMapper ROW_MAPPER = new DoctorScheduleRowMapper();
+
+    // A slot is either archived or live, never both, since the archive job moves months in one transaction
+    private static final String HISTORY_SQL = "SELECT " + DoctorScheduleRowMapper.COLUMNS + " FROM doctor_schedule_archive"
+            + " WHERE doctor_id = ? AND date BETWEEN ? AND ?"
+            + " UNION ALL SELECT " + DoctorScheduleRowMapper.COLUMNS + " FROM doctor_schedule"
+            + " WHERE doctor_id = ? AND date BETWEEN ? AND ?"
+            + " ORDER BY date, start_time";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds a doctor's archived and live slots between two dates.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The first date, inclusive.
+     * @param to       The last date, inclusive.
+     * @return List<DoctorSchedule> The slots ordered by date and start time.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<DoctorSchedule> findHistory(Long doctorId, LocalDate from, LocalDate to) {
+        Date first = Date.valueOf(from);
+        Date last = Date.valueOf(to);
+        return jdbcTemplate.query(HISTORY_SQL, ROW_MAPPER, doctorId, first, last, doctorId, first, last);
+    }
+}
@@ -0,0 +1,23 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.time.LocalDate;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * The natural key of a doctor schedule: a doctor can hold at most one slot per date and shift.
+ *
+ * @param doctorId The ID of the doctor.
+ * @param date     The date of the slot.
+ * @param shift    The shift of the slot.
+ * @author Madhavi
+ * @version 1.0
+ */
+public record ScheduleKey(Long doctorId, LocalDate date, String shift) {
+
+    // Builds the key of an existing or incoming schedule
+    public static ScheduleKey of(DoctorSchedule schedule) {
+        return new ScheduleKey(schedule.getDoctorId(),
+                schedule.getDate() == null ? null : schedule.getDate().toLocalDate(), schedule.getShift());
+    }
+}
@@ -0,0 +1,97 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.oneHealth.DoctorSchedule.entity.ScheduleOutboxEvent;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * JDBC access to the schedule_outbox table, written by the schedule writers and drained by the outbox relay.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+public class ScheduleOutboxRepository {
+
+    // Same timer as DoctorScheduleJdbcRepository, told apart by the class tag
+    private static final String TIMER = "doctorschedule.jdbc.repository";
+
+    // Advisory lock namespace of the relay; a single key, so only one instance relays at a time
+    public static final int RELAY_LOCK_NAMESPACE = 0x5C4EE;
+
+    // Each row takes its own sequence value, so ids are handed out in the order the rows are written
+    public static final String INSERT_SQL = "INSERT INTO schedule_outbox (event_id, doctor_id, slot_id, event_type, payload, created_at)"
+            + " VALUES (nextval('" + ScheduleOutboxEvent.ID_SEQUENCE + "'), ?, ?, ?, ?, now())";
+
+    private static final String SELECT_BATCH_SQL = "SELECT event_id, doctor_id, slot_id, event_type, payload, created_at"
+            + " FROM schedule_outbox ORDER BY event_id LIMIT ?";
+
+    private static final RowMapper<ScheduleOutboxEvent> ROW_MAPPER = (rs, rowNum) -> new ScheduleOutboxEvent(
+            rs.getLong("event_id"), (Long) rs.getObject("doctor_id"), (Long) rs.getObject("slot_id"),
+            rs.getString("event_type"), rs.getString("payload"), rs.getTimestamp("created_at"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends events to the outbox with JDBC batching. Must run in the transaction of the change the events describe.
+     *
+     * @param events The events to append; eventId and createdAt are assigned by the database.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void append(List<ScheduleOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.getDoctorId());
+            ps.setObject(2, event.getSlotId());
+            ps.setString(3, event.getEventType());
+            ps.setString(4, event.getPayload());
+        });
+    }
+
+    /**
+     * Takes the relay lock for the rest of the current transaction, if no other instance holds it.
+     *
+     * @return boolean Whether the lock was taken.
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, 0)",
+                Boolean.class, RELAY_LOCK_NAMESPACE));
+    }
+
+    /**
+     * Reads the oldest events of the outbox.
+     *
+     * @param limit The maximum number of events to read.
+     * @return List<ScheduleOutboxEvent> The events ordered by eventId.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<ScheduleOutboxEvent> findBatch(int limit) {
+        return jdbcTemplate.query(SELECT_BATCH_SQL, ROW_MAPPER, limit);
+    }
+
+    /**
+     * Deletes relayed events.
+     *
+     * @param events The events to delete.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void delete(List<ScheduleOutboxEvent> events) {
+        Long[] ids = events.stream().map(ScheduleOutboxEvent::getEventId).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("DELETE FROM schedule_outbox WHERE event_id = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * JDBC access to the monthly partitions of doctor_schedule and to doctor_schedule_archive, see the V2 migration.
+ * All methods must run inside a transaction.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+public class SchedulePartitionRepository {
+
+    private static final String TIMER = "doctorschedule.jdbc.repository";
+
+    // Advisory lock namespace of the partition maintenance; a single key, so only one instance maintains at a time
+    public static final int MAINTENANCE_LOCK_NAMESPACE = 0x5C4EF;
+
+    public static final String DEFAULT_PARTITION = "doctor_schedule_default";
+
+    private static final String PARTITION_PREFIX = "doctor_schedule_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i"
+            + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'doctor_schedule'::regclass";
+
+    private static final String ARCHIVE_COLUMNS = DoctorScheduleRowMapper.COLUMNS;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the maintenance lock for the rest of the current transaction, if no other instance holds it.
+     *
+     * @return boolean Whether the lock was taken.
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, 0)",
+                Boolean.class, MAINTENANCE_LOCK_NAMESPACE));
+    }
+
+    /**
+     * Lists the months that have a partition of their own.
+     *
+     * @return SortedSet<YearMonth> The months, oldest first.
+     */
+    public SortedSet<YearMonth> findPartitionMonths() {
+        SortedSet<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query(LIST_PARTITIONS_SQL, (RowCallbackHandler) rs -> {
+            Matcher name = PARTITION_NAME.matcher(rs.getString(1));
+            if (name.matches()) {
+                months.add(YearMonth.parse(name.group(1), PARTITION_SUFFIX));
+            }
+        });
+        return months;
+    }
+
+    /**
+     * Creates the partition of a month. Rows of that month already in the default partition are moved into the
+     * new table before it is attached, since attaching fails while the default partition holds any of them.
+     *
+     * @param month The month to create the partition for.
+     * @return int The number of rows moved out of the default partition.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public int createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        Date from = Date.valueOf(month.atDay(1));
+        Date to = Date.valueOf(month.plusMonths(1).atDay(1));
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE doctor_schedule INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE date >= ? AND date < ? RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE doctor_schedule ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return moved;
+    }
+
+    /**
+     * Moves a month into the archive: the partition is detached, its rows are appended to doctor_schedule_archive
+     * ordered by doctor and date, and the partition is dropped.
+     *
+     * @param month The month to archive.
+     * @return Set<Long> The doctors that had slots in that month.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Set<Long> archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE doctor_schedule DETACH PARTITION " + partition);
+        Set<Long> doctorIds = new HashSet<>(jdbcTemplate.queryForList("INSERT INTO doctor_schedule_archive (" + ARCHIVE_COLUMNS
+                + ") SELECT " + ARCHIVE_COLUMNS + " FROM " + partition + " ORDER BY doctor_id, date, start_time RETURNING doctor_id", Long.class));
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        doctorIds.remove(null);
+        return doctorIds;
+    }
+
+    /**
+     * Moves the rows of the default partition dated before a day into the archive.
+     *
+     * @param before The first day that stays in the live table.
+     * @return Set<Long> The doctors whose slots were moved.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Set<Long> archiveDefaultBefore(LocalDate before) {
+        List<Long> moved = jdbcTemplate.queryForList("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE date < ? RETURNING " + ARCHIVE_COLUMNS + ") INSERT INTO doctor_schedule_archive (" + ARCHIVE_COLUMNS
+                + ") SELECT " + ARCHIVE_COLUMNS + " FROM moved ORDER BY doctor_id, date, start_time RETURNING doctor_id",
+                Long.class, Date.valueOf(before));
+        Set<Long> doctorIds = new HashSet<>(moved);
+        doctorIds.remove(null);
+        return doctorIds;
+    }
+
+    /**
+     * Returns the name of a month's partition.
+     *
+     * @param month The month.
+     * @return String The table name, e.g. doctor_schedule_p202401.
+     */
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,49 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
+
+/**
+ * The ScheduleTemplateRepository interface extends JpaRepository to perform CRUD operations on ScheduleTemplate entity.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Long> {
+
+	/**
+	 * Finds all recurring templates of a doctor.
+	 *
+	 * @param doctorId The ID of the doctor whose templates are retrieved.
+	 * @return List<ScheduleTemplate> The doctor's templates.
+	 */
+	@Query("SELECT DISTINCT t FROM ScheduleTemplate t LEFT JOIN FETCH t.excludedDates WHERE t.doctorId = :doctorId")
+	List<ScheduleTemplate> findByDoctorId(@Param("doctorId") Long doctorId);
+
+	/**
+	 * Finds all recurring templates of several doctors with one query.
+	 *
+	 * @param doctorIds The IDs of the doctors whose templates are retrieved.
+	 * @return List<ScheduleTemplate> The doctors' templates.
+	 */
+	@Query("SELECT DISTINCT t FROM ScheduleTemplate t LEFT JOIN FETCH t.excludedDates WHERE t.doctorId IN :doctorIds")
+	List<ScheduleTemplate> findByDoctorIdIn(@Param("doctorIds") Collection<Long> doctorIds);
+
+	/**
+	 * Finds the templates of all doctors that apply on at least one date of a window.
+	 *
+	 * @param from The first date of the window.
+	 * @param to   The last date of the window.
+	 * @return List<ScheduleTemplate> The templates valid within the window.
+	 */
+	@Query("SELECT DISTINCT t FROM ScheduleTemplate t LEFT JOIN FETCH t.excludedDates"
+			+ " WHERE t.validFrom <= :to AND (t.validUntil IS NULL OR t.validUntil >= :from)")
+	List<ScheduleTemplate> findValidBetween(@Param("from") Date from, @Param("to") Date to);
+}
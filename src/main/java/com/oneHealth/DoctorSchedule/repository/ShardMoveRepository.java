@@ -0,0 +1,213 @@
+package com.oneHealth.DoctorSchedule.repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * JDBC access for moving doctors between shards: the doctor_shard_move markers, and copying and deleting all rows
+ * of one doctor. Every method works on the shard the current transaction runs on (see ShardRouter).
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Repository
+public class ShardMoveRepository {
+
+    // Same timer as DoctorScheduleJdbcRepository, told apart by the class tag
+    private static final String TIMER = "doctorschedule.jdbc.repository";
+
+    // The tables holding a doctor's data, parents first; exceptions belong to the doctor through their template
+    private static final List<String> DOCTOR_TABLES = List.of("doctor_schedule", "doctor_schedule_archive", "schedule_template");
+
+    private static final String TEMPLATE_EXCEPTIONS_SQL = "SELECT e.* FROM schedule_template_exception e"
+            + " JOIN schedule_template t ON t.template_id = e.template_id WHERE t.doctor_id = ?";
+
+    private static final String DELETE_TEMPLATE_EXCEPTIONS_SQL = "DELETE FROM schedule_template_exception WHERE template_id IN"
+            + " (SELECT template_id FROM schedule_template WHERE doctor_id = ?)";
+
+    // Doctors whose data on this shard is the copy in use, i.e. who have not moved away
+    private static final String STORED_DOCTORS_SQL = "SELECT doctor_id FROM doctor_schedule WHERE doctor_id IS NOT NULL"
+            + " UNION SELECT doctor_id FROM doctor_schedule_archive WHERE doctor_id IS NOT NULL"
+            + " UNION SELECT doctor_id FROM schedule_template WHERE doctor_id IS NOT NULL"
+            + " EXCEPT SELECT doctor_id FROM doctor_shard_move";
+
+    private static final String RECORD_MOVE_SQL = "INSERT INTO doctor_shard_move (doctor_id, shard, moved_at) VALUES (?, ?, now())"
+            + " ON CONFLICT (doctor_id) DO UPDATE SET shard = EXCLUDED.shard, moved_at = EXCLUDED.moved_at, purged_at = NULL";
+
+    /**
+     * All rows of one doctor on one shard, column by column as JDBC returns them.
+     *
+     * @param tables     The rows of doctor_schedule, doctor_schedule_archive and schedule_template, per table.
+     * @param exceptions The rows of schedule_template_exception.
+     */
+    public record DoctorRows(Map<String, List<Map<String, Object>>> tables, List<Map<String, Object>> exceptions) {
+
+        public int count(String table) {
+            return tables.getOrDefault(table, List.of()).size();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds which of the given doctors moved away from this shard.
+     *
+     * @param doctorIds The IDs of the doctors.
+     * @return Map<Long, String> The shard every moved doctor moved to.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Map<Long, String> findMoves(Collection<Long> doctorIds) {
+        Map<Long, String> moves = new HashMap<>();
+        if (doctorIds.isEmpty()) {
+            return moves;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT doctor_id, shard FROM doctor_shard_move WHERE doctor_id = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("bigint", doctorIds.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> moves.put(rs.getLong("doctor_id"), rs.getString("shard")));
+        return moves;
+    }
+
+    /**
+     * Finds every doctor that moved away from this shard.
+     *
+     * @return Map<Long, String> The shard every moved doctor moved to.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Map<Long, String> findAllMoves() {
+        Map<Long, String> moves = new HashMap<>();
+        jdbcTemplate.query("SELECT doctor_id, shard FROM doctor_shard_move",
+                (RowCallbackHandler) rs -> moves.put(rs.getLong("doctor_id"), rs.getString("shard")));
+        return moves;
+    }
+
+    // Marks a doctor as moved from this shard to another one
+    public void recordMove(long doctorId, String shard) {
+        jdbcTemplate.update(RECORD_MOVE_SQL, doctorId, shard);
+    }
+
+    // Drops the marker of a doctor moving (back) onto this shard
+    public void deleteMove(long doctorId) {
+        jdbcTemplate.update("DELETE FROM doctor_shard_move WHERE doctor_id = ?", doctorId);
+    }
+
+    /**
+     * Looks a slot up to find out which doctor, and with it which shard, it belongs to.
+     *
+     * @param slotId The ID of the slot.
+     * @return List<Long> The slot's doctor, null for a slot without a doctor, or nothing if the slot is not here.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<Long> findDoctorOfSlot(long slotId) {
+        return jdbcTemplate.queryForList("SELECT doctor_id FROM doctor_schedule WHERE slot_id = ?", Long.class, slotId);
+    }
+
+    /**
+     * Looks a template up to find out which doctor, and with it which shard, it belongs to.
+     *
+     * @param templateId The ID of the template.
+     * @return List<Long> The template's doctor, null for a template without a doctor, or nothing if it is not here.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<Long> findDoctorOfTemplate(long templateId) {
+        return jdbcTemplate.queryForList("SELECT doctor_id FROM schedule_template WHERE template_id = ?", Long.class, templateId);
+    }
+
+    /**
+     * Finds the doctors whose data on this shard is the copy in use.
+     *
+     * @return List<Long> The IDs of the doctors.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<Long> findStoredDoctors() {
+        return jdbcTemplate.queryForList(STORED_DOCTORS_SQL, Long.class);
+    }
+
+    /**
+     * Reads all rows of one doctor.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return DoctorRows The doctor's rows.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public DoctorRows readDoctor(long doctorId) {
+        Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+        for (String table : DOCTOR_TABLES) {
+            tables.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE doctor_id = ?", doctorId));
+        }
+        return new DoctorRows(tables, jdbcTemplate.queryForList(TEMPLATE_EXCEPTIONS_SQL, doctorId));
+    }
+
+    /**
+     * Inserts rows read from another shard with readDoctor, keeping their IDs and versions.
+     *
+     * @param rows The doctor's rows.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void insertDoctor(DoctorRows rows) {
+        for (String table : DOCTOR_TABLES) {
+            insert(table, rows.tables().getOrDefault(table, List.of()));
+        }
+        insert("schedule_template_exception", rows.exceptions());
+    }
+
+    /**
+     * Deletes all rows of one doctor, children first.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return int The number of deleted slots, live and archived.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public int deleteDoctor(long doctorId) {
+        jdbcTemplate.update(DELETE_TEMPLATE_EXCEPTIONS_SQL, doctorId);
+        jdbcTemplate.update("DELETE FROM schedule_template WHERE doctor_id = ?", doctorId);
+        int archived = jdbcTemplate.update("DELETE FROM doctor_schedule_archive WHERE doctor_id = ?", doctorId);
+        return archived + jdbcTemplate.update("DELETE FROM doctor_schedule WHERE doctor_id = ?", doctorId);
+    }
+
+    /**
+     * Finds the doctors that moved away longer ago than the delay and whose rows are still here.
+     *
+     * @param delay How long the rows of a moved doctor are kept for readers with stale routing.
+     * @return List<Long> The IDs of the doctors.
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<Long> findUnpurgedMoves(Duration delay) {
+        return jdbcTemplate.queryForList("SELECT doctor_id FROM doctor_shard_move WHERE purged_at IS NULL"
+                + " AND moved_at < now() - make_interval(secs => ?)", Long.class, delay.toMillis() / 1000.0);
+    }
+
+    // Notes that the rows of a moved doctor have been deleted
+    public void markPurged(long doctorId) {
+        jdbcTemplate.update("UPDATE doctor_shard_move SET purged_at = now() WHERE doctor_id = ?", doctorId);
+    }
+
+    private void insert(String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+            for (int i = 0; i < columns.size(); i++) {
+                ps.setObject(i + 1, row.get(columns.get(i)));
+            }
+        });
+    }
+}
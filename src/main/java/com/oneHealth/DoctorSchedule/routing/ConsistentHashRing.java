@@ -0,0 +1,86 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring that maps doctor IDs to shards.
+ *
+ * Every shard is placed on the ring at virtualNodes points, and a doctor belongs to the shard of the first point
+ * at or after the doctor's hash. Adding or removing a shard therefore only moves the doctors between the changed
+ * shard's points and their predecessors, about 1/n of all doctors, instead of reshuffling nearly all of them as
+ * hash-modulo placement would. The points depend on the shard names only, so every instance builds the same ring.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public final class ConsistentHashRing {
+
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    private final Set<String> shards;
+
+    /**
+     * Creates a ring.
+     *
+     * @param shards       The names of the shards on the ring.
+     * @param virtualNodes The number of points per shard; more points spread the doctors more evenly.
+     * @throws IllegalArgumentException If there are no shards or fewer than one point per shard.
+     */
+    public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one shard and one virtual node per shard");
+        }
+        this.shards = Collections.unmodifiableSet(new LinkedHashSet<>(shards));
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the smaller name wins, so the ring does not depend on the order of the shards
+                points.merge(pointOf(shard + "#" + i), shard, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    /**
+     * Returns the shard a doctor belongs to.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return String The name of the owning shard.
+     */
+    public String ownerOf(long doctorId) {
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(doctorId));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public Set<String> getShards() {
+        return shards;
+    }
+
+    // Position of a virtual node: the first 8 bytes of the MD5 of its label, computed once per point at startup
+    private static long pointOf(String label) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(label.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    // Position of a doctor: the 64-bit finalizer of MurmurHash3, cheap enough for every request and well spread
+    // even for consecutive IDs
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,110 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers the doctors and slots written recently, so their reads can be kept on the primary until the
+ * replicas have caught up with the write (read-your-writes).
+ *
+ * Writes are recorded once they commit. A read-only service method names the doctor or slot it reads before
+ * its first query; if that doctor or slot was written within the pin window, the rest of the transaction is
+ * marked as needing the primary and ReplicaRoutingDataSource routes its connection there. The window must be
+ * longer than the usual replica lag, since slots loaded from a lagging replica may also end up in the schedule
+ * index. Like the index, the tracker sees the writes made through this instance and those the shared cache tier
+ * reports from the other instances.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    // Transaction resource marking the current transaction as needing the primary
+    private static final Object PRIMARY_REQUIRED = new Object();
+
+    // Expired pins are swept once a map grows beyond this many entries
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<Long, Long> doctorPins = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Long> slotPins = new ConcurrentHashMap<>();
+
+    private final long pinNanos;
+
+    public ReadYourWritesTracker(@Value("${doctorschedule.replicas.pin-after-write-ms:5000}") long pinMillis) {
+        this.pinNanos = Math.max(0L, pinMillis) * 1_000_000L;
+    }
+
+    /**
+     * Records a committed write to a doctor's schedule.
+     *
+     * @param doctorId The ID of the doctor whose schedule changed.
+     * @param slotId   The ID of the slot written, or null for writes that touch many slots.
+     */
+    public void written(Long doctorId, Long slotId) {
+        long until = System.nanoTime() + pinNanos;
+        pin(doctorPins, doctorId, until);
+        pin(slotPins, slotId, until);
+    }
+
+    /**
+     * Keeps the current read-only transaction on the primary if the doctor was written within the pin window.
+     *
+     * @param doctorId The ID of the doctor about to be read.
+     */
+    public void readingDoctor(Long doctorId) {
+        requirePrimaryIf(isPinned(doctorPins, doctorId));
+    }
+
+    /**
+     * Keeps the current read-only transaction on the primary if the slot was written within the pin window.
+     *
+     * @param slotId The ID of the slot about to be read.
+     */
+    public void readingSlot(Long slotId) {
+        requirePrimaryIf(isPinned(slotPins, slotId));
+    }
+
+    /**
+     * Tells whether the current transaction was marked as needing the primary.
+     *
+     * @return boolean Whether reads of the current transaction must go to the primary.
+     */
+    public static boolean isPrimaryRequired() {
+        return TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED);
+    }
+
+    private void requirePrimaryIf(boolean pinned) {
+        if (!pinned || !TransactionSynchronizationManager.isSynchronizationActive() || isPrimaryRequired()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_REQUIRED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_REQUIRED);
+            }
+        });
+    }
+
+    private boolean isPinned(ConcurrentHashMap<Long, Long> pins, Long id) {
+        Long until = id == null ? null : pins.get(id);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void pin(ConcurrentHashMap<Long, Long> pins, Long id, long until) {
+        if (id == null || pinNanos == 0L) {
+            return;
+        }
+        pins.put(id, until);
+        if (pins.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            pins.values().removeIf(pinnedUntil -> pinnedUntil - now <= 0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends read-only transactions to the read replicas, round robin, and everything else to the
+ * primary: writes, transactions that also read, work outside a transaction, and read-only transactions that
+ * ReadYourWritesTracker marked as needing the primary.
+ *
+ * The key is looked up when a connection is fetched, so the DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy: transaction managers fetch their connection before the read-only flag of the
+ * transaction is set, and the proxy defers the fetch to the first statement. A transaction that was given a
+ * replica is marked as such, so callers can tell data that may lag behind the primary, see isReadingReplica.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    // Transaction resource marking the current transaction as reading from a replica
+    private static final Object REPLICA_IN_USE = new Object();
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates the routing DataSource.
+     *
+     * @param primary  The DataSource of the primary.
+     * @param replicas The DataSources of the read replicas; with none, every connection comes from the primary.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        dataSources.addAll(replicas);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWritesTracker.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        markReplicaInUse();
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Tells whether the current transaction reads from a replica, whose data may lag behind the primary. Such
+     * data must not be shared with readers that expect it to be as recent as the last write they heard of.
+     *
+     * @return boolean Whether the current transaction was given a replica connection.
+     */
+    public static boolean isReadingReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_IN_USE);
+    }
+
+    private static void markReplicaInUse() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isReadingReplica()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_IN_USE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_IN_USE);
+            }
+        });
+    }
+
+    /**
+     * Closes the replica pools; the primary is closed by its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : dataSources) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
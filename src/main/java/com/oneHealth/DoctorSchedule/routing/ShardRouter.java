@@ -0,0 +1,328 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides which shard holds a doctor's schedule and binds work to that shard.
+ *
+ * With doctorschedule.shards.urls set, the slots, templates, archive and outbox of a doctor live on one of several
+ * databases. A doctor belongs to its owner on the consistent-hash ring of doctorschedule.shards.ring (all shards by
+ * default), unless the doctor was moved: a move leaves a marker on the shard it left that names the new shard, and
+ * routing follows these markers (see ShardRebalanceServiceImpl, which also refreshes them from all shards). Work
+ * without a doctor, such as slots without a doctor, uses the home shard, the first one listed.
+ *
+ * A transaction names its shard before its first statement; ShardRoutingDataSource then fetches its connection
+ * from that shard, and a transaction cannot span shards. Changing the ring works online: list the old shards in
+ * doctorschedule.shards.previous-ring and the new ones in doctorschedule.shards.ring on every instance, so doctors
+ * keep being served from where they are, run the rebalance until it moves no more doctors, then drop previous-ring.
+ *
+ * Without shards the router is inert: there is one shard, DEFAULT_SHARD, and binding does nothing.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ShardRouter {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    // Slot, template and outbox IDs of the n-th shard start at n * ID_RANGE, so sequences of different shards
+    // never hand out the same ID and IDs stay unique when a doctor moves. 2^43 IDs per shard keep every ID of
+    // MAX_SHARDS shards at or below 2^53, the largest integer JavaScript clients read from JSON without rounding.
+    public static final long ID_RANGE = 1L << 43;
+
+    public static final int MAX_SHARDS = 1 << 10;
+
+    // Transaction resource holding the name of the shard the current transaction runs on
+    private static final Object SHARD = new Object();
+
+    private final Map<String, String> urls;
+
+    private final List<String> shards;
+
+    private final ConsistentHashRing ring;
+
+    // Ring doctors are served from while a rebalance to the new ring is in progress, or null
+    private final ConsistentHashRing previousRing;
+
+    // Per shard, the doctors that moved away from it and the shard they moved to. Replaced as a whole.
+    private volatile Map<String, Map<Long, String>> moves = Map.of();
+
+    public ShardRouter(@Value("${doctorschedule.shards.urls:}") String urls,
+            @Value("${doctorschedule.shards.ring:}") String ring,
+            @Value("${doctorschedule.shards.previous-ring:}") String previousRing,
+            @Value("${doctorschedule.shards.virtual-nodes:128}") int virtualNodes) {
+        this.urls = parseUrls(urls);
+        this.shards = List.copyOf(this.urls.keySet());
+        if (this.shards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + MAX_SHARDS + " shards fit the ID ranges, "
+                    + this.shards.size() + " are listed in doctorschedule.shards.urls");
+        }
+        if (this.shards.isEmpty()) {
+            this.ring = null;
+            this.previousRing = null;
+            return;
+        }
+        this.ring = new ConsistentHashRing(names(ring, this.shards), virtualNodes);
+        List<String> previous = names(previousRing, List.of());
+        this.previousRing = previous.isEmpty() ? null : new ConsistentHashRing(previous, virtualNodes);
+    }
+
+    /**
+     * Parses doctorschedule.shards.urls: comma separated "name=jdbcUrl" entries, in a fixed order.
+     *
+     * @param urls The property value.
+     * @return Map<String, String> The JDBC URL of every shard, in the order listed.
+     * @throws IllegalArgumentException If an entry has no name or is listed twice.
+     */
+    public static Map<String, String> parseUrls(String urls) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String entry : urls.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalArgumentException("Shard entries are name=jdbcUrl, found: " + entry.trim());
+            }
+            if (parsed.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim()) != null) {
+                throw new IllegalArgumentException("Shard " + entry.substring(0, separator).trim() + " is listed twice");
+            }
+        }
+        return parsed;
+    }
+
+    public boolean isSharded() {
+        return !shards.isEmpty();
+    }
+
+    // The shards in configuration order, or DEFAULT_SHARD alone without sharding
+    public List<String> getShards() {
+        return isSharded() ? shards : List.of(DEFAULT_SHARD);
+    }
+
+    public Map<String, String> getUrls() {
+        return urls;
+    }
+
+    public String getHomeShard() {
+        return getShards().get(0);
+    }
+
+    /**
+     * Returns the start of the ID range of a shard, see ID_RANGE.
+     *
+     * @param shard The name of the shard.
+     * @return long The first ID of the shard's range.
+     * @throws IllegalArgumentException If there is no such shard.
+     */
+    public long idRangeStart(String shard) {
+        int position = getShards().indexOf(shard);
+        if (position < 0) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return position * ID_RANGE;
+    }
+
+    /**
+     * Returns the shard whose ID range holds an ID, i.e. the shard a slot, template or outbox event was created on.
+     * The row is still there unless its doctor moved away since and the copy left behind was purged.
+     *
+     * @param id The ID.
+     * @return String The name of the shard, or null for an ID outside the ranges of the shards.
+     */
+    public String originOf(long id) {
+        long position = id / ID_RANGE;
+        return id < 0 || position >= getShards().size() ? null : getShards().get((int) position);
+    }
+
+    /**
+     * Returns the shard that currently holds a doctor's schedule.
+     *
+     * @param doctorId The ID of the doctor, or null for data without a doctor.
+     * @return String The name of the shard.
+     */
+    public String shardOf(Long doctorId) {
+        return shardOf(doctorId, moves);
+    }
+
+    /**
+     * Returns the shard a doctor belongs to on the current ring, where a rebalance moves it.
+     *
+     * @param doctorId The ID of the doctor.
+     * @return String The name of the shard.
+     */
+    public String ringOwnerOf(Long doctorId) {
+        return !isSharded() || doctorId == null ? getHomeShard() : ring.ownerOf(doctorId);
+    }
+
+    // Whether the copy of a doctor's data on a shard is the one in use; copies left behind by a move are not
+    public boolean owns(String shard, Long doctorId) {
+        return shardOf(doctorId).equals(shard);
+    }
+
+    /**
+     * Runs the current transaction on the shard of a doctor. Must be called before the transaction's first statement.
+     *
+     * @param doctorId The ID of the doctor, or null for data without a doctor.
+     * @throws IllegalStateException If the transaction already runs on another shard.
+     */
+    public void useShardOf(Long doctorId) {
+        if (isSharded()) {
+            useShard(shardOf(doctorId));
+        }
+    }
+
+    /**
+     * Runs the current transaction on a shard. Must be called before the transaction's first statement.
+     *
+     * @param shard The name of the shard.
+     * @throws IllegalStateException If the transaction already runs on another shard, or there is no transaction.
+     */
+    public void useShard(String shard) {
+        if (!isSharded()) {
+            return;
+        }
+        String current = currentShard();
+        if (current != null) {
+            if (!current.equals(shard)) {
+                throw new IllegalStateException("The transaction runs on shard " + current + " and cannot also use " + shard);
+            }
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard " + shard + " can only be used within a transaction");
+        }
+        TransactionSynchronizationManager.bindResource(SHARD, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SHARD);
+            }
+        });
+    }
+
+    /**
+     * Runs work that fetches its own connections, outside a transaction, on a shard.
+     *
+     * @param shard The name of the shard.
+     * @param work  The work; every connection it fetches from the routing DataSource comes from the shard.
+     * @return T The result of the work.
+     * @throws Exception What the work throws.
+     */
+    public static <T> T callOnShard(String shard, Callable<T> work) throws Exception {
+        String current = currentShard();
+        if (current != null) {
+            if (!current.equals(shard)) {
+                throw new IllegalStateException("The thread runs on shard " + current + " and cannot also use " + shard);
+            }
+            return work.call();
+        }
+        TransactionSynchronizationManager.bindResource(SHARD, shard);
+        try {
+            return work.call();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(SHARD);
+        }
+    }
+
+    // The shard of the current transaction or callOnShard, or null for the home shard
+    public static String currentShard() {
+        return (String) TransactionSynchronizationManager.getResource(SHARD);
+    }
+
+    /**
+     * Records a move seen on this instance, ahead of the next refresh from the shards.
+     *
+     * @param from     The shard the doctor left.
+     * @param doctorId The ID of the doctor.
+     * @param to       The shard the doctor moved to.
+     */
+    public synchronized void recordMove(String from, Long doctorId, String to) {
+        Map<String, Map<Long, String>> updated = copyOf(moves);
+        updated.computeIfAbsent(from, shard -> new HashMap<>()).put(doctorId, to);
+        // A doctor moving back onto a shard no longer counts as moved away from it
+        Map<Long, String> target = updated.get(to);
+        if (target != null) {
+            target.remove(doctorId);
+        }
+        moves = freeze(updated);
+    }
+
+    /**
+     * Replaces the moves with those read from the shards.
+     *
+     * @param current Per shard, the doctors that moved away from it and their new shard.
+     * @return Set<Long> The doctors whose shard changed, whose cached copies may have been read from the old one.
+     */
+    public synchronized Set<Long> replaceMoves(Map<String, Map<Long, String>> current) {
+        Map<String, Map<Long, String>> previous = moves;
+        Map<String, Map<Long, String>> updated = freeze(copyOf(current));
+        Set<Long> doctorIds = new HashSet<>();
+        previous.values().forEach(moved -> doctorIds.addAll(moved.keySet()));
+        updated.values().forEach(moved -> doctorIds.addAll(moved.keySet()));
+        Set<Long> changed = new HashSet<>();
+        for (Long doctorId : doctorIds) {
+            if (!shardOf(doctorId, previous).equals(shardOf(doctorId, updated))) {
+                changed.add(doctorId);
+            }
+        }
+        moves = updated;
+        return changed;
+    }
+
+    // Starts at the ring owner and follows the moves, at most once per shard so a stale cycle cannot loop
+    private String shardOf(Long doctorId, Map<String, Map<Long, String>> moved) {
+        if (!isSharded() || doctorId == null) {
+            return getHomeShard();
+        }
+        String shard = (previousRing != null ? previousRing : ring).ownerOf(doctorId);
+        for (int hops = 0; hops < shards.size(); hops++) {
+            String next = moved.getOrDefault(shard, Map.of()).get(doctorId);
+            if (next == null) {
+                break;
+            }
+            shard = next;
+        }
+        return shard;
+    }
+
+    private List<String> names(String value, List<String> fallback) {
+        List<String> names = new ArrayList<>();
+        for (String name : value.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            if (!urls.containsKey(name.trim())) {
+                throw new IllegalArgumentException("Shard " + name.trim() + " is on a ring but not in doctorschedule.shards.urls");
+            }
+            names.add(name.trim());
+        }
+        return names.isEmpty() ? fallback : names;
+    }
+
+    private static Map<String, Map<Long, String>> copyOf(Map<String, Map<Long, String>> moves) {
+        Map<String, Map<Long, String>> copy = new HashMap<>();
+        moves.forEach((shard, moved) -> copy.put(shard, new HashMap<>(moved)));
+        return copy;
+    }
+
+    private static Map<String, Map<Long, String>> freeze(Map<String, Map<Long, String>> moves) {
+        Map<String, Map<Long, String>> frozen = new HashMap<>();
+        moves.forEach((shard, moved) -> frozen.put(shard, Collections.unmodifiableMap(moved)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
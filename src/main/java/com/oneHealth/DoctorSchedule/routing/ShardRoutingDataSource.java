@@ -0,0 +1,57 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource that fetches every connection from the shard the current transaction runs on (see ShardRouter),
+ * or from the home shard when none was named.
+ *
+ * The shard is looked up when a connection is fetched, so the DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy: transaction managers fetch their connection when the transaction begins, before
+ * the service names the doctor it works on, and the proxy defers the fetch to the first statement.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, DataSource> shards;
+
+    /**
+     * Creates the routing DataSource.
+     *
+     * @param shards    The DataSource of every shard, by name.
+     * @param homeShard The name of the shard used when no shard was named.
+     */
+    public ShardRoutingDataSource(Map<String, DataSource> shards, String homeShard) {
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(homeShard));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.currentShard();
+    }
+
+    /**
+     * Closes the pools of all shards.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityCheckDTO;
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityHeatmapDTO;
+import com.oneHealth.DoctorSchedule.DTO.FreeBusyDTO;
+
+/**
+ * The AvailabilityBitmapService interface defines the contract for answering free/busy questions about one doctor
+ * from precomputed 5-minute availability bitmaps instead of lists of schedules.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface AvailabilityBitmapService {
+
+    // Method to tell whether a doctor is free for the given minutes from a time on a date. Ranges that are empty
+    // or run past midnight raise IllegalArgumentException.
+    AvailabilityCheckDTO isFree(long doctorId, LocalDate date, LocalTime time, int minutes);
+
+    // Method to retrieve a doctor's free/busy bitmap of one date.
+    FreeBusyDTO getFreeBusy(long doctorId, LocalDate date);
+
+    // Method to retrieve the available minutes of every day of a month.
+    AvailabilityHeatmapDTO getHeatmap(long doctorId, YearMonth month);
+}
@@ -0,0 +1,22 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityWindowDTO;
+
+/**
+ * The AvailabilitySearchService interface defines the contract for searching bookable windows across many doctors
+ * at once, so that clients do not have to fetch and merge every doctor's schedule themselves.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface AvailabilitySearchService {
+
+    // Method to find the bookable windows of the given doctors (or all doctors when null) between two dates,
+    // keeping only windows of at least minDurationMinutes. Only slots of the bookable types form windows; a type
+    // narrows the search within them. Invalid arguments raise IllegalArgumentException.
+    List<AvailabilityWindowDTO> findAvailableWindows(LocalDate from, LocalDate to, List<Long> doctorIds,
+            String typeAvailability, String addressAvailability, int minDurationMinutes);
+}
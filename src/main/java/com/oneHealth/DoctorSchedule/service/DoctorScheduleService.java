@@ -1,14 +1,21 @@
 package com.oneHealth.DoctorSchedule.service;
 
-import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
-import javax.management.InstanceAlreadyExistsException;
-
+import com.oneHealth.DoctorSchedule.DTO.BulkImportResultDTO;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleIndexStatsDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePageDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
 import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
 import com.oneHealth.DoctorSchedule.exception.DatabaseException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
 import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
 
+import reactor.core.publisher.Flux;
+
 /**
  * The DoctorScheduleService interface defines the contract for performing operations related
  * to DoctorSchedule. It declares methods for saving, retrieving, updating, and deleting doctor schedules.
@@ -21,7 +28,13 @@ import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
 public interface DoctorScheduleService {
 
     // Method to save a DoctorSchedule object in the database and handle DatabaseException if any occurs.
-    String saveDoctorSchedule(DoctorSchedule schedule) throws DatabaseException, InstanceAlreadyExistsException;
+    String saveDoctorSchedule(DoctorSchedule schedule) throws DatabaseException, ScheduleConflictException;
+
+    // Method to save many DoctorSchedule objects at once, reporting the outcome of every row.
+    BulkImportResultDTO importSchedules(List<DoctorSchedule> schedules, int firstRow);
+
+    // Method to save many DoctorSchedule objects given as CSV lines, reporting the outcome of every line.
+    BulkImportResultDTO importSchedulesCsv(List<String> lines, int firstLine);
 
     // Method to retrieve DoctorSchedule by its ID and handle ScheduleNotFoundException if the schedule for the given doctorId is not found.
     DoctorSchedule getDoctorScheduleById(Long slotId) throws ScheduleNotFoundException;
@@ -29,20 +42,42 @@ public interface DoctorScheduleService {
     // Method to retrieve a list of all DoctorSchedule objects from the database and handle DatabaseException if any occurs.
     List<DoctorSchedule> getAllDoctorsList() throws DatabaseException;
 
+    // Method to retrieve one keyset-paginated page of DoctorSchedule objects, optionally filtered by doctor and date.
+    SchedulePageDTO getSchedulePage(Long afterSlotId, int limit, Long doctorId, LocalDate date);
+
+    // Method to stream DoctorSchedule objects from a database cursor, optionally filtered by doctor and date.
+    Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date);
+
     // Method to update DoctorSchedule by its ID and handle ScheduleNotFoundException if the schedule for the given doctorId is not found.
-    DoctorSchedule updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) throws ScheduleNotFoundException;
+    DoctorSchedule updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) throws ScheduleNotFoundException, ScheduleConflictException;
 
-    // Method to delete DoctorSchedule by its ID and handle ScheduleNotFoundException if the schedule for the given doctorId is not found.
-    DoctorSchedule deleteScheduleByID(long slotId) throws ScheduleNotFoundException;
+    // Method to update only the given fields of a DoctorSchedule if it still has the given version, failing with ScheduleConflictException otherwise.
+    DoctorSchedule patchScheduleByID(long slotId, SchedulePatchDTO patch) throws ScheduleNotFoundException, ScheduleConflictException;
+
+    // Method to delete DoctorSchedule by its ID, optionally only at the given version, and handle ScheduleNotFoundException if the schedule for the given doctorId is not found.
+    DoctorSchedule deleteScheduleByID(long slotId, Long expectedVersion) throws ScheduleNotFoundException, ScheduleConflictException;
     
     //Method to find a Doctor Schedule by Doctor ID
     List<DoctorSchedule> findByDoctorId(long doctorId);
+
+    // Method to retrieve many DoctorSchedules by their IDs at once, grouped by doctor. Unknown IDs are left out;
+    // too many IDs raise IllegalArgumentException.
+    Map<Long, List<DoctorSchedule>> getDoctorSchedulesByIds(Collection<Long> slotIds);
+
+    // Method to find the schedules of many doctors at once, keyed by doctor. Too many IDs raise IllegalArgumentException.
+    Map<Long, List<DoctorSchedule>> findByDoctorIds(Collection<Long> doctorIds);
     
     //Method to find today's schedule of a Doctor based on Doctor ID
     List<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId) throws Exception;
+
+    //Method to find today's and upcoming schedule of a Doctor within an optional date window
+    List<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId, LocalDate from, LocalDate to) throws Exception;
     
     //Method to find upcoming schedule of a doctor by  Doctor ID 
     List<DoctorSchedule> getUpcomingSchedules(Long doctorId) throws Exception;
+
+    //Method to read the hit, miss and eviction counters of the in-process schedule index
+    ScheduleIndexStatsDTO getIndexStats();
     
 
 }
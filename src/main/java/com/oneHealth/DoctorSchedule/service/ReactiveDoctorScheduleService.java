@@ -0,0 +1,53 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.time.LocalDate;
+
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The ReactiveDoctorScheduleService interface is the non-blocking counterpart of DoctorScheduleService used by
+ * the controller. Errors are signalled through the returned Mono/Flux with the same exceptions the blocking
+ * service throws (ScheduleNotFoundException, ScheduleConflictException, DatabaseException).
+ *
+ * Two implementations exist and doctorschedule.data-path selects one: "jpa" runs the JPA service on a worker
+ * scheduler, "r2dbc" talks to the database through R2DBC end to end.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ReactiveDoctorScheduleService {
+
+    // Method to save a DoctorSchedule object, failing with ScheduleConflictException if the doctor, date and shift are taken.
+    Mono<String> saveDoctorSchedule(DoctorSchedule schedule);
+
+    // Method to retrieve DoctorSchedule by its ID, failing with ScheduleNotFoundException if it does not exist.
+    Mono<DoctorSchedule> getDoctorScheduleById(Long slotId);
+
+    // Method to retrieve all DoctorSchedule objects.
+    Flux<DoctorSchedule> getAllDoctorsList();
+
+    // Method to update DoctorSchedule by its ID, failing with ScheduleNotFoundException or ScheduleConflictException.
+    Mono<DoctorSchedule> updateScheduleByID(long slotId, DoctorSchedule doctorSchedule);
+
+    // Method to update only the given fields of a DoctorSchedule at the given version, failing with ScheduleNotFoundException or ScheduleConflictException.
+    Mono<DoctorSchedule> patchScheduleByID(long slotId, SchedulePatchDTO patch);
+
+    // Method to delete DoctorSchedule by its ID, optionally only at the given version, failing with ScheduleNotFoundException or ScheduleConflictException.
+    Mono<DoctorSchedule> deleteScheduleByID(long slotId, Long expectedVersion);
+
+    //Method to find a Doctor Schedule by Doctor ID, ordered by date and start time
+    Flux<DoctorSchedule> findByDoctorId(long doctorId);
+
+    //Method to find today's and upcoming schedule of a Doctor within an optional date window
+    Flux<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId, LocalDate from, LocalDate to);
+
+    //Method to find upcoming schedule of a doctor by Doctor ID
+    Flux<DoctorSchedule> getUpcomingSchedules(Long doctorId);
+
+    // Method to stream DoctorSchedule objects ordered by slotId, honouring the subscriber's demand.
+    Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date);
+}
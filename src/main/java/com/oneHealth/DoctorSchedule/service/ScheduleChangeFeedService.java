@@ -0,0 +1,24 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.util.Collection;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * The ScheduleChangeFeedService interface defines the contract for pushing committed schedule changes to clients,
+ * so that they can subscribe to the doctors they show instead of polling them.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ScheduleChangeFeedService {
+
+    // Method to subscribe to the changes of the given doctors. A subscriber that falls behind loses its oldest
+    // pending events rather than buffering without bound. Invalid arguments raise IllegalArgumentException.
+    Flux<ScheduleChangeEventDTO> subscribe(Collection<Long> doctorIds);
+
+    // Method to hand a committed change to the current subscribers of its doctor.
+    void publish(ScheduleChangeEventDTO event);
+}
@@ -0,0 +1,20 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * The ScheduleHistoryService interface defines the contract for reading a doctor's slots over a date range,
+ * including months that have been moved to the archive.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ScheduleHistoryService {
+
+    // Method to retrieve a doctor's archived and live slots between two dates. Invalid ranges raise
+    // IllegalArgumentException.
+    List<DoctorSchedule> getHistory(long doctorId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,53 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
+
+/**
+ * The ScheduleTemplateService interface defines the contract for managing recurring schedule templates and for
+ * expanding them into schedule occurrences for a window of dates.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ScheduleTemplateService {
+
+    // Method to save a ScheduleTemplate; an incomplete template raises IllegalArgumentException, one overlapping
+    // another template or a stored slot of another shift raises ScheduleConflictException.
+    ScheduleTemplate saveTemplate(ScheduleTemplate template) throws ScheduleConflictException;
+
+    // Method to retrieve the templates of a doctor.
+    List<ScheduleTemplate> getTemplatesForDoctor(Long doctorId);
+
+    // Method to stop a template from applying on one date, e.g. a holiday.
+    ScheduleTemplate addExcludedDate(Long templateId, LocalDate date) throws ScheduleNotFoundException;
+
+    // Method to delete a template by its ID.
+    ScheduleTemplate deleteTemplate(Long templateId) throws ScheduleNotFoundException;
+
+    // Method to expand the templates of one doctor within a window, ordered by date and start time.
+    List<DoctorSchedule> expand(Long doctorId, LocalDate from, LocalDate to);
+
+    // Method to expand one doctor's templates within a window without a query; null if they are not cached yet.
+    List<DoctorSchedule> expandIfCached(Long doctorId, LocalDate from, LocalDate to);
+
+    // Method to find a template occurrence that a slot of another shift would overlap on its date; null if there is none.
+    DoctorSchedule findOverlappingOccurrence(DoctorSchedule slot);
+
+    // Method to find an occurrence of the given templates of the slot's doctor that the slot would overlap on its date.
+    DoctorSchedule findOverlappingOccurrence(DoctorSchedule slot, List<ScheduleTemplate> templates);
+
+    // Method to expand the templates of every doctor within a window, ordered by doctor, date and start time.
+    List<DoctorSchedule> expandAll(LocalDate from, LocalDate to);
+
+    // Method to add a doctor's template occurrences within a window to the doctor's stored slots, ordered by date and start time.
+    List<DoctorSchedule> withOccurrences(Long doctorId, List<DoctorSchedule> stored, LocalDate from, LocalDate to);
+
+    // Number of days ahead that reads without an end date expand templates for.
+    int getHorizonDays();
+}
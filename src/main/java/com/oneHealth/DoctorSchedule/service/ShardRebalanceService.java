@@ -0,0 +1,22 @@
+package com.oneHealth.DoctorSchedule.service;
+
+import java.util.List;
+
+import com.oneHealth.DoctorSchedule.DTO.ShardMoveDTO;
+
+/**
+ * The ShardRebalanceService interface defines the contract for moving doctors' schedules between shards while
+ * the service keeps serving them.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public interface ShardRebalanceService {
+
+    // Method to move one doctor's schedule to the given shard. Unknown shards and an unsharded deployment raise
+    // IllegalArgumentException; a doctor already on the shard is left alone and reported with no slots copied.
+    ShardMoveDTO moveDoctor(long doctorId, String shard);
+
+    // Method to move every doctor whose shard is not its owner on the current ring, returning the moves made.
+    List<ShardMoveDTO> rebalance();
+}
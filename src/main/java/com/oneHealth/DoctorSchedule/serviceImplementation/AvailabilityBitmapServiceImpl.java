@@ -0,0 +1,149 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityCheckDTO;
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityHeatmapDTO;
+import com.oneHealth.DoctorSchedule.DTO.FreeBusyDTO;
+import com.oneHealth.DoctorSchedule.cache.AvailabilityBitmapStore;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.cache.ScheduleVersionRegistry;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.service.AvailabilityBitmapService;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+/**
+ * The AvailabilityBitmapServiceImpl class answers free/busy questions from the bitmaps of the AvailabilityBitmapStore.
+ *
+ * A doctor's bitmap of a month is built on the first read after a write to the doctor, from the stored slots of the
+ * month (out of the in-process index when the doctor is indexed, else with one range query) and the occurrences of
+ * the doctor's templates that no stored slot replaces. Only slots whose typeAvailability is one of
+ * doctorschedule.availability.free-types count as free time; "busy" or "unavailable" slots, and slots without a
+ * type, leave their cells clear. After that a question costs a version lookup and a few bit tests. Cells are 5
+ * minutes long and only count as free when a schedule covers them completely, so a slot starting at 10:02 makes the
+ * doctor free from 10:05. Months moved to the archive have no availability.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class AvailabilityBitmapServiceImpl implements AvailabilityBitmapService {
+
+    private static final int CELL_SECONDS = AvailabilityBitmapStore.CELL_MINUTES * 60;
+
+    @Autowired
+    private AvailabilityBitmapStore bitmaps;
+
+    @Autowired
+    private ScheduleVersionRegistry versions;
+
+    @Autowired
+    private DoctorScheduleIndex index;
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ScheduleTemplateService templates;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    // The types whose slots count as free time, the same as in the availability search
+    @Autowired
+    private FreeSlotTypes freeTypes;
+
+    /**
+     * Tells whether a doctor is free for a stretch of time, i.e. whether the doctor's schedules cover every cell
+     * the stretch touches.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param date     The date.
+     * @param time     When the stretch starts.
+     * @param minutes  The length of the stretch in minutes.
+     * @return AvailabilityCheckDTO The answer.
+     * @throws IllegalArgumentException If the stretch is empty or runs past midnight.
+     */
+    @Override
+    public AvailabilityCheckDTO isFree(long doctorId, LocalDate date, LocalTime time, int minutes) {
+        if (minutes < 1 || time.toSecondOfDay() + minutes * 60L > 24 * 60 * 60L) {
+            throw new IllegalArgumentException("The stretch must last at least a minute and end by midnight");
+        }
+        int from = time.toSecondOfDay() / CELL_SECONDS;
+        int to = (time.toSecondOfDay() + minutes * 60 + CELL_SECONDS - 1) / CELL_SECONDS;
+        boolean free = AvailabilityBitmapStore.allCovered(month(doctorId, YearMonth.from(date)), date.getDayOfMonth(), from, to);
+        return new AvailabilityCheckDTO(doctorId, Date.valueOf(date), Time.valueOf(time), minutes, free);
+    }
+
+    @Override
+    public FreeBusyDTO getFreeBusy(long doctorId, LocalDate date) {
+        long[] words = month(doctorId, YearMonth.from(date));
+        return new FreeBusyDTO(doctorId, Date.valueOf(date), AvailabilityBitmapStore.CELL_MINUTES,
+                AvailabilityBitmapStore.dayBytes(words, date.getDayOfMonth()),
+                AvailabilityBitmapStore.countCovered(words, date.getDayOfMonth()) * AvailabilityBitmapStore.CELL_MINUTES);
+    }
+
+    @Override
+    public AvailabilityHeatmapDTO getHeatmap(long doctorId, YearMonth month) {
+        long[] words = month(doctorId, month);
+        int[] freeMinutes = new int[month.lengthOfMonth()];
+        for (int day = 1; day <= freeMinutes.length; day++) {
+            freeMinutes[day - 1] = AvailabilityBitmapStore.countCovered(words, day) * AvailabilityBitmapStore.CELL_MINUTES;
+        }
+        return new AvailabilityHeatmapDTO(doctorId, month.toString(), freeMinutes);
+    }
+
+    // Returns the doctor's current bitmap of the month, building it if the doctor was written since the last build
+    private long[] month(long doctorId, YearMonth month) {
+        // Read before building, so a write racing with the build leaves a bitmap that is already out of date
+        long version = versions.current(doctorId).version();
+        long[] words = bitmaps.get(doctorId, month, version);
+        if (words == null) {
+            words = build(doctorId, month);
+            bitmaps.put(doctorId, month, version, words);
+        }
+        return words;
+    }
+
+    private long[] build(long doctorId, YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+        List<DoctorSchedule> stored = new ArrayList<>();
+        List<DoctorSchedule> indexed = index.getIfPresent(doctorId);
+        if (indexed != null) {
+            // Indexed slots are already sorted by date and start time
+            for (DoctorSchedule slot : indexed) {
+                LocalDate date = slot.getDate() == null ? null : slot.getDate().toLocalDate();
+                if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                    stored.add(slot);
+                }
+            }
+        } else {
+            shardCoordinator.readOnShardOf(doctorId, () -> {
+                jdbcRepo.forEachScheduleInRange(List.of(doctorId), from, to, null, null, stored::add);
+                return null;
+            });
+        }
+
+        long[] words = AvailabilityBitmapStore.newMonth(month);
+        for (DoctorSchedule slot : templates.withOccurrences(doctorId, stored, from, to)) {
+            if (!freeTypes.isFree(slot.getTypeAvailability()) || slot.getDate() == null || slot.getStartTime() == null
+                    || slot.getEndTime() == null || !slot.getStartTime().before(slot.getEndTime())) {
+                continue;
+            }
+            AvailabilityBitmapStore.cover(words, slot.getDate().toLocalDate().getDayOfMonth(),
+                    slot.getStartTime().toLocalTime(), slot.getEndTime().toLocalTime());
+        }
+        return words;
+    }
+}
@@ -0,0 +1,296 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.DTO.AvailabilityWindowDTO;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.repository.DoctorDay;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+import com.oneHealth.DoctorSchedule.service.AvailabilitySearchService;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+/**
+ * The AvailabilitySearchServiceImpl class computes bookable windows from the startTime/endTime of doctor schedules.
+ *
+ * Only slots whose typeAvailability is one of doctorschedule.availability.free-types are bookable, as in the
+ * availability bitmaps; a type filter narrows the search within those types. The schedules of every doctor and
+ * date are merged with a sorted sweep: slots with the same type and address of availability that overlap or touch
+ * are joined into one window. Doctors already held by the in-process index are answered from memory; all other
+ * doctors are read with a single query ordered by doctor, date and start time and merged as the rows arrive.
+ * Occurrences of recurring templates take part in the merge unless a stored slot of the same date and shift
+ * replaces them, whatever that slot's type or address, so the filters are applied after the replacement. When
+ * no template applies the query filters the rows itself.
+ *
+ * With shards the query runs on every shard concerned in parallel. A doctor's rows all come from one shard, so the
+ * rows of each shard are merged one shard after another.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class AvailabilitySearchServiceImpl implements AvailabilitySearchService {
+
+    private final Logger logger = LoggerFactory.getLogger(AvailabilitySearchServiceImpl.class);
+
+    // Orders the slots of one doctor and date so that mergeable slots are adjacent and ascending by start time
+    private static final Comparator<DoctorSchedule> MERGE_ORDER = Comparator
+            .comparing(DoctorSchedule::getTypeAvailability, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getAddressAvailability, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getStartTime);
+
+    private static final Comparator<AvailabilityWindowDTO> RESULT_ORDER = Comparator
+            .comparing(AvailabilityWindowDTO::getDoctorId)
+            .thenComparing(AvailabilityWindowDTO::getDate)
+            .thenComparing(AvailabilityWindowDTO::getStartTime);
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private DoctorScheduleIndex index;
+
+    @Autowired
+    private ScheduleTemplateService templates;
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Autowired
+    private ShardRouter shards;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    // The types whose slots are bookable, the same as in the availability bitmaps
+    @Autowired
+    private FreeSlotTypes freeTypes;
+
+    @Value("${doctorschedule.availability.max-days:31}")
+    private int maxDays;
+
+    @Value("${doctorschedule.availability.max-doctors:1000}")
+    private int maxDoctors;
+
+    /**
+     * Finds the bookable windows of the given doctors between two dates.
+     *
+     * @param from                The first date of the search, inclusive.
+     * @param to                  The last date of the search, inclusive.
+     * @param doctorIds           The doctors to search, or null/empty for all doctors.
+     * @param typeAvailability    The type of availability to match, or null for any bookable type. A type that is
+     *                            not bookable matches nothing.
+     * @param addressAvailability The address to match, or null for any.
+     * @param minDurationMinutes  The minimum length of a returned window in minutes.
+     * @return List<AvailabilityWindowDTO> The windows ordered by doctor, date and start time.
+     * @throws IllegalArgumentException If the date range or the number of doctors is out of bounds.
+     */
+    @Override
+    public List<AvailabilityWindowDTO> findAvailableWindows(LocalDate from, LocalDate to, List<Long> doctorIds,
+            String typeAvailability, String addressAvailability, int minDurationMinutes) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        if (from.plusDays(maxDays).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Date range exceeds " + maxDays + " days");
+        }
+        if (doctorIds != null && doctorIds.size() > maxDoctors) {
+            throw new IllegalArgumentException("At most " + maxDoctors + " doctor IDs can be searched at once");
+        }
+
+        Set<String> types = freeTypes.matching(typeAvailability);
+        if (types.isEmpty()) {
+            logger.info("In Service - Availability search for type {}, which is not bookable", typeAvailability);
+            return new ArrayList<>();
+        }
+        Predicate<DoctorSchedule> bookable = slot -> types.contains(slot.getTypeAvailability())
+                && (addressAvailability == null || addressAvailability.equals(slot.getAddressAvailability()));
+
+        // Template occurrences of the searched doctors, per doctor and date
+        List<DoctorSchedule> expanded = new ArrayList<>();
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            expanded.addAll(templates.expandAll(from, to));
+        } else {
+            for (Long doctorId : new LinkedHashSet<>(doctorIds)) {
+                expanded.addAll(templates.expand(doctorId, from, to));
+            }
+        }
+        Map<DoctorDay, List<DoctorSchedule>> occurrences = new HashMap<>();
+        for (DoctorSchedule occurrence : expanded) {
+            occurrences.computeIfAbsent(DoctorDay.of(occurrence), day -> new ArrayList<>()).add(occurrence);
+        }
+
+        // A stored slot of any type or address can replace an occurrence, so with occurrences every slot is read
+        Set<String> queryTypes = occurrences.isEmpty() ? types : null;
+        String queryAddress = occurrences.isEmpty() ? addressAvailability : null;
+        WindowCollector collector = new WindowCollector(Math.max(minDurationMinutes, 1), occurrences, bookable);
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            collectStored(null, from, to, queryTypes, queryAddress, collector);
+        } else {
+            Set<Long> missing = new LinkedHashSet<>();
+            for (Long doctorId : new LinkedHashSet<>(doctorIds)) {
+                List<DoctorSchedule> indexed = index.getIfPresent(doctorId);
+                if (indexed == null) {
+                    missing.add(doctorId);
+                    continue;
+                }
+                // Indexed slots are already sorted by date and start time
+                for (DoctorSchedule slot : indexed) {
+                    LocalDate date = slot.getDate() == null ? null : slot.getDate().toLocalDate();
+                    if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                        collector.accept(slot);
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                collectStored(missing, from, to, queryTypes, queryAddress, collector);
+            }
+        }
+        List<AvailabilityWindowDTO> windows = metrics.resultSize("availability", collector.finish());
+        windows.sort(RESULT_ORDER);
+        logger.info("In Service - Availability search from {} to {} found {} windows", from, to, windows.size());
+        return windows;
+    }
+
+    // Feeds the stored slots of the doctors, or of all doctors for null, to the collector
+    private void collectStored(Set<Long> doctorIds, LocalDate from, LocalDate to, Set<String> typeAvailabilities,
+            String addressAvailability, WindowCollector collector) {
+        if (!shards.isSharded()) {
+            jdbcRepo.forEachScheduleInRange(doctorIds, from, to, typeAvailabilities, addressAvailability, collector::accept);
+            return;
+        }
+        Map<String, Set<Long>> byShard = doctorIds == null ? null : shardCoordinator.groupByShard(doctorIds);
+        Map<String, List<DoctorSchedule>> rows = shardCoordinator.onShards(
+                byShard == null ? shards.getShards() : byShard.keySet(), shard -> {
+                    List<DoctorSchedule> owned = new ArrayList<>();
+                    jdbcRepo.forEachScheduleInRange(byShard == null ? null : byShard.get(shard), from, to,
+                            typeAvailabilities, addressAvailability, slot -> {
+                                if (shards.owns(shard, slot.getDoctorId())) {
+                                    owned.add(slot);
+                                }
+                            });
+                    return owned;
+                });
+        rows.values().forEach(shardRows -> shardRows.forEach(collector::accept));
+    }
+
+    // Receives slots grouped by doctor and date and merges each group into windows when the group ends
+    private static final class WindowCollector {
+
+        private final long minMinutes;
+        private final List<AvailabilityWindowDTO> windows = new ArrayList<>();
+        private final List<DoctorSchedule> group = new ArrayList<>();
+
+        // Template occurrences not merged yet, per doctor and date
+        private final Map<DoctorDay, List<DoctorSchedule>> occurrences;
+
+        // The slots that may become part of a window, once stored slots have replaced their occurrences
+        private final Predicate<DoctorSchedule> bookable;
+
+        private WindowCollector(long minMinutes, Map<DoctorDay, List<DoctorSchedule>> occurrences,
+                Predicate<DoctorSchedule> bookable) {
+            this.minMinutes = minMinutes;
+            this.occurrences = occurrences;
+            this.bookable = bookable;
+        }
+
+        private void accept(DoctorSchedule slot) {
+            if (slot.getDoctorId() == null || slot.getDate() == null || slot.getStartTime() == null || slot.getEndTime() == null
+                    || !slot.getStartTime().before(slot.getEndTime())) {
+                return;
+            }
+            if (!group.isEmpty()) {
+                DoctorSchedule first = group.get(0);
+                if (!first.getDoctorId().equals(slot.getDoctorId()) || !first.getDate().equals(slot.getDate())) {
+                    mergeGroup();
+                }
+            }
+            group.add(slot);
+        }
+
+        private List<AvailabilityWindowDTO> finish() {
+            mergeGroup();
+            // Days on which only templates apply
+            for (List<DoctorSchedule> day : new ArrayList<>(occurrences.values())) {
+                group.addAll(day);
+                mergeGroup();
+            }
+            return windows;
+        }
+
+        // Sweeps the sorted slots of one doctor and date, extending the open window while slots overlap or touch it
+        private void mergeGroup() {
+            if (group.isEmpty()) {
+                return;
+            }
+            List<DoctorSchedule> dayOccurrences = occurrences.remove(DoctorDay.of(group.get(0)));
+            if (dayOccurrences != null) {
+                Set<String> storedShifts = new HashSet<>();
+                for (DoctorSchedule slot : group) {
+                    if (slot.getTemplateId() == null) {
+                        storedShifts.add(slot.getShift());
+                    }
+                }
+                for (DoctorSchedule occurrence : dayOccurrences) {
+                    if (!storedShifts.contains(occurrence.getShift())) {
+                        group.add(occurrence);
+                    }
+                }
+            }
+            group.removeIf(bookable.negate());
+            if (group.isEmpty()) {
+                return;
+            }
+            group.sort(MERGE_ORDER);
+            DoctorSchedule open = group.get(0);
+            Time openEnd = open.getEndTime();
+            for (int i = 1; i < group.size(); i++) {
+                DoctorSchedule slot = group.get(i);
+                if (sameKind(open, slot) && !slot.getStartTime().after(openEnd)) {
+                    if (slot.getEndTime().after(openEnd)) {
+                        openEnd = slot.getEndTime();
+                    }
+                } else {
+                    emit(open, openEnd);
+                    open = slot;
+                    openEnd = slot.getEndTime();
+                }
+            }
+            emit(open, openEnd);
+            group.clear();
+        }
+
+        private void emit(DoctorSchedule open, Time end) {
+            long minutes = Duration.between(open.getStartTime().toLocalTime(), end.toLocalTime()).toMinutes();
+            if (minutes >= minMinutes) {
+                windows.add(new AvailabilityWindowDTO(open.getDoctorId(), open.getDate(),
+                        open.getStartTime(), end, minutes, open.getTypeAvailability(), open.getAddressAvailability()));
+            }
+        }
+
+        private static boolean sameKind(DoctorSchedule a, DoctorSchedule b) {
+            return Objects.equals(a.getTypeAvailability(), b.getTypeAvailability())
+                    && Objects.equals(a.getAddressAvailability(), b.getAddressAvailability());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Collapses the key lookups of concurrent callers into one batch load, in the manner of a DataLoader.
+ *
+ * The first caller to arrive opens a batch, waits for the coalescing window and then loads the union of the keys
+ * that every caller added to the batch meanwhile; the others block until that load completes and pick their own
+ * keys out of the result. A batch that would grow beyond maxKeys is closed to newcomers, who open the next one.
+ * With a window of zero every call loads its own keys at once.
+ *
+ * Callers block, so this is meant for the worker threads of the blocking service, never for the event loop.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+final class BatchCoalescer<K, V> {
+
+    private final class Batch {
+        // Guarded by the coalescer while the batch is open; read by the loading caller once it is closed
+        private final Set<K> keys = new HashSet<>();
+        private final CompletableFuture<Map<K, V>> result = new CompletableFuture<>();
+    }
+
+    private final Function<Set<K>, Map<K, V>> loader;
+    private final long windowNanos;
+    private final int maxKeys;
+
+    // The batch still accepting keys, or null. Guarded by "this".
+    private Batch open;
+
+    /**
+     * @param loader   Loads the values of a set of keys; keys without a value are left out of the map.
+     * @param windowMs How long the first caller of a batch waits for others, in milliseconds.
+     * @param maxKeys  The number of keys after which a batch takes no more callers.
+     */
+    BatchCoalescer(Function<Set<K>, Map<K, V>> loader, long windowMs, int maxKeys) {
+        this.loader = loader;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, windowMs));
+        this.maxKeys = Math.max(1, maxKeys);
+    }
+
+    /**
+     * Loads the values of the given keys, together with the keys of concurrent callers.
+     *
+     * @param keys The keys to look up.
+     * @return Map<K, V> The values of those keys that have one.
+     */
+    Map<K, V> load(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        if (windowNanos == 0L) {
+            return loader.apply(new HashSet<>(keys));
+        }
+
+        Batch batch;
+        boolean first = false;
+        synchronized (this) {
+            if (open == null || open.keys.size() + keys.size() > maxKeys) {
+                open = new Batch();
+                first = true;
+            }
+            batch = open;
+            batch.keys.addAll(keys);
+        }
+
+        if (first) {
+            LockSupport.parkNanos(windowNanos);
+            synchronized (this) {
+                if (open == batch) {
+                    open = null;
+                }
+            }
+            // Whatever the load throws, errors included, must complete the batch, or its other callers wait forever
+            try {
+                batch.result.complete(loader.apply(batch.keys));
+            } catch (Throwable e) {
+                batch.result.completeExceptionally(e);
+            }
+        }
+
+        Map<K, V> loaded;
+        try {
+            loaded = batch.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        Map<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            V value = loaded.get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+}
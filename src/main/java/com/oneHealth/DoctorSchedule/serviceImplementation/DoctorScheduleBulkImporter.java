@@ -0,0 +1,372 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.oneHealth.DoctorSchedule.DTO.BulkImportResultDTO;
+import com.oneHealth.DoctorSchedule.DTO.BulkImportRowResultDTO;
+import com.oneHealth.DoctorSchedule.DTO.BulkImportRowResultDTO.Status;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
+import com.oneHealth.DoctorSchedule.exception.ShardMovedException;
+import com.oneHealth.DoctorSchedule.outbox.ScheduleOutboxWriter;
+import com.oneHealth.DoctorSchedule.repository.DoctorDay;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.repository.ScheduleKey;
+import com.oneHealth.DoctorSchedule.repository.ScheduleTemplateRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+/**
+ * The DoctorScheduleBulkImporter class imports many doctor schedules in one go.
+ *
+ * Incoming rows are validated, deduplicated against each other and against the existing
+ * (doctorId, date, shift) keys with a single query, and checked for time ranges overlapping the doctor's other
+ * schedules that day (existing or earlier in the import) through a per-doctor-per-day interval set, and the
+ * occurrences of the doctor's templates of another shift that day. The remaining
+ * rows are inserted with JDBC batching using slot IDs allocated in pooled blocks. Every row gets its own outcome
+ * in the result, and every created row a CREATED event in the outbox.
+ *
+ * Without shards the import runs in one transaction. With shards the rows are split by the shard of their doctor
+ * and every shard imports its rows in a transaction of its own; rows of doctors that moved away meanwhile are
+ * split again and imported on their new shard.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class DoctorScheduleBulkImporter {
+
+    private final Logger logger = LoggerFactory.getLogger(DoctorScheduleBulkImporter.class);
+
+    // Column order of the CSV format: doctorId,date,startTime,endTime,typeAvailability,addressAvailability,shift
+    private static final int CSV_COLUMNS = 7;
+
+    // Rounds of a sharded import whose doctors keep moving away under it before the import gives up
+    private static final int MAX_SHARD_ATTEMPTS = 3;
+
+    // Rows of an import, null where a row could not be parsed, with the parse errors and the row numbers to report
+    private record ImportRows(List<DoctorSchedule> schedules, List<String> parseErrors, List<Integer> rowNumbers) {
+
+        private ImportRows subset(List<Integer> positions) {
+            List<DoctorSchedule> schedules = new ArrayList<>(positions.size());
+            List<String> parseErrors = new ArrayList<>(positions.size());
+            List<Integer> rowNumbers = new ArrayList<>(positions.size());
+            for (int i : positions) {
+                schedules.add(this.schedules.get(i));
+                parseErrors.add(this.parseErrors.get(i));
+                rowNumbers.add(this.rowNumbers.get(i));
+            }
+            return new ImportRows(schedules, parseErrors, rowNumbers);
+        }
+
+        private Long doctorId(int i) {
+            return schedules.get(i) == null ? null : schedules.get(i).getDoctorId();
+        }
+    }
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ShardRouter shards;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    @Autowired
+    private ScheduleOutboxWriter outbox;
+
+    @Autowired
+    private ScheduleTemplateRepository templateRepo;
+
+    @Autowired
+    private ScheduleTemplateService templates;
+
+    /**
+     * Imports a list of doctor schedules.
+     *
+     * @param schedules The doctor schedules to import. Any slotId they carry is ignored.
+     * @param firstRow  The row number of the first schedule, so chunks of a larger import keep their numbering.
+     * @return BulkImportResultDTO The outcome of every row.
+     */
+    public BulkImportResultDTO importSchedules(List<DoctorSchedule> schedules, int firstRow) {
+        List<Integer> rowNumbers = new ArrayList<>(schedules.size());
+        for (int i = 0; i < schedules.size(); i++) {
+            rowNumbers.add(firstRow + i);
+        }
+        return importOnShards(new ImportRows(schedules, Collections.nCopies(schedules.size(), null), rowNumbers));
+    }
+
+    /**
+     * Imports doctor schedules given as CSV lines. A header line and blank lines are skipped.
+     *
+     * @param lines     The CSV lines to import.
+     * @param firstLine The line number of the first line, so chunks of a larger import keep their numbering.
+     * @return BulkImportResultDTO The outcome of every non-blank data line, numbered by line.
+     */
+    public BulkImportResultDTO importCsv(List<String> lines, int firstLine) {
+        List<DoctorSchedule> schedules = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line == null || line.isBlank()) {
+                continue;
+            }
+            List<String> cells = splitCsvLine(line.strip());
+            if (cells.get(0).equalsIgnoreCase("doctorId")) {
+                continue;
+            }
+            lineNumbers.add(firstLine + i);
+            try {
+                schedules.add(parseCsvCells(cells));
+                errors.add(null);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                schedules.add(null);
+                errors.add("Malformed CSV line: " + e.getMessage());
+            }
+        }
+
+        // Number the outcomes by line rather than by position among the data lines
+        return importOnShards(new ImportRows(schedules, errors, lineNumbers));
+    }
+
+    // Imports the rows of every shard in a transaction on that shard and merges the outcomes in row order
+    private BulkImportResultDTO importOnShards(ImportRows rows) {
+        List<BulkImportResultDTO> parts = new ArrayList<>();
+        List<Integer> pending = new ArrayList<>(rows.schedules().size());
+        for (int i = 0; i < rows.schedules().size(); i++) {
+            pending.add(i);
+        }
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            Map<String, List<Integer>> byShard = new LinkedHashMap<>();
+            for (int i : pending) {
+                byShard.computeIfAbsent(shards.shardOf(rows.doctorId(i)), shard -> new ArrayList<>()).add(i);
+            }
+            List<Integer> moved = new ArrayList<>();
+            for (Map.Entry<String, List<Integer>> group : byShard.entrySet()) {
+                ImportRows part = rows.subset(group.getValue());
+                try {
+                    parts.add(shardCoordinator.onShard(group.getKey(), false, () -> importRows(part)));
+                } catch (ShardMovedException e) {
+                    if (attempt == MAX_SHARD_ATTEMPTS) {
+                        throw e;
+                    }
+                    // The moves are recorded by now, so the next round routes these rows to the new shards
+                    moved.addAll(group.getValue());
+                }
+            }
+            pending = moved;
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+
+        List<BulkImportRowResultDTO> outcomes = new ArrayList<>();
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        for (BulkImportResultDTO part : parts) {
+            outcomes.addAll(part.getRows());
+            result.getAffectedDoctorIds().addAll(part.getAffectedDoctorIds());
+        }
+        outcomes.sort(Comparator.comparingInt(BulkImportRowResultDTO::getRow));
+        outcomes.forEach(result::addRow);
+        return result;
+    }
+
+    // Imports rows on one shard; a row is rejected as invalid when it is null or has a parse error
+    private BulkImportResultDTO importRows(ImportRows rows) {
+        List<DoctorSchedule> schedules = rows.schedules();
+        List<Integer> rowNumbers = rows.rowNumbers();
+        BulkImportRowResultDTO[] outcomes = new BulkImportRowResultDTO[schedules.size()];
+
+        // Validate and drop duplicates within the request itself
+        Map<ScheduleKey, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < schedules.size(); i++) {
+            DoctorSchedule schedule = schedules.get(i);
+            String problem = rows.parseErrors().get(i) != null ? rows.parseErrors().get(i) : validate(schedule);
+            if (problem != null) {
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.INVALID, null, problem);
+                continue;
+            }
+            ScheduleKey key = ScheduleKey.of(schedule);
+            Integer earlier = candidates.putIfAbsent(key, i);
+            if (earlier != null) {
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.DUPLICATE, null,
+                        "Duplicate of row " + rowNumbers.get(earlier) + " in this import");
+            }
+        }
+
+        // Lock the doctors being written so that no concurrent write changes their days until this import commits
+        Set<Long> doctorIds = new TreeSet<>();
+        Set<DoctorDay> days = new LinkedHashSet<>();
+        for (ScheduleKey key : candidates.keySet()) {
+            doctorIds.add(key.doctorId());
+            days.add(new DoctorDay(key.doctorId(), key.date()));
+        }
+        jdbcRepo.lockDoctors(doctorIds);
+        shardCoordinator.checkNotMoved(doctorIds);
+
+        // Load the time already covered on every affected doctor's day, with one set-based query
+        Map<DoctorDay, ScheduleIntervalSet> covered = new HashMap<>();
+        jdbcRepo.forEachScheduleOnDays(days, schedule -> {
+            if (schedule.getStartTime() != null && schedule.getEndTime() != null
+                    && schedule.getEndTime().after(schedule.getStartTime())) {
+                covered.computeIfAbsent(DoctorDay.of(schedule), day -> new ScheduleIntervalSet())
+                        .add(schedule.getStartTime(), schedule.getEndTime());
+            }
+        });
+
+        // The current templates of the affected doctors, read with one query under their locks
+        Map<Long, List<ScheduleTemplate>> doctorTemplates = new HashMap<>();
+        for (ScheduleTemplate template : templateRepo.findByDoctorIdIn(doctorIds)) {
+            doctorTemplates.computeIfAbsent(template.getDoctorId(), doctorId -> new ArrayList<>()).add(template);
+        }
+
+        // Drop rows whose doctor, date and shift already exist, with one set-based query, and rows that overlap
+        Set<ScheduleKey> existing = jdbcRepo.findExistingKeys(candidates.keySet());
+        List<DoctorSchedule> toInsert = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (Map.Entry<ScheduleKey, Integer> candidate : candidates.entrySet()) {
+            int i = candidate.getValue();
+            DoctorSchedule schedule = schedules.get(i);
+            if (existing.contains(candidate.getKey())) {
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.DUPLICATE, null,
+                        "Schedule Already Exists For Date : " + candidate.getKey().date() + " And Shift : " + candidate.getKey().shift());
+                continue;
+            }
+            ScheduleIntervalSet day = covered.computeIfAbsent(DoctorDay.of(schedule), d -> new ScheduleIntervalSet());
+            Map.Entry<Integer, Integer> overlap = day.findOverlap(schedule.getStartTime(), schedule.getEndTime());
+            if (overlap != null) {
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.OVERLAP, null,
+                        "Schedule Overlaps Existing Schedule On " + schedule.getDate() + " From "
+                                + LocalTime.ofSecondOfDay(overlap.getKey()) + " To " + LocalTime.ofSecondOfDay(overlap.getValue()));
+                continue;
+            }
+            DoctorSchedule occurrence = templates.findOverlappingOccurrence(schedule,
+                    doctorTemplates.getOrDefault(schedule.getDoctorId(), List.of()));
+            if (occurrence != null) {
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.OVERLAP, null,
+                        "Schedule Overlaps Template " + occurrence.getTemplateId() + " On " + occurrence.getDate()
+                                + " From " + occurrence.getStartTime() + " To " + occurrence.getEndTime());
+                continue;
+            }
+            day.add(schedule.getStartTime(), schedule.getEndTime());
+            toInsert.add(schedule);
+            positions.add(i);
+        }
+
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        if (!toInsert.isEmpty()) {
+            long[] slotIds = jdbcRepo.allocateSlotIds(toInsert.size());
+            for (int j = 0; j < toInsert.size(); j++) {
+                toInsert.get(j).setSlotId(slotIds[j]);
+            }
+            int[] counts = jdbcRepo.insertBatch(toInsert);
+            List<DoctorSchedule> created = new ArrayList<>(toInsert.size());
+            for (int j = 0; j < toInsert.size(); j++) {
+                DoctorSchedule schedule = toInsert.get(j);
+                int i = positions.get(j);
+                if (counts[j] == 0) {
+                    // Another writer created the same doctor, date and shift after the lookup above
+                    outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.DUPLICATE, null,
+                            "Schedule Already Exists For Date : " + schedule.getDate() + " And Shift : " + schedule.getShift());
+                    continue;
+                }
+                outcomes[i] = new BulkImportRowResultDTO(rowNumbers.get(i), Status.CREATED, schedule.getSlotId(), null);
+                result.getAffectedDoctorIds().add(schedule.getDoctorId());
+                created.add(schedule);
+            }
+            outbox.appendAll(ScheduleChangeEventDTO.Type.CREATED, created);
+        }
+
+        for (BulkImportRowResultDTO outcome : outcomes) {
+            result.addRow(outcome);
+        }
+        logger.info("In Service - Bulk Import: {} received, {} created, {} duplicates, {} overlaps, {} invalid",
+                result.getReceived(), result.getCreated(), result.getDuplicates(), result.getOverlaps(), result.getInvalid());
+        return result;
+    }
+
+    // Returns why a schedule cannot be imported, or null if it can
+    private static String validate(DoctorSchedule schedule) {
+        if (schedule == null) {
+            return "Empty row";
+        }
+        if (schedule.getDoctorId() == null || schedule.getDate() == null
+                || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+            return "doctorId, date, startTime and endTime are required";
+        }
+        if (!schedule.getEndTime().after(schedule.getStartTime())) {
+            return "endTime must be after startTime";
+        }
+        return null;
+    }
+
+    private static DoctorSchedule parseCsvCells(List<String> cells) {
+        if (cells.size() != CSV_COLUMNS) {
+            throw new IllegalArgumentException("expected " + CSV_COLUMNS + " columns but found " + cells.size());
+        }
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.setDoctorId(cells.get(0).isEmpty() ? null : Long.valueOf(cells.get(0)));
+        schedule.setDate(cells.get(1).isEmpty() ? null : Date.valueOf(LocalDate.parse(cells.get(1))));
+        schedule.setStartTime(cells.get(2).isEmpty() ? null : Time.valueOf(LocalTime.parse(cells.get(2))));
+        schedule.setEndTime(cells.get(3).isEmpty() ? null : Time.valueOf(LocalTime.parse(cells.get(3))));
+        schedule.setTypeAvailability(emptyToNull(cells.get(4)));
+        schedule.setAddressAvailability(emptyToNull(cells.get(5)));
+        schedule.setShift(emptyToNull(cells.get(6)));
+        return schedule;
+    }
+
+    // Splits one CSV line, honouring double-quoted cells with "" as an escaped quote
+    private static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().strip());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().strip());
+        return cells;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
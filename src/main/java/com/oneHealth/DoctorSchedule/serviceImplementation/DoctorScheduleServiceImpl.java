@@ -1,22 +1,55 @@
 package com.oneHealth.DoctorSchedule.serviceImplementation;
 
 import java.sql.Date;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import javax.management.InstanceAlreadyExistsException;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.oneHealth.DoctorSchedule.DTO.BulkImportResultDTO;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleIndexStatsDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePageDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.cache.SharedScheduleCache;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
 import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
 import com.oneHealth.DoctorSchedule.exception.DatabaseException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
 import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
+import com.oneHealth.DoctorSchedule.logging.SampledLogger;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.outbox.ScheduleOutboxWriter;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
 import com.oneHealth.DoctorSchedule.repository.DoctorScheduleRepository;
+import com.oneHealth.DoctorSchedule.routing.ReadYourWritesTracker;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
 import com.oneHealth.DoctorSchedule.service.DoctorScheduleService;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+import reactor.core.publisher.Flux;
 
 /**
  * The DoctorScheduleServiceImpl class is responsible for implementing the business logic
@@ -32,46 +65,177 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
 
     private final Logger logger = LoggerFactory.getLogger(DoctorScheduleServiceImpl.class);
 
+    // The read methods are called many times a second, so their lines are sampled
+    private final SampledLogger readLogger;
+
     @Autowired
     private DoctorScheduleRepository repo;
 
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private DoctorScheduleIndex index;
+
+    @Autowired
+    private SingleFlightScheduleReads singleFlight;
+
+    // Second level behind the index, shared by all instances
+    @Autowired
+    private SharedScheduleCache sharedCache;
+
+    @Autowired
+    private DoctorScheduleBulkImporter bulkImporter;
+
+    @Autowired
+    private ScheduleTemplateService templates;
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Autowired
+    private ScheduleChangeNotifier changes;
+
+    @Autowired
+    private ScheduleOutboxWriter outbox;
+
+    // Keeps reads of recently written doctors and slots off the read replicas
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    // Routes the work to the shard of the doctor, or to every shard, when schedules are sharded
+    @Autowired
+    private ShardRouter shards;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    // Upper bound for the page size of getSchedulePage
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // PostgreSQL SQLState reported when a unique constraint rejects a write
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // Orders the slots gathered from several shards like the single-database queries do
+    private static final Comparator<DoctorSchedule> SLOT_ID_ORDER = Comparator.comparing(DoctorSchedule::getSlotId);
+
+    // Orders the slots of a batch lookup by doctor, then date and start time
+    private static final Comparator<DoctorSchedule> DOCTOR_SLOT_ORDER = Comparator
+            .comparing(DoctorSchedule::getDoctorId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    // Upper bound for the number of IDs of one batch lookup
+    @Value("${doctorschedule.batch.max-ids:500}")
+    private int maxBatchIds;
+
+    // Runs the coalesced batch loads, which may go to a read replica
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Collapse the batch lookups of concurrent requests into one query each
+    private final BatchCoalescer<Long, DoctorSchedule> slotLoader;
+    private final BatchCoalescer<Long, List<DoctorSchedule>> doctorLoader;
+
+    public DoctorScheduleServiceImpl(@Value("${doctorschedule.logging.read-sample-interval-ms:1000}") long readSampleIntervalMillis,
+            PlatformTransactionManager transactionManager,
+            @Value("${doctorschedule.batch.coalesce-window-ms:2}") long coalesceWindowMillis,
+            @Value("${doctorschedule.batch.max-coalesced-ids:2000}") int maxCoalescedIds) {
+        this.readLogger = SampledLogger.of(logger, Duration.ofMillis(readSampleIntervalMillis));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slotLoader = new BatchCoalescer<>(this::loadSlots, coalesceWindowMillis, maxCoalescedIds);
+        this.doctorLoader = new BatchCoalescer<>(this::loadDoctors, coalesceWindowMillis, maxCoalescedIds);
+    }
   
     /**
      * Saves a doctor schedule if it does not already exist for the specified doctor, date, and shift.
+     * Uniqueness is enforced by the unique database index on (doctorId, date, shift), in which a missing shift
+     * counts as a shift of its own, so the save is a single insert and stays correct when two requests for the
+     * same slot race each other. A schedule whose time range overlaps another schedule of the doctor on the same
+     * date is rejected as well. A CREATED event is written to the outbox in the same transaction.
      *
      * @param schedule The doctor schedule to be saved.
      * @return String A message indicating the result of the save operation.
      * @throws DatabaseException If there is an issue with the database during the save operation.
-     * @throws InstanceAlreadyExistsException If a doctor schedule already exists for the specified date and shift.
+     * @throws ScheduleConflictException If a doctor schedule already exists for the specified date and shift,
+     *                                   or overlaps the new schedule's time range.
      */
     @Override
-    public String saveDoctorSchedule(DoctorSchedule schedule) throws DatabaseException, InstanceAlreadyExistsException {
-    	List<DoctorSchedule> list = repo.findByDoctorIdAndDateAndShift(schedule.getDoctorId(), schedule.getDate(),schedule.getShift());
-    	if (list.isEmpty()) {
-    		logger.info("In Service - Saving Doctor Schedule: " + schedule);
-            DoctorSchedule saveSchedule = repo.save(schedule);
-            return "Schedule Saved Successfully !!";  
-		} else {
-			throw new InstanceAlreadyExistsException("Schedule Already Exists For Date : "+schedule.getDate() + "And Shift : "+ schedule.getShift());
-		}
-        
+    @Transactional(rollbackFor = Exception.class)
+    public String saveDoctorSchedule(DoctorSchedule schedule) throws DatabaseException, ScheduleConflictException {
+        logger.info("In Service - Saving Doctor Schedule for doctor {} on {}", schedule.getDoctorId(), schedule.getDate());
+        shardCoordinator.writingDoctor(schedule.getDoctorId());
+        checkOverlap(schedule, null);
+        DoctorSchedule saveSchedule;
+        try {
+            saveSchedule = repo.saveAndFlush(schedule);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE, new ScheduleConflictException(
+                        "Schedule Already Exists For Date : " + schedule.getDate() + " And Shift : " + schedule.getShift()));
+            }
+            throw e;
+        }
+        outbox.append(ScheduleChangeEventDTO.Type.CREATED, saveSchedule);
+        changes.changed(ScheduleChangeEventDTO.Type.CREATED, saveSchedule.getDoctorId(), saveSchedule.getSlotId());
+        return "Schedule Saved Successfully !!";
     }
 
     
     
     
     /**
-     * Retrieves a doctor schedule by its ID.
+     * Saves many doctor schedules at once. Rows whose doctor, date and shift already exist are reported as duplicates.
+     *
+     * @param schedules The doctor schedules to be saved.
+     * @param firstRow  The row number of the first schedule in the overall import.
+     * @return BulkImportResultDTO The outcome of every row.
+     */
+    @Override
+    public BulkImportResultDTO importSchedules(List<DoctorSchedule> schedules, int firstRow) {
+        BulkImportResultDTO result = bulkImporter.importSchedules(schedules, firstRow);
+        result.getAffectedDoctorIds().forEach(doctorId -> changes.changed(ScheduleChangeEventDTO.Type.IMPORTED, doctorId, null));
+        recordRejections(result);
+        return result;
+    }
+
+    /**
+     * Saves many doctor schedules given as CSV lines (doctorId,date,startTime,endTime,typeAvailability,addressAvailability,shift).
+     *
+     * @param lines     The CSV lines to be imported.
+     * @param firstLine The line number of the first line in the overall import.
+     * @return BulkImportResultDTO The outcome of every data line.
+     */
+    @Override
+    public BulkImportResultDTO importSchedulesCsv(List<String> lines, int firstLine) {
+        BulkImportResultDTO result = bulkImporter.importCsv(lines, firstLine);
+        result.getAffectedDoctorIds().forEach(doctorId -> changes.changed(ScheduleChangeEventDTO.Type.IMPORTED, doctorId, null));
+        recordRejections(result);
+        return result;
+    }
+
+    
+    
+    
+    /**
+     * Retrieves a doctor schedule by its ID, from the shared cache tier when another instance already loaded it.
      *
      * @param slotId The ID of the doctor schedule to be retrieved.
      * @return DoctorSchedule The retrieved doctor schedule.
      * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
      */
     @Override
+    @Transactional(readOnly = true)
     public DoctorSchedule getDoctorScheduleById(Long slotId) throws ScheduleNotFoundException {
-        DoctorSchedule schedule = repo.findById(slotId)
-                .orElseThrow(() -> new ScheduleNotFoundException("No Schedule with this ID: " + slotId));
-        logger.info("In Service - Doctor Schedule Retrieved: " + schedule);
+        readYourWrites.readingSlot(slotId);
+        DoctorSchedule schedule = sharedCache.getSlot(slotId, id -> {
+            shardCoordinator.readingSlot(id);
+            return repo.findById(id).orElse(null);
+        });
+        if (schedule == null) {
+            throw metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE, new ScheduleNotFoundException("No Schedule with this ID: " + slotId));
+        }
+        readLogger.info("In Service - Doctor Schedule Retrieved with ID: {}", slotId);
         return schedule;
     }
 
@@ -80,25 +244,135 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
     
     /**
      * Retrieves a list of all doctor schedules.
+     * This materializes the whole table; prefer getSchedulePage or streamSchedules for large tables.
+     * With shards every shard is read in parallel and the results are concatenated in shard order.
      *
      * @return List<DoctorSchedule> A list of all doctor schedules.
      * @throws DatabaseException If there is an issue with the database during the retrieval.
      */ 
     @Override
+    @Transactional(readOnly = true)
     public List<DoctorSchedule> getAllDoctorsList() throws DatabaseException {
-        List<DoctorSchedule> scheduleList = repo.findAll();
-        logger.info("In Service - All Doctor Schedules Retrieved: " + scheduleList);
+        List<DoctorSchedule> scheduleList = shards.isSharded()
+                ? shardCoordinator.gather(shard -> repo.findAll(), DoctorSchedule::getDoctorId)
+                : repo.findAll();
+        readLogger.info("In Service - All Doctor Schedules Retrieved: {} schedules", scheduleList.size());
         return scheduleList;
     }
 
+    /**
+     * Retrieves one page of doctor schedules ordered by slotId, using the last seen slotId as the cursor.
+     * With shards a doctor's page is read from the doctor's shard, and other pages from every shard in parallel.
+     *
+     * @param afterSlotId The slotId to continue after, or null to start from the beginning.
+     * @param limit       The maximum number of schedules to return, capped at MAX_PAGE_SIZE.
+     * @param doctorId    The ID of the doctor to filter on, or null for all doctors.
+     * @param date        The date to filter on, or null for all dates.
+     * @return SchedulePageDTO The page of doctor schedules and the cursor for the next page.
+     */
+    @Override
+    public SchedulePageDTO getSchedulePage(Long afterSlotId, int limit, Long doctorId, LocalDate date) {
+        long after = afterSlotId == null ? 0L : afterSlotId;
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, size);
+        if (shards.isSharded() && doctorId == null) {
+            return getShardedPage(after, size, date, page);
+        }
+
+        List<DoctorSchedule> items = shardCoordinator.readOnShardOf(doctorId, () -> findPage(after, doctorId, date, page));
+
+        // A short page means there is nothing left after it
+        Long nextCursor = items.size() < size ? null : items.get(items.size() - 1).getSlotId();
+        return new SchedulePageDTO(items, nextCursor);
+    }
+
+    private List<DoctorSchedule> findPage(long after, Long doctorId, LocalDate date, Pageable page) {
+        if (doctorId != null && date != null) {
+            return repo.findByDoctorIdAndDateAndSlotIdGreaterThanOrderBySlotIdAsc(doctorId, Date.valueOf(date), after, page);
+        } else if (doctorId != null) {
+            return repo.findByDoctorIdAndSlotIdGreaterThanOrderBySlotIdAsc(doctorId, after, page);
+        } else if (date != null) {
+            return repo.findByDateAndSlotIdGreaterThanOrderBySlotIdAsc(Date.valueOf(date), after, page);
+        }
+        return repo.findBySlotIdGreaterThanOrderBySlotIdAsc(after, page);
+    }
+
+    /**
+     * Merges the pages of every shard into one. A shard that returned a full page may hold more slots after its
+     * last one, so only slots up to the lowest such last slotId are known to be complete; slots beyond it are left
+     * for the next page, which continues from that bound even if the merged page comes out short.
+     */
+    private SchedulePageDTO getShardedPage(long after, int size, LocalDate date, Pageable page) {
+        Long bound = null;
+        List<DoctorSchedule> merged = new ArrayList<>();
+        for (Map.Entry<String, List<DoctorSchedule>> shardPage : shardCoordinator.onEveryShard(shard -> findPage(after, null, date, page)).entrySet()) {
+            List<DoctorSchedule> rows = shardPage.getValue();
+            if (rows.size() == size) {
+                long last = rows.get(rows.size() - 1).getSlotId();
+                bound = bound == null ? last : Math.min(bound, last);
+            }
+            for (DoctorSchedule schedule : rows) {
+                if (shards.owns(shardPage.getKey(), schedule.getDoctorId())) {
+                    merged.add(schedule);
+                }
+            }
+        }
+        merged.sort(SLOT_ID_ORDER);
+
+        List<DoctorSchedule> items = new ArrayList<>(size);
+        for (DoctorSchedule schedule : merged) {
+            if (items.size() == size || (bound != null && schedule.getSlotId() > bound)) {
+                break;
+            }
+            items.add(schedule);
+        }
+        Long nextCursor = items.size() == size ? items.get(items.size() - 1).getSlotId() : bound;
+        return new SchedulePageDTO(items, nextCursor);
+    }
+
+    /**
+     * Streams doctor schedules ordered by slotId straight from a database cursor. With shards a doctor's schedules
+     * are streamed from the doctor's shard, and other streams merge a cursor of every shard by slotId.
+     *
+     * @param doctorId The ID of the doctor to filter on, or null for all doctors.
+     * @param date     The date to filter on, or null for all dates.
+     * @return Flux<DoctorSchedule> A stream of the matching doctor schedules.
+     */
+    @Override
+    public Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date) {
+        if (!shards.isSharded()) {
+            return jdbcRepo.streamSchedules(doctorId, date);
+        }
+        if (doctorId != null) {
+            return jdbcRepo.streamSchedules(doctorId, date, shards.shardOf(doctorId));
+        }
+        List<String> names = shards.getShards();
+        @SuppressWarnings("unchecked")
+        Flux<DoctorSchedule>[] streams = new Flux[names.size()];
+        for (int i = 0; i < streams.length; i++) {
+            String shard = names.get(i);
+            streams[i] = jdbcRepo.streamSchedules(null, date, shard)
+                    .filter(schedule -> shards.owns(shard, schedule.getDoctorId()));
+        }
+        return Flux.mergeComparing(SLOT_ID_ORDER, streams);
+    }
+
     
     
     
     // Method to update DoctorSchedule by its ID and handle ScheduleNotFoundException if the schedule for the given slotId is not found.
+    // The new time range must not overlap another schedule of the doctor on the new date. An UPDATED event is written to the outbox.
+    // A version in the request must match the stored one; either way a concurrent update between the read and the write is a conflict.
     @Override
-    public DoctorSchedule updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) throws ScheduleNotFoundException {
+    @Transactional(rollbackFor = Exception.class)
+    public DoctorSchedule updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) throws ScheduleNotFoundException, ScheduleConflictException {
+        shardCoordinator.writingSlot(slotId);
         DoctorSchedule details = repo.findById(slotId)
-                .orElseThrow(() -> new ScheduleNotFoundException("No Doctor Schedule Found with this ID: " + slotId));
+                .orElseThrow(() -> metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE,
+                        new ScheduleNotFoundException("No Doctor Schedule Found with this ID: " + slotId)));
+        if (doctorSchedule.getVersion() != null && !doctorSchedule.getVersion().equals(details.getVersion())) {
+            throw staleVersion(slotId, doctorSchedule.getVersion(), details.getVersion());
+        }
 
         // Update the fields of the existing DoctorSchedule with the new values
         //details.setDoctorId(doctorSchedule.getDoctorId());
@@ -108,75 +382,283 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
         details.setTypeAvailability(doctorSchedule.getTypeAvailability());
         details.setAddressAvailability(doctorSchedule.getAddressAvailability());
         details.setShift(doctorSchedule.getShift());
+        checkOverlap(details, slotId);
 
-        // Save the updated DoctorSchedule to the repository
-        DoctorSchedule updatedSchedule = repo.save(details);
-        logger.info("In Service - Doctor Schedule Updated Successfully: " + updatedSchedule);
+        // Save the updated DoctorSchedule to the repository; moving it onto an occupied date and shift is a conflict
+        DoctorSchedule updatedSchedule;
+        try {
+            updatedSchedule = repo.saveAndFlush(details);
+        } catch (OptimisticLockingFailureException e) {
+            throw metrics.rejected(ScheduleMetrics.REJECTED_STALE, new ScheduleConflictException(
+                    "Doctor Schedule " + slotId + " was changed by another request, reload it and try again"));
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE, new ScheduleConflictException(
+                        "Schedule Already Exists For Date : " + details.getDate() + " And Shift : " + details.getShift()));
+            }
+            throw e;
+        }
+        outbox.append(ScheduleChangeEventDTO.Type.UPDATED, updatedSchedule);
+        changes.changed(ScheduleChangeEventDTO.Type.UPDATED, updatedSchedule.getDoctorId(), slotId);
+        logger.info("In Service - Doctor Schedule Updated Successfully with ID: {}", slotId);
         return updatedSchedule;
     }
 
+    /**
+     * Changes only the given fields of a doctor schedule, with a single conditional UPDATE that also checks the version.
+     *
+     * The schedule is not loaded first; only its doctor is looked up and locked before the UPDATE takes the row's
+     * lock, the same order saves and updates take them in. If the patch moves the schedule in time, the overlap
+     * check runs on the updated row within the same transaction; every other write checks under the same lock,
+     * so checking after writing still sees every committed schedule of the doctor.
+     *
+     * @param slotId The ID of the doctor schedule to be changed.
+     * @param patch  The fields to change and the version they are based on.
+     * @return DoctorSchedule The changed doctor schedule, with its new version.
+     * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
+     * @throws ScheduleConflictException If the schedule was changed since that version, or the change collides with another schedule.
+     * @throws IllegalArgumentException  If the patch carries no version.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public DoctorSchedule patchScheduleByID(long slotId, SchedulePatchDTO patch) throws ScheduleNotFoundException, ScheduleConflictException {
+        if (patch.getVersion() == null) {
+            throw new IllegalArgumentException("The version of the schedule is required");
+        }
+        shardCoordinator.writingSlot(slotId);
+        DoctorSchedule patched;
+        try {
+            patched = jdbcRepo.patch(slotId, patch);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE, new ScheduleConflictException(
+                        "Schedule Already Exists For Date : " + patch.getDate() + " And Shift : " + patch.getShift()));
+            }
+            throw e;
+        }
+        if (patched == null) {
+            rejectMissingOrStale(slotId, patch.getVersion());
+        }
+        if (patch.changesTimeRange()) {
+            checkOverlap(patched, slotId);
+        }
+        outbox.append(ScheduleChangeEventDTO.Type.UPDATED, patched);
+        changes.changed(ScheduleChangeEventDTO.Type.UPDATED, patched.getDoctorId(), slotId);
+        logger.info("In Service - Doctor Schedule Patched Successfully with ID: {} to version {}", slotId, patched.getVersion());
+        return patched;
+    }
+
     
     
     
     // Method to delete DoctorSchedule by its ID and handle ScheduleNotFoundException if the schedule for the given doctorId is not found.
     /**
-     * Deletes a doctor schedule by its ID.
+     * Deletes a doctor schedule by its ID, writing a DELETED event with its last state to the outbox in the same transaction.
+     * The row is deleted and returned by a single statement instead of being loaded first, after the slot's
+     * doctor has been locked.
      *
-     * @param slotId The ID of the doctor schedule to be deleted.
+     * @param slotId          The ID of the doctor schedule to be deleted.
+     * @param expectedVersion The version the client last read, or null to delete whatever version is stored.
      * @return DoctorSchedule The deleted doctor schedule.
      * @throws ScheduleNotFoundException If no doctor schedule is found with the given ID.
+     * @throws ScheduleConflictException If the schedule was changed since the expected version.
      */
     @Override
-    public DoctorSchedule deleteScheduleByID(long slotId) throws ScheduleNotFoundException {
-        DoctorSchedule doctorSchedule = repo.findById(slotId)
-                .orElseThrow(() -> new ScheduleNotFoundException("No Doctor Schedule found with this ID: " + slotId));
-
-        repo.delete(doctorSchedule);
-        logger.info("In Service - Doctor Schedule Deleted Successfully with ID: " + slotId);
+    @Transactional(rollbackFor = Exception.class)
+    public DoctorSchedule deleteScheduleByID(long slotId, Long expectedVersion) throws ScheduleNotFoundException, ScheduleConflictException {
+        shardCoordinator.writingSlot(slotId);
+        DoctorSchedule doctorSchedule = jdbcRepo.deleteReturning(slotId, expectedVersion);
+        if (doctorSchedule == null) {
+            rejectMissingOrStale(slotId, expectedVersion);
+        }
+        outbox.append(ScheduleChangeEventDTO.Type.DELETED, doctorSchedule);
+        changes.changed(ScheduleChangeEventDTO.Type.DELETED, doctorSchedule.getDoctorId(), slotId);
+        logger.info("In Service - Doctor Schedule Deleted Successfully with ID: {}", slotId);
         return doctorSchedule;
     }
 
     /**
      * Finds a list of doctor schedules for a specific doctor by their ID.
+     * The slots are served from the in-process index and only loaded from the database on a miss. Recurring
+     * templates add their occurrences from today up to the template horizon.
      *
      * @param doctorId The ID of the doctor for whom doctor schedules are retrieved.
-     * @return List<DoctorSchedule> A list of doctor schedules for the specified doctor.
+     * @return List<DoctorSchedule> A list of doctor schedules for the specified doctor, sorted by date and start time.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<DoctorSchedule> findByDoctorId(long doctorId) {
-        return repo.findByDoctorId(doctorId);
+        readYourWrites.readingDoctor(doctorId);
+        shards.useShardOf(doctorId);
+        LocalDate today = LocalDate.now();
+        List<DoctorSchedule> schedules = metrics.resultSize("findByDoctorId", templates.withOccurrences(doctorId,
+                index.get(doctorId, this::loadDoctorSlots), today, today.plusDays(templates.getHorizonDays())));
+        readLogger.info("In Service - Doctor Schedules Retrieved for doctor {}: {} schedules", doctorId, schedules.size());
+        return schedules;
+    }
+
+    /**
+     * Retrieves many doctor schedules by their IDs with one query, grouped by doctor.
+     * Lookups of concurrent requests within the coalescing window share that query.
+     *
+     * @param slotIds The IDs of the doctor schedules to be retrieved.
+     * @return Map<Long, List<DoctorSchedule>> The schedules found per doctor, ordered by doctor, date and start time.
+     *         Unknown IDs are left out.
+     * @throws IllegalArgumentException If more than the allowed number of IDs is given.
+     */
+    @Override
+    public Map<Long, List<DoctorSchedule>> getDoctorSchedulesByIds(Collection<Long> slotIds) {
+        List<DoctorSchedule> found = new ArrayList<>(slotLoader.load(checkBatch(slotIds)).values());
+        found.sort(DOCTOR_SLOT_ORDER);
+
+        // Slots without a doctor cannot be keyed by doctor and are left out
+        Map<Long, List<DoctorSchedule>> byDoctor = new LinkedHashMap<>();
+        for (DoctorSchedule schedule : found) {
+            if (schedule.getDoctorId() != null) {
+                byDoctor.computeIfAbsent(schedule.getDoctorId(), doctorId -> new ArrayList<>()).add(schedule);
+            }
+        }
+        readLogger.info("In Service - Doctor Schedules Retrieved by ID: {} of {} schedules", found.size(), slotIds.size());
+        return byDoctor;
     }
 
     /**
-     * Retrieves a list of today's doctor schedules for a specific doctor by their ID.
+     * Finds the schedules of many doctors at once. Indexed doctors are answered from memory and the others are
+     * loaded with one query, shared with concurrent requests within the coalescing window. Recurring templates
+     * add their occurrences from today up to the template horizon, as in findByDoctorId.
+     *
+     * @param doctorIds The IDs of the doctors for whom doctor schedules are retrieved.
+     * @return Map<Long, List<DoctorSchedule>> The schedules of every requested doctor, sorted by date and start time.
+     * @throws IllegalArgumentException If more than the allowed number of IDs is given.
+     */
+    @Override
+    public Map<Long, List<DoctorSchedule>> findByDoctorIds(Collection<Long> doctorIds) {
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(templates.getHorizonDays());
+        Map<Long, List<DoctorSchedule>> schedules = new LinkedHashMap<>();
+        index.getAll(checkBatch(doctorIds), doctorLoader::load).forEach((doctorId, stored) ->
+                schedules.put(doctorId, metrics.resultSize("findByDoctorIds", templates.withOccurrences(doctorId, stored, today, horizon))));
+        readLogger.info("In Service - Doctor Schedules Retrieved for {} doctors", schedules.size());
+        return schedules;
+    }
+
+    // Loads a doctor's stored slots on an index miss, from the shared tier if another instance already loaded them
+    private List<DoctorSchedule> loadDoctorSlots(Long doctorId) {
+        return sharedCache.getDoctorSlots(doctorId, id -> shardCoordinator.readOnShardOf(id, () -> repo.findByDoctorId(id)));
+    }
+
+    // Drops duplicate and null IDs and enforces the size limit of a batch lookup
+    private Set<Long> checkBatch(Collection<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                unique.add(id);
+            }
+        }
+        if (unique.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " IDs can be looked up at once");
+        }
+        return unique;
+    }
+
+    // Batch load of the slot coalescer, in a read-only transaction of the caller that opened the batch, or on every
+    // shard in parallel
+    private Map<Long, DoctorSchedule> loadSlots(Set<Long> slotIds) {
+        if (shards.isSharded()) {
+            Map<Long, DoctorSchedule> slots = new HashMap<>();
+            for (DoctorSchedule schedule : shardCoordinator.gather(shard -> jdbcRepo.findBySlotIds(slotIds), DoctorSchedule::getDoctorId)) {
+                slots.put(schedule.getSlotId(), schedule);
+            }
+            return slots;
+        }
+        return readOnlyTransaction.execute(status -> {
+            slotIds.forEach(readYourWrites::readingSlot);
+            Map<Long, DoctorSchedule> slots = new HashMap<>();
+            for (DoctorSchedule schedule : jdbcRepo.findBySlotIds(slotIds)) {
+                slots.put(schedule.getSlotId(), schedule);
+            }
+            return slots;
+        });
+    }
+
+    // Batch load of the doctor coalescer, in a read-only transaction of the caller that opened the batch, or on the
+    // shards of the doctors in parallel
+    private Map<Long, List<DoctorSchedule>> loadDoctors(Set<Long> doctorIds) {
+        if (shards.isSharded()) {
+            Map<String, Set<Long>> byShard = shardCoordinator.groupByShard(doctorIds);
+            Map<Long, List<DoctorSchedule>> slots = new HashMap<>();
+            shardCoordinator.onShards(byShard.keySet(), shard -> jdbcRepo.findByDoctorIds(byShard.get(shard)))
+                    .values().forEach(rows -> rows.forEach(schedule ->
+                            slots.computeIfAbsent(schedule.getDoctorId(), doctorId -> new ArrayList<>()).add(schedule)));
+            return slots;
+        }
+        return readOnlyTransaction.execute(status -> {
+            doctorIds.forEach(readYourWrites::readingDoctor);
+            Map<Long, List<DoctorSchedule>> slots = new HashMap<>();
+            for (DoctorSchedule schedule : jdbcRepo.findByDoctorIds(doctorIds)) {
+                slots.computeIfAbsent(schedule.getDoctorId(), doctorId -> new ArrayList<>()).add(schedule);
+            }
+            return slots;
+        });
+    }
+
+    /**
+     * Retrieves a list of today's and upcoming doctor schedules for a specific doctor by their ID.
      *
      * @param doctorId The ID of the doctor for whom today's doctor schedules are retrieved.
-     * @return List<DoctorSchedule> A list of today's doctor schedules for the specified doctor.
+     * @return List<DoctorSchedule> A list of today's and upcoming doctor schedules, ordered by date and start time.
      */
     @Override
     public List<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId) throws Exception {
-        // Get the current date
-        Date today = Date.valueOf(LocalDate.now());
-
-        // Find doctor schedules for today
-        List<DoctorSchedule> list1 =  repo.findByDoctorIdAndDate(doctorId, today);
-        
-        // Find doctor schedules for dates after today, ordered by date and start time
-        List<DoctorSchedule> list2 =  repo.findByDoctorIdAndDateAfterOrderByDateAscStartTimeAsc(doctorId, today);
-        
-        // Combine both lists of doctor schedules
-        List<DoctorSchedule> list3 = new ArrayList<>();
-        list3.addAll(list2);
-        list3.addAll(list1);
-        
-        return list3;
+        return getTodaysAndUpcomingScheduleForDoctor(doctorId, null, null);
+    }
+
+    /**
+     * Retrieves today's and upcoming doctor schedules for a specific doctor within an optional date window.
+     * Indexed doctors are answered from memory; otherwise a single range query on (doctorId, date, startTime) is issued.
+     * Recurring templates add their occurrences within the window, or up to the template horizon when it has no end.
+     *
+     * @param doctorId The ID of the doctor for whom schedules are retrieved.
+     * @param from     The first date of the window, or null for today. Dates before today are treated as today.
+     * @param to       The last date of the window (inclusive), or null for no upper bound.
+     * @return List<DoctorSchedule> A list of the doctor's schedules within the window, ordered by date and start time.
+     * @throws IllegalArgumentException If the window ends before it starts.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId, LocalDate from, LocalDate to) throws Exception {
+        // The window never starts before the current date
+        LocalDate today = LocalDate.now();
+        LocalDate start = (from == null || from.isBefore(today)) ? today : from;
+        if (to != null && to.isBefore(start)) {
+            throw new IllegalArgumentException("Invalid window: " + start + " to " + to);
+        }
+        readYourWrites.readingDoctor(doctorId);
+        shards.useShardOf(doctorId);
+
+        LocalDate expandUntil = to != null ? to : start.plusDays(templates.getHorizonDays());
+        List<DoctorSchedule> indexed = index.getIfPresent(doctorId);
+        if (indexed == null) {
+            List<DoctorSchedule> stored = to == null
+                    ? repo.findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(doctorId, Date.valueOf(start))
+                    : repo.findByDoctorIdAndDateBetweenOrderByDateAscStartTimeAsc(doctorId, Date.valueOf(start), Date.valueOf(to));
+            return metrics.resultSize("todayAndUpcoming", templates.withOccurrences(doctorId, stored, start, expandUntil));
+        }
+
+        // The indexed slots are already ordered by date and start time
+        List<DoctorSchedule> window = new ArrayList<>();
+        for (DoctorSchedule schedule : indexed) {
+            if (schedule.getDate() == null) {
+                continue;
+            }
+            LocalDate date = schedule.getDate().toLocalDate();
+            if (!date.isBefore(start) && (to == null || !date.isAfter(to))) {
+                window.add(schedule);
+            }
+        }
+        return metrics.resultSize("todayAndUpcoming", templates.withOccurrences(doctorId, window, start, expandUntil));
     }
 
-    
-    
-    
-    
-    
     /**
      * Retrieves a list of upcoming doctor schedules for a specific doctor by their ID.
      *
@@ -184,12 +666,94 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
      * @return List<DoctorSchedule> A list of upcoming doctor schedules for the specified doctor.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<DoctorSchedule> getUpcomingSchedules(Long doctorId) throws Exception {
+        readYourWrites.readingDoctor(doctorId);
+        shards.useShardOf(doctorId);
         // Get the current date
-        Date currentDate = Date.valueOf(LocalDate.now());
-        
-        // Find upcoming doctor schedules for the specified doctor, ordered by date and start time
-        return repo.findByDoctorIdAndDateAfterOrderByDateAscStartTimeAsc(doctorId, currentDate);
+        LocalDate currentDate = LocalDate.now();
+
+        // Keep the indexed slots dated after today; they are already ordered by date and start time
+        List<DoctorSchedule> upcoming = new ArrayList<>();
+        for (DoctorSchedule schedule : index.get(doctorId, this::loadDoctorSlots)) {
+            if (schedule.getDate() != null && schedule.getDate().toLocalDate().isAfter(currentDate)) {
+                upcoming.add(schedule);
+            }
+        }
+        return metrics.resultSize("upcoming", templates.withOccurrences(doctorId, upcoming, currentDate.plusDays(1),
+                currentDate.plusDays(templates.getHorizonDays())));
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the in-process schedule index and the load/share
+     * counters of the single-flight reads.
+     *
+     * @return ScheduleIndexStatsDTO The current counters of the schedule index.
+     */
+    @Override
+    public ScheduleIndexStatsDTO getIndexStats() {
+        return new ScheduleIndexStatsDTO(index.getHits(), index.getMisses(), index.getEvictions(),
+                index.getDoctorCount(), index.getSlotCount(), singleFlight.getLoads(), singleFlight.getShares());
+    }
+
+    /**
+     * Rejects a schedule whose time range overlaps another schedule of the same doctor on the same date, or an
+     * occurrence of the doctor's templates of another shift on that date.
+     * The doctor's schedule stays locked until the surrounding transaction ends, so concurrent writes for the
+     * doctor are checked one after another. Schedules without a complete, positive time range are not checked.
+     *
+     * @param schedule      The schedule about to be written.
+     * @param excludeSlotId The slotId of the schedule being updated, or null for a new schedule.
+     * @throws ScheduleConflictException If the time range overlaps another schedule.
+     */
+    private void checkOverlap(DoctorSchedule schedule, Long excludeSlotId) throws ScheduleConflictException {
+        if (schedule.getDoctorId() == null || schedule.getDate() == null || schedule.getStartTime() == null
+                || schedule.getEndTime() == null || !schedule.getEndTime().after(schedule.getStartTime())) {
+            return;
+        }
+        jdbcRepo.lockDoctors(List.of(schedule.getDoctorId()));
+        DoctorSchedule overlapping = jdbcRepo.findOverlappingSlot(schedule.getDoctorId(), schedule.getDate(),
+                schedule.getStartTime(), schedule.getEndTime(), excludeSlotId);
+        if (overlapping != null) {
+            throw metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP, new ScheduleConflictException("Schedule Overlaps Existing Schedule On "
+                    + overlapping.getDate() + " From " + overlapping.getStartTime() + " To " + overlapping.getEndTime()));
+        }
+        DoctorSchedule occurrence = templates.findOverlappingOccurrence(schedule);
+        if (occurrence != null) {
+            throw metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP, new ScheduleConflictException("Schedule Overlaps Template "
+                    + occurrence.getTemplateId() + " On " + occurrence.getDate() + " From " + occurrence.getStartTime()
+                    + " To " + occurrence.getEndTime()));
+        }
+    }
+
+    // Reports why a conditional write matched no row: the schedule is gone, or it has another version by now
+    private void rejectMissingOrStale(long slotId, Long expectedVersion) throws ScheduleNotFoundException, ScheduleConflictException {
+        Long current = expectedVersion == null ? null : jdbcRepo.findVersion(slotId);
+        if (current == null) {
+            throw metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE,
+                    new ScheduleNotFoundException("No Doctor Schedule found with this ID: " + slotId));
+        }
+        throw staleVersion(slotId, expectedVersion, current);
+    }
+
+    private ScheduleConflictException staleVersion(long slotId, Long expectedVersion, Long currentVersion) {
+        return metrics.rejected(ScheduleMetrics.REJECTED_STALE, new ScheduleConflictException("Doctor Schedule " + slotId
+                + " was changed by another request: expected version " + expectedVersion + " but found " + currentVersion));
+    }
+
+    private void recordRejections(BulkImportResultDTO result) {
+        metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE, result.getDuplicates());
+        metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP, result.getOverlaps());
+    }
+
+    // Tells whether a failed write was rejected by a unique constraint (SQLState 23505) rather than another integrity rule
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
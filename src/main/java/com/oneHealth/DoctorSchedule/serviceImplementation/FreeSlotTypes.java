@@ -0,0 +1,57 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The types of availability that make a slot bookable, from doctorschedule.availability.free-types.
+ *
+ * The availability search and the availability bitmaps both count only slots of these types as free time, so the
+ * two give the same answer for the same slot; "busy" or "unavailable" slots, and slots without a type, are never
+ * free. Types are matched exactly.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class FreeSlotTypes {
+
+    private final Set<String> types;
+
+    public FreeSlotTypes(@Value("${doctorschedule.availability.free-types:available}") String freeTypes) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String type : freeTypes.split(",")) {
+            if (!type.isBlank()) {
+                parsed.add(type.trim());
+            }
+        }
+        this.types = Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * Tells whether slots of a type of availability are bookable.
+     *
+     * @param typeAvailability The type of availability of a slot, possibly null.
+     * @return boolean Whether the slot counts as free time.
+     */
+    public boolean isFree(String typeAvailability) {
+        return typeAvailability != null && types.contains(typeAvailability);
+    }
+
+    /**
+     * Returns the bookable types a search for a type of availability covers.
+     *
+     * @param typeAvailability The type asked for, or null for any bookable type.
+     * @return Set<String> Every bookable type for null, the type itself if it is bookable, else no type at all.
+     */
+    public Set<String> matching(String typeAvailability) {
+        if (typeAvailability == null) {
+            return types;
+        }
+        return isFree(typeAvailability) ? Set.of(typeAvailability) : Set.of();
+    }
+}
@@ -0,0 +1,104 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.service.DoctorScheduleService;
+import com.oneHealth.DoctorSchedule.service.ReactiveDoctorScheduleService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * The JpaReactiveDoctorScheduleService class exposes the blocking JPA DoctorScheduleService through the reactive
+ * contract. Every call runs on the jdbcScheduler, so a slow query never holds up the Netty event loop.
+ *
+ * Active when doctorschedule.data-path is "jpa" (the default).
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+@ConditionalOnProperty(name = "doctorschedule.data-path", havingValue = "jpa", matchIfMissing = true)
+public class JpaReactiveDoctorScheduleService implements ReactiveDoctorScheduleService {
+
+    @Autowired
+    private DoctorScheduleService service;
+
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    // Concurrent today-and-upcoming reads of the same doctor share one load
+    @Autowired
+    private SingleFlightScheduleReads singleFlight;
+
+    @Override
+    public Mono<String> saveDoctorSchedule(DoctorSchedule schedule) {
+        return offload(() -> service.saveDoctorSchedule(schedule));
+    }
+
+    @Override
+    public Mono<DoctorSchedule> getDoctorScheduleById(Long slotId) {
+        return offload(() -> service.getDoctorScheduleById(slotId));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getAllDoctorsList() {
+        return offload(() -> service.getAllDoctorsList()).flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Mono<DoctorSchedule> updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) {
+        return offload(() -> service.updateScheduleByID(slotId, doctorSchedule));
+    }
+
+    @Override
+    public Mono<DoctorSchedule> patchScheduleByID(long slotId, SchedulePatchDTO patch) {
+        return offload(() -> service.patchScheduleByID(slotId, patch));
+    }
+
+    @Override
+    public Mono<DoctorSchedule> deleteScheduleByID(long slotId, Long expectedVersion) {
+        return offload(() -> service.deleteScheduleByID(slotId, expectedVersion));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> findByDoctorId(long doctorId) {
+        return offload(() -> service.findByDoctorId(doctorId)).flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId, LocalDate from, LocalDate to) {
+        // Windows starting in the past read the same slots as one starting today, so they share one flight
+        LocalDate today = LocalDate.now();
+        LocalDate start = (from == null || from.isBefore(today)) ? today : from;
+        return singleFlight.get(doctorId, start, to,
+                () -> offload(() -> service.getTodaysAndUpcomingScheduleForDoctor(doctorId, start, to))).flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getUpcomingSchedules(Long doctorId) {
+        return offload(() -> service.getUpcomingSchedules(doctorId)).flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date) {
+        // Already a cursor-backed stream that fetches on the jdbcScheduler
+        return service.streamSchedules(doctorId, date);
+    }
+
+    // Runs a blocking service call on the jdbcScheduler; checked exceptions are passed on as error signals
+    private <T> Mono<T> offload(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,326 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.DTO.SchedulePatchDTO;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.outbox.ScheduleOutboxWriter;
+import com.oneHealth.DoctorSchedule.repository.ReactiveDoctorScheduleRepository;
+import com.oneHealth.DoctorSchedule.service.ReactiveDoctorScheduleService;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * The R2dbcDoctorScheduleServiceImpl class implements the doctor schedule operations fully reactively on top of
+ * ReactiveDoctorScheduleRepository. No thread blocks on the database, and results stream with backpressure from
+ * the connection to the HTTP response.
+ *
+ * Active when doctorschedule.data-path is "r2dbc". Reads always go to the database; writes are still reported to
+ * the ScheduleChangeNotifier once committed, so the in-process index and the schedule versions stay correct. Writes run in a reactive
+ * transaction that holds the doctor's schedule lock while checking for overlapping time ranges, and write their
+ * outbox event in that same transaction. Updates and deletes are conditional on the schedule's version.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+@ConditionalOnProperty(name = "doctorschedule.data-path", havingValue = "r2dbc")
+public class R2dbcDoctorScheduleServiceImpl implements ReactiveDoctorScheduleService {
+
+    private final Logger logger = LoggerFactory.getLogger(R2dbcDoctorScheduleServiceImpl.class);
+
+    // PostgreSQL SQLState reported when a unique constraint rejects a write
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // Order of the per-doctor queries (ORDER BY date, start_time), in which PostgreSQL sorts nulls last
+    private static final Comparator<DoctorSchedule> SLOT_ORDER = Comparator
+            .comparing(DoctorSchedule::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DoctorSchedule::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private ReactiveDoctorScheduleRepository repo;
+
+    @Autowired
+    private ScheduleChangeNotifier changes;
+
+    @Autowired
+    private ScheduleOutboxWriter outbox;
+
+    @Autowired
+    private ScheduleTemplateService templates;
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Autowired
+    private SingleFlightScheduleReads singleFlight;
+
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    // Reactive transactions for the writes. Built here rather than exposed as a bean, so that the JPA transaction
+    // manager stays the only one @Transactional can pick.
+    private final TransactionalOperator transactional;
+
+    public R2dbcDoctorScheduleServiceImpl(ConnectionFactory connectionFactory) {
+        this.transactional = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public Mono<String> saveDoctorSchedule(DoctorSchedule schedule) {
+        return checkOverlap(schedule, null)
+                .then(repo.insert(schedule))
+                .flatMap(slotId -> {
+                    schedule.setSlotId(slotId);
+                    return appendOutbox(ScheduleChangeEventDTO.Type.CREATED, schedule).thenReturn(slotId);
+                })
+                .as(transactional::transactional)
+                .switchIfEmpty(Mono.error(() -> metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE, new ScheduleConflictException(
+                        "Schedule Already Exists For Date : " + schedule.getDate() + " And Shift : " + schedule.getShift()))))
+                .map(slotId -> {
+                    logger.info("In Service - Doctor Schedule Saved with ID: {}", slotId);
+                    changes.changed(ScheduleChangeEventDTO.Type.CREATED, schedule.getDoctorId(), slotId);
+                    return "Schedule Saved Successfully !!";
+                });
+    }
+
+    @Override
+    public Mono<DoctorSchedule> getDoctorScheduleById(Long slotId) {
+        return repo.findById(slotId)
+                .switchIfEmpty(Mono.error(() -> metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE,
+                        new ScheduleNotFoundException("No Schedule with this ID: " + slotId))));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getAllDoctorsList() {
+        return repo.findAll();
+    }
+
+    @Override
+    public Mono<DoctorSchedule> updateScheduleByID(long slotId, DoctorSchedule doctorSchedule) {
+        return repo.findById(slotId)
+                // The doctor of a schedule never changes, so the overlap check uses the stored doctorId
+                .flatMap(existing -> {
+                    if (doctorSchedule.getVersion() != null && !doctorSchedule.getVersion().equals(existing.getVersion())) {
+                        return Mono.<DoctorSchedule>error(staleVersion(slotId, doctorSchedule.getVersion(), existing.getVersion()));
+                    }
+                    DoctorSchedule details = new DoctorSchedule(slotId, existing.getDoctorId(), doctorSchedule.getDate(),
+                            doctorSchedule.getStartTime(), doctorSchedule.getEndTime(), doctorSchedule.getTypeAvailability(),
+                            doctorSchedule.getAddressAvailability(), doctorSchedule.getShift());
+                    return checkOverlap(details, slotId)
+                            // Matches no row if another request updated the schedule since it was read
+                            .then(repo.update(slotId, existing.getVersion(), details))
+                            .switchIfEmpty(Mono.defer(() -> repo.findVersion(slotId)
+                                    .flatMap(current -> Mono.<DoctorSchedule>error(staleVersion(slotId, existing.getVersion(), current)))))
+                            .flatMap(updated -> appendOutbox(ScheduleChangeEventDTO.Type.UPDATED, updated).thenReturn(updated));
+                })
+                .as(transactional::transactional)
+                .onErrorMap(R2dbcDoctorScheduleServiceImpl::isUniqueViolation, e -> metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE,
+                        new ScheduleConflictException("Schedule Already Exists For Date : " + doctorSchedule.getDate()
+                                + " And Shift : " + doctorSchedule.getShift())))
+                .switchIfEmpty(Mono.error(() -> metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE,
+                        new ScheduleNotFoundException("No Doctor Schedule Found with this ID: " + slotId))))
+                .doOnNext(updated -> changes.changed(ScheduleChangeEventDTO.Type.UPDATED, updated.getDoctorId(), slotId));
+    }
+
+    // A single conditional UPDATE; see DoctorScheduleServiceImpl.patchScheduleByID for why the overlap check follows the write
+    @Override
+    public Mono<DoctorSchedule> patchScheduleByID(long slotId, SchedulePatchDTO patch) {
+        if (patch.getVersion() == null) {
+            return Mono.error(new IllegalArgumentException("The version of the schedule is required"));
+        }
+        return lockDoctorOf(slotId)
+                .then(repo.patch(slotId, patch))
+                .flatMap(patched -> (patch.changesTimeRange() ? checkOverlap(patched, slotId) : Mono.<Void>empty())
+                        .then(appendOutbox(ScheduleChangeEventDTO.Type.UPDATED, patched))
+                        .thenReturn(patched))
+                .as(transactional::transactional)
+                .onErrorMap(R2dbcDoctorScheduleServiceImpl::isUniqueViolation, e -> metrics.rejected(ScheduleMetrics.REJECTED_DUPLICATE,
+                        new ScheduleConflictException("Schedule Already Exists For Date : " + patch.getDate()
+                                + " And Shift : " + patch.getShift())))
+                .switchIfEmpty(Mono.defer(() -> missingOrStale(slotId, patch.getVersion())))
+                .doOnNext(patched -> changes.changed(ScheduleChangeEventDTO.Type.UPDATED, patched.getDoctorId(), slotId));
+    }
+
+    @Override
+    public Mono<DoctorSchedule> deleteScheduleByID(long slotId, Long expectedVersion) {
+        return lockDoctorOf(slotId)
+                .then(repo.deleteById(slotId, expectedVersion))
+                .flatMap(deleted -> appendOutbox(ScheduleChangeEventDTO.Type.DELETED, deleted).thenReturn(deleted))
+                .as(transactional::transactional)
+                .switchIfEmpty(Mono.defer(() -> missingOrStale(slotId, expectedVersion)))
+                .doOnNext(deleted -> changes.changed(ScheduleChangeEventDTO.Type.DELETED, deleted.getDoctorId(), slotId));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> findByDoctorId(long doctorId) {
+        LocalDate today = LocalDate.now();
+        return withOccurrences("findByDoctorId", doctorId, repo.findByDoctorId(doctorId), today,
+                today.plusDays(templates.getHorizonDays()));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getTodaysAndUpcomingScheduleForDoctor(Long doctorId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = (from == null || from.isBefore(today)) ? today : from;
+        if (to != null && to.isBefore(start)) {
+            return Flux.error(new IllegalArgumentException("Invalid window: " + start + " to " + to));
+        }
+        LocalDate expandUntil = to != null ? to : start.plusDays(templates.getHorizonDays());
+        // Concurrent reads of the same doctor and window share one load
+        return singleFlight.get(doctorId, start, to, () -> withOccurrences("todayAndUpcoming", doctorId,
+                repo.findByDoctorIdInWindow(doctorId, start, to), start, expandUntil).collectList())
+                .flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Flux<DoctorSchedule> getUpcomingSchedules(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        return withOccurrences("upcoming", doctorId, repo.findByDoctorIdAfter(doctorId, today), today.plusDays(1),
+                today.plusDays(templates.getHorizonDays()));
+    }
+
+    @Override
+    public Flux<DoctorSchedule> streamSchedules(Long doctorId, LocalDate date) {
+        return repo.stream(doctorId, date);
+    }
+
+    // Adds the doctor's recurring template occurrences to the stored slots, which keep streaming from the
+    // connection. The templates are expanded once per read: from the template cache when it holds the doctor,
+    // else by the blocking JPA load on the jdbcScheduler. A doctor without occurrences gets the stored stream as
+    // is. The result size is recorded under the query name.
+    private Flux<DoctorSchedule> withOccurrences(String query, Long doctorId, Flux<DoctorSchedule> stored,
+            LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return metrics.resultSize(query, stored);
+        }
+        Mono<List<DoctorSchedule>> occurrences = Mono.defer(() -> {
+            List<DoctorSchedule> cached = templates.expandIfCached(doctorId, from, to);
+            return cached != null ? Mono.just(cached)
+                    : Mono.fromCallable(() -> templates.expand(doctorId, from, to)).subscribeOn(jdbcScheduler);
+        });
+        return metrics.resultSize(query, occurrences.flatMapMany(list -> list.isEmpty() ? stored
+                // A stored slot replaces the occurrence of its date and shift, which may sort before it, so the
+                // merged stream is held back one date at a time
+                : Flux.mergeComparing(SLOT_ORDER, stored, Flux.fromIterable(list))
+                        .bufferUntilChanged(R2dbcDoctorScheduleServiceImpl::dayOf)
+                        .concatMapIterable(R2dbcDoctorScheduleServiceImpl::withoutReplacedOccurrences)));
+    }
+
+    // Drops the occurrences of one date whose shift a stored slot of that date already has
+    private static List<DoctorSchedule> withoutReplacedOccurrences(List<DoctorSchedule> day) {
+        Set<String> storedShifts = new HashSet<>();
+        boolean hasOccurrences = false;
+        for (DoctorSchedule slot : day) {
+            if (slot.getTemplateId() == null) {
+                storedShifts.add(slot.getShift());
+            } else {
+                hasOccurrences = true;
+            }
+        }
+        if (storedShifts.isEmpty() || !hasOccurrences) {
+            return day;
+        }
+        List<DoctorSchedule> kept = new ArrayList<>(day.size());
+        for (DoctorSchedule slot : day) {
+            if (slot.getTemplateId() == null || !storedShifts.contains(slot.getShift())) {
+                kept.add(slot);
+            }
+        }
+        return kept;
+    }
+
+    // Stored slots without a date come last, in one group of their own
+    private static LocalDate dayOf(DoctorSchedule slot) {
+        return slot.getDate() == null ? LocalDate.MAX : slot.getDate().toLocalDate();
+    }
+
+    // Locks the doctor of a schedule before a conditional statement locks its row. Saves and updates take the
+    // doctor's lock first, so taking the row's first would let them deadlock with this write.
+    private Mono<Void> lockDoctorOf(long slotId) {
+        return repo.findDoctorId(slotId).flatMap(repo::lockDoctor);
+    }
+
+    // Explains why a conditional write matched no row: the schedule is gone, or it has another version by now
+    private Mono<DoctorSchedule> missingOrStale(long slotId, Long expectedVersion) {
+        Mono<Long> current = expectedVersion == null ? Mono.empty() : repo.findVersion(slotId);
+        return current
+                .flatMap(version -> Mono.<DoctorSchedule>error(staleVersion(slotId, expectedVersion, version)))
+                .switchIfEmpty(Mono.error(() -> metrics.notFound(ScheduleMetrics.ENTITY_SCHEDULE,
+                        new ScheduleNotFoundException("No Doctor Schedule found with this ID: " + slotId))));
+    }
+
+    // Tells whether a failed write was rejected by a unique constraint (SQLState 23505) rather than another integrity
+    // rule, like DoctorScheduleServiceImpl does for JPA; NOT NULL and check violations are passed on unchanged
+    private static boolean isUniqueViolation(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException && UNIQUE_VIOLATION.equals(((R2dbcException) cause).getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ScheduleConflictException staleVersion(long slotId, Long expectedVersion, Long currentVersion) {
+        return metrics.rejected(ScheduleMetrics.REJECTED_STALE, new ScheduleConflictException("Doctor Schedule " + slotId
+                + " was changed by another request: expected version " + expectedVersion + " but found " + currentVersion));
+    }
+
+    // Writes the change to the outbox within the surrounding transaction. The doctor is locked first, as in
+    // ScheduleOutboxWriter, so the doctor's events are numbered in commit order.
+    private Mono<Void> appendOutbox(ScheduleChangeEventDTO.Type type, DoctorSchedule schedule) {
+        Mono<Void> lock = schedule.getDoctorId() == null ? Mono.empty() : repo.lockDoctor(schedule.getDoctorId());
+        return Mono.fromCallable(() -> outbox.toPayload(schedule))
+                .flatMap(payload -> lock.then(repo.appendOutbox(type.name(), schedule.getDoctorId(), schedule.getSlotId(), payload)));
+    }
+
+    // Fails with ScheduleConflictException if the schedule's time range overlaps another schedule of the doctor that
+    // day, or an occurrence of the doctor's templates of another shift. Locks the doctor's schedule until the
+    // surrounding transaction ends; incomplete time ranges are not checked. The templates are read by the blocking
+    // JPA load on the jdbcScheduler once the lock is held, so every template committed before is seen.
+    private Mono<Void> checkOverlap(DoctorSchedule schedule, Long excludeSlotId) {
+        if (schedule.getDoctorId() == null || schedule.getDate() == null || schedule.getStartTime() == null
+                || schedule.getEndTime() == null || !schedule.getEndTime().after(schedule.getStartTime())) {
+            return Mono.empty();
+        }
+        return repo.lockDoctor(schedule.getDoctorId())
+                .then(repo.findOverlapping(schedule.getDoctorId(), schedule.getDate().toLocalDate(),
+                        schedule.getStartTime().toLocalTime(), schedule.getEndTime().toLocalTime(), excludeSlotId))
+                .flatMap(overlapping -> Mono.<Void>error(metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP,
+                        new ScheduleConflictException("Schedule Overlaps Existing Schedule On " + overlapping.getDate()
+                                + " From " + overlapping.getStartTime() + " To " + overlapping.getEndTime()))))
+                .then(Mono.fromCallable(() -> templates.findOverlappingOccurrence(schedule)).subscribeOn(jdbcScheduler))
+                .flatMap(occurrence -> Mono.error(metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP,
+                        new ScheduleConflictException("Schedule Overlaps Template " + occurrence.getTemplateId() + " On "
+                                + occurrence.getDate() + " From " + occurrence.getStartTime() + " To " + occurrence.getEndTime()))));
+    }
+}
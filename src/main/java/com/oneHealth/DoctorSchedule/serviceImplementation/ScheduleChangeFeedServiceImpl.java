@@ -0,0 +1,116 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.service.ScheduleChangeFeedService;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * The ScheduleChangeFeedServiceImpl class fans committed schedule changes out to the subscribed clients.
+ *
+ * Every doctor with at least one subscriber has its own multicast sink, so publishing a change costs nothing for
+ * doctors nobody watches and only reaches the subscribers of that doctor. The sink is created by the first
+ * subscriber and dropped with the last one. The sink itself never buffers: each subscription has a bounded buffer
+ * of its own that drops the oldest events once full, so a slow client loses stale events instead of holding memory
+ * or slowing down the writers.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class ScheduleChangeFeedServiceImpl implements ScheduleChangeFeedService {
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Value("${doctorschedule.changes.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${doctorschedule.changes.max-doctors:100}")
+    private int maxDoctors;
+
+    // The sink of every doctor that currently has subscribers
+    private final ConcurrentHashMap<Long, DoctorFeed> feeds = new ConcurrentHashMap<>();
+
+    private static final class DoctorFeed {
+
+        private final Sinks.Many<ScheduleChangeEventDTO> sink = Sinks.many().multicast().directBestEffort();
+
+        // Only read and written inside the map's compute functions
+        private int subscribers;
+    }
+
+    /**
+     * Subscribes to the changes of the given doctors.
+     *
+     * @param doctorIds The doctors to watch.
+     * @return Flux<ScheduleChangeEventDTO> The changes committed from now on, never completing.
+     * @throws IllegalArgumentException If no doctor or more than doctorschedule.changes.max-doctors doctors are given.
+     */
+    @Override
+    public Flux<ScheduleChangeEventDTO> subscribe(Collection<Long> doctorIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (doctorIds != null) {
+            for (Long doctorId : doctorIds) {
+                if (doctorId != null) {
+                    ids.add(doctorId);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one doctorId is required");
+        }
+        if (ids.size() > maxDoctors) {
+            throw new IllegalArgumentException("At most " + maxDoctors + " doctors can be watched at once");
+        }
+
+        List<Flux<ScheduleChangeEventDTO>> perDoctor = new ArrayList<>(ids.size());
+        for (Long doctorId : ids) {
+            perDoctor.add(subscribe(doctorId));
+        }
+        return Flux.merge(perDoctor)
+                .onBackpressureBuffer(bufferSize, dropped -> metrics.changeDropped(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    @Override
+    public void publish(ScheduleChangeEventDTO event) {
+        DoctorFeed feed = feeds.get(event.getDoctorId());
+        if (feed == null) {
+            return;
+        }
+        // Writes of the same doctor can commit on several threads at once, and a sink takes one emission at a time
+        synchronized (feed) {
+            feed.sink.tryEmitNext(event);
+        }
+    }
+
+    private Flux<ScheduleChangeEventDTO> subscribe(Long doctorId) {
+        return Flux.defer(() -> {
+            DoctorFeed feed = feeds.compute(doctorId, (id, existing) -> {
+                DoctorFeed joined = existing != null ? existing : new DoctorFeed();
+                joined.subscribers++;
+                return joined;
+            });
+            return feed.sink.asFlux().doFinally(signal -> release(doctorId, feed));
+        });
+    }
+
+    // Drops the doctor's sink when its last subscriber leaves
+    private void release(Long doctorId, DoctorFeed feed) {
+        feeds.computeIfPresent(doctorId, (id, current) -> current == feed && --current.subscribers == 0 ? null : current);
+    }
+}
@@ -0,0 +1,97 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.cache.ScheduleVersionRegistry;
+import com.oneHealth.DoctorSchedule.cache.SharedScheduleCache;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
+import com.oneHealth.DoctorSchedule.routing.ReadYourWritesTracker;
+import com.oneHealth.DoctorSchedule.service.ScheduleChangeFeedService;
+
+/**
+ * Single place where the write paths report that a doctor's schedule changed.
+ *
+ * Within a transaction the change is published once the transaction commits, so no reader caches or validates
+ * uncommitted state; outside a transaction (e.g. after a reactive transaction completed) it is published at once.
+ * Publishing first pins the doctor's reads to the primary, so a reload does not pick up a lagging replica's
+ * state, and drops the doctor's entries from the shared cache tier, which tells the other instances; it then drops
+ * the doctor from the schedule index and the single-flight reads and bumps the doctor's version, in that order,
+ * so a reader that sees the new version also reloads the slots; last, the change is pushed to the change feed.
+ * Writes reported by other instances through the shared tier pin the doctor here as well, so this instance's
+ * reloads do not read a replica that has not caught up with them either, and then go through the same local steps.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ScheduleChangeNotifier {
+
+    @Autowired
+    private DoctorScheduleIndex index;
+
+    @Autowired
+    private ScheduleVersionRegistry versions;
+
+    @Autowired
+    private SingleFlightScheduleReads singleFlight;
+
+    @Autowired
+    private ScheduleChangeFeedService feed;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    private final SharedScheduleCache sharedCache;
+
+    public ScheduleChangeNotifier(SharedScheduleCache sharedCache) {
+        this.sharedCache = sharedCache;
+        sharedCache.addInvalidationListener((type, doctorId, slotId) -> {
+            if (doctorId != null) {
+                readYourWrites.written(doctorId, slotId);
+                publishLocally(type, doctorId, slotId);
+            }
+        });
+    }
+
+    /**
+     * Reports that a doctor's slots or templates changed.
+     *
+     * @param type     The kind of write.
+     * @param doctorId The ID of the doctor whose schedule changed.
+     * @param slotId   The ID of the slot written, or null for bulk imports and template changes.
+     */
+    public void changed(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        if (doctorId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(type, doctorId, slotId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(type, doctorId, slotId);
+            }
+        });
+    }
+
+    private void publish(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        readYourWrites.written(doctorId, slotId);
+        sharedCache.invalidate(type, doctorId, slotId);
+        publishLocally(type, doctorId, slotId);
+    }
+
+    // Drops this instance's cached copies and tells its change feed subscribers
+    private void publishLocally(ScheduleChangeEventDTO.Type type, Long doctorId, Long slotId) {
+        index.invalidate(doctorId);
+        singleFlight.invalidate(doctorId);
+        ScheduleVersionRegistry.Version version = versions.bump(doctorId);
+        feed.publish(new ScheduleChangeEventDTO(type, doctorId, slotId, version.version(), System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.repository.ScheduleHistoryRepository;
+import com.oneHealth.DoctorSchedule.service.ScheduleHistoryService;
+
+/**
+ * The ScheduleHistoryServiceImpl class reads a doctor's history from the archive and the live partitions.
+ * The range is capped so one request cannot scan years of slots. With shards it reads the doctor's shard.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class ScheduleHistoryServiceImpl implements ScheduleHistoryService {
+
+    @Autowired
+    private ScheduleHistoryRepository historyRepo;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    @Value("${doctorschedule.history.max-days:366}")
+    private int maxDays;
+
+    /**
+     * Retrieves a doctor's archived and live slots between two dates.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The first date, inclusive.
+     * @param to       The last date, inclusive.
+     * @return List<DoctorSchedule> The slots ordered by date and start time.
+     * @throws IllegalArgumentException If the date range is invalid or too long.
+     */
+    @Override
+    public List<DoctorSchedule> getHistory(long doctorId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        if (from.plusDays(maxDays).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Date range exceeds " + maxDays + " days");
+        }
+        return shardCoordinator.readOnShardOf(doctorId, () -> historyRepo.findHistory(doctorId, from, to));
+    }
+}
@@ -0,0 +1,55 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.sql.Time;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The time covered by one doctor's schedules on one day, kept as disjoint half-open intervals of seconds of the day
+ * ordered by start. Overlapping or touching intervals are merged when added, so the interval with the greatest start
+ * before a candidate's end is the only one that can overlap it; lookups and insertions are O(log n).
+ *
+ * Not thread-safe: an instance is built and used by a single import.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+final class ScheduleIntervalSet {
+
+    // Start second -> end second of each covered interval
+    private final TreeMap<Integer, Integer> intervals = new TreeMap<>();
+
+    /**
+     * Returns the covered interval that overlaps [start, end), or null if there is none.
+     * Intervals that only touch (one ends exactly when the other starts) do not overlap.
+     */
+    Map.Entry<Integer, Integer> findOverlap(Time start, Time end) {
+        int from = secondOfDay(start);
+        Map.Entry<Integer, Integer> candidate = intervals.lowerEntry(secondOfDay(end));
+        return candidate != null && candidate.getValue() > from ? candidate : null;
+    }
+
+    /**
+     * Adds [start, end) to the covered time, merging it with every interval it overlaps or touches.
+     */
+    void add(Time start, Time end) {
+        int from = secondOfDay(start);
+        int to = secondOfDay(end);
+        Map.Entry<Integer, Integer> before = intervals.floorEntry(from);
+        if (before != null && before.getValue() >= from) {
+            from = before.getKey();
+            to = Math.max(to, before.getValue());
+        }
+        Map.Entry<Integer, Integer> after = intervals.ceilingEntry(from);
+        while (after != null && after.getKey() <= to) {
+            to = Math.max(to, after.getValue());
+            intervals.remove(after.getKey());
+            after = intervals.ceilingEntry(from);
+        }
+        intervals.put(from, to);
+    }
+
+    static int secondOfDay(Time time) {
+        return time.toLocalTime().toSecondOfDay();
+    }
+}
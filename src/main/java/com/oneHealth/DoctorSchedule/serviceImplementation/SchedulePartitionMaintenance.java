@@ -0,0 +1,140 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.repository.SchedulePartitionRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+
+/**
+ * The SchedulePartitionMaintenance class keeps the monthly partitions of doctor_schedule in shape.
+ *
+ * At startup and then daily it creates the partitions of the current month and the next months-ahead months,
+ * and moves every month older than retention-months before the current one into doctor_schedule_archive, along
+ * with old rows of the default partition. The live table, and with it every hot query, then only spans the
+ * retention window and the upcoming months; archived slots are served by the history endpoint.
+ *
+ * Every step runs in its own transaction behind the maintenance lock, so with several instances only one does the
+ * work. With shards every shard is maintained in turn, behind its own lock. Doctors whose slots were archived are
+ * reported to the ScheduleChangeNotifier, since their full schedule got shorter.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "doctorschedule.partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulePartitionMaintenance {
+
+    private final Logger logger = LoggerFactory.getLogger(SchedulePartitionMaintenance.class);
+
+    @Autowired
+    private SchedulePartitionRepository partitions;
+
+    @Autowired
+    private ScheduleChangeNotifier changes;
+
+    @Autowired
+    private ShardRouter shards;
+
+    // Months after the current one whose partitions are created ahead of time
+    @Value("${doctorschedule.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // Whole months before the current one kept in the live table; older months are archived
+    @Value("${doctorschedule.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${doctorschedule.partitions.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    private final TransactionTemplate transaction;
+
+    public SchedulePartitionMaintenance(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates the upcoming partitions and archives the months past the retention.
+     */
+    @Scheduled(cron = "${doctorschedule.partitions.maintenance.cron:0 30 2 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (String shard : shards.getShards()) {
+            try {
+                createUpcoming(shard, current);
+                if (archiveEnabled) {
+                    archiveBefore(shard, current.minusMonths(Math.max(0, retentionMonths)));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Partitions - Maintenance of doctor_schedule on shard {} failed, retrying in the next run", shard, e);
+            }
+        }
+    }
+
+    private void createUpcoming(String shard, YearMonth current) {
+        SortedSet<YearMonth> existing = inTransaction(shard, partitions::findPartitionMonths);
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            if (existing.contains(month)) {
+                continue;
+            }
+            YearMonth created = month;
+            Integer moved = inTransaction(shard, () -> partitions.createPartition(created));
+            if (moved == null) {
+                return;
+            }
+            logger.info("Partitions - Created {} with {} rows moved from the default partition",
+                    SchedulePartitionRepository.partitionName(created), moved);
+        }
+    }
+
+    private void archiveBefore(String shard, YearMonth oldestKept) {
+        SortedSet<YearMonth> existing = inTransaction(shard, partitions::findPartitionMonths);
+        for (YearMonth month : existing.headSet(oldestKept)) {
+            Set<Long> doctorIds = inTransaction(shard, () -> notifyArchived(partitions.archivePartition(month)));
+            if (doctorIds == null) {
+                return;
+            }
+            logger.info("Partitions - Archived {} with slots of {} doctors", SchedulePartitionRepository.partitionName(month),
+                    doctorIds.size());
+        }
+        Set<Long> doctorIds = inTransaction(shard, () -> notifyArchived(partitions.archiveDefaultBefore(oldestKept.atDay(1))));
+        if (doctorIds != null && !doctorIds.isEmpty()) {
+            logger.info("Partitions - Archived slots before {} of {} doctors from the default partition", oldestKept,
+                    doctorIds.size());
+        }
+    }
+
+    // Reported once the archiving transaction commits
+    private Set<Long> notifyArchived(Set<Long> doctorIds) {
+        doctorIds.forEach(doctorId -> changes.changed(ScheduleChangeEventDTO.Type.ARCHIVED, doctorId, null));
+        return doctorIds;
+    }
+
+    // Runs one step on a shard behind its maintenance lock; returns null if another instance holds the lock
+    private <T> T inTransaction(String shard, Supplier<T> step) {
+        return transaction.execute(status -> {
+            shards.useShard(shard);
+            return partitions.tryLockMaintenance() ? step.get() : null;
+        });
+    }
+}
@@ -0,0 +1,429 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.cache.SharedScheduleCache;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.entity.ScheduleTemplate;
+import com.oneHealth.DoctorSchedule.exception.ScheduleConflictException;
+import com.oneHealth.DoctorSchedule.exception.ScheduleNotFoundException;
+import com.oneHealth.DoctorSchedule.metrics.ScheduleMetrics;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.repository.ScheduleTemplateRepository;
+import com.oneHealth.DoctorSchedule.service.ScheduleTemplateService;
+
+/**
+ * The ScheduleTemplateServiceImpl class stores recurring schedule templates and expands them on read.
+ *
+ * Storage grows with the number of templates rather than with elapsed time: an occurrence only exists for the
+ * duration of a read, and a read only expands the dates of its window. A doctor's templates are kept in a small
+ * bounded in-process map so that expanding them costs no query on the hot read paths; the map entry is dropped
+ * whenever one of the doctor's templates changes, on this instance or, through the shared cache tier, on another.
+ *
+ * A stored slot for the same date and shift as an occurrence replaces the occurrence, so a single week can be
+ * changed by writing a concrete slot without touching the template. Otherwise occurrences must not overlap: a new
+ * template is checked against the doctor's other templates and stored slots, and a new slot against the
+ * occurrences on its date, under the same per-doctor lock as the overlap check of slots.
+ *
+ * With shards a doctor's templates live on the doctor's shard, and expanding the templates of all doctors reads
+ * every shard in parallel.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
+
+    private final Logger logger = LoggerFactory.getLogger(ScheduleTemplateServiceImpl.class);
+
+    private static final Comparator<DoctorSchedule> SLOT_ORDER = Comparator
+            .comparing(DoctorSchedule::getDate)
+            .thenComparing(DoctorSchedule::getStartTime);
+
+    @Autowired
+    private ScheduleTemplateRepository repo;
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ScheduleMetrics metrics;
+
+    @Autowired
+    private ScheduleChangeNotifier changes;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    @Value("${doctorschedule.templates.horizon-days:90}")
+    private int horizonDays;
+
+    private final int maxCachedDoctors;
+
+    // Access-ordered, so the least recently read doctor is evicted first. Guarded by "this".
+    private final LinkedHashMap<Long, List<ScheduleTemplate>> cache;
+
+    // Incremented on every invalidation, so loads that raced with a write are not cached. Guarded by "this".
+    private long invalidationEpoch;
+
+    public ScheduleTemplateServiceImpl(@Value("${doctorschedule.templates.max-cached-doctors:10000}") int maxCachedDoctors,
+            SharedScheduleCache sharedCache) {
+        this.maxCachedDoctors = maxCachedDoctors;
+        // Template changes committed on other instances
+        sharedCache.addInvalidationListener((type, doctorId, slotId) -> {
+            if (type == ScheduleChangeEventDTO.Type.TEMPLATE_CHANGED) {
+                invalidate(doctorId);
+            }
+        });
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<ScheduleTemplate>> eldest) {
+                return size() > ScheduleTemplateServiceImpl.this.maxCachedDoctors;
+            }
+        };
+    }
+
+    /**
+     * Saves a recurring schedule template.
+     *
+     * @param template The template to save.
+     * @return ScheduleTemplate The saved template.
+     * @throws IllegalArgumentException  If a required field is missing or the times or dates are out of order.
+     * @throws ScheduleConflictException If an occurrence would overlap an occurrence of another of the doctor's
+     *                                   templates, or a stored slot of another shift.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public ScheduleTemplate saveTemplate(ScheduleTemplate template) throws ScheduleConflictException {
+        if (template.getDoctorId() == null || template.getDayOfWeek() == null || template.getStartTime() == null
+                || template.getEndTime() == null || template.getValidFrom() == null) {
+            throw new IllegalArgumentException("doctorId, dayOfWeek, startTime, endTime and validFrom are required");
+        }
+        if (!template.getEndTime().after(template.getStartTime())) {
+            throw new IllegalArgumentException("endTime must be after startTime");
+        }
+        if (template.getValidUntil() != null && template.getValidUntil().before(template.getValidFrom())) {
+            throw new IllegalArgumentException("validUntil must not be before validFrom");
+        }
+        shardCoordinator.writingDoctor(template.getDoctorId());
+        checkOverlap(template);
+        ScheduleTemplate saved = repo.save(template);
+        invalidateAfterCommit(saved.getDoctorId());
+        logger.info("In Service - Schedule Template Saved with ID: {} for doctor {}", saved.getTemplateId(), saved.getDoctorId());
+        return saved;
+    }
+
+    @Override
+    public List<ScheduleTemplate> getTemplatesForDoctor(Long doctorId) {
+        long epoch;
+        synchronized (this) {
+            List<ScheduleTemplate> cached = cache.get(doctorId);
+            if (cached != null) {
+                return cached;
+            }
+            epoch = invalidationEpoch;
+        }
+        List<ScheduleTemplate> templates = Collections.unmodifiableList(
+                shardCoordinator.readOnShardOf(doctorId, () -> repo.findByDoctorId(doctorId)));
+        synchronized (this) {
+            if (epoch == invalidationEpoch) {
+                cache.put(doctorId, templates);
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * Stops a template from applying on one date. An exclusion only removes an occurrence, so it needs no overlap
+     * check, but it takes the doctor's lock like every other template write.
+     *
+     * @param templateId The ID of the template.
+     * @param date       The date to exclude.
+     * @return ScheduleTemplate The updated template.
+     * @throws ScheduleNotFoundException If no template is found with the given ID.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public ScheduleTemplate addExcludedDate(Long templateId, LocalDate date) throws ScheduleNotFoundException {
+        shardCoordinator.writingTemplate(templateId);
+        ScheduleTemplate template = repo.findById(templateId)
+                .orElseThrow(() -> metrics.notFound(ScheduleMetrics.ENTITY_TEMPLATE,
+                        new ScheduleNotFoundException("No Schedule Template found with this ID: " + templateId)));
+        jdbcRepo.lockDoctors(List.of(template.getDoctorId()));
+        template.getExcludedDates().add(Date.valueOf(date));
+        invalidateAfterCommit(template.getDoctorId());
+        return template;
+    }
+
+    /**
+     * Deletes a template. Stored slots created from the same pattern are not affected.
+     *
+     * @param templateId The ID of the template.
+     * @return ScheduleTemplate The deleted template.
+     * @throws ScheduleNotFoundException If no template is found with the given ID.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public ScheduleTemplate deleteTemplate(Long templateId) throws ScheduleNotFoundException {
+        shardCoordinator.writingTemplate(templateId);
+        ScheduleTemplate template = repo.findById(templateId)
+                .orElseThrow(() -> metrics.notFound(ScheduleMetrics.ENTITY_TEMPLATE,
+                        new ScheduleNotFoundException("No Schedule Template found with this ID: " + templateId)));
+        repo.delete(template);
+        invalidateAfterCommit(template.getDoctorId());
+        logger.info("In Service - Schedule Template Deleted Successfully with ID: {}", templateId);
+        return template;
+    }
+
+    @Override
+    public List<DoctorSchedule> expand(Long doctorId, LocalDate from, LocalDate to) {
+        return expand(getTemplatesForDoctor(doctorId), from, to);
+    }
+
+    /**
+     * Expands a doctor's templates within a window if they are cached, so reactive callers can skip the blocking
+     * load on the hot path and only move to a blocking thread on a miss.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The first date to expand templates for.
+     * @param to       The last date to expand templates for.
+     * @return List<DoctorSchedule> The occurrences ordered by date and start time, or null if the doctor's
+     *         templates are not cached.
+     */
+    @Override
+    public List<DoctorSchedule> expandIfCached(Long doctorId, LocalDate from, LocalDate to) {
+        List<ScheduleTemplate> cached;
+        synchronized (this) {
+            cached = cache.get(doctorId);
+        }
+        return cached == null ? null : expand(cached, from, to);
+    }
+
+    /**
+     * Finds an occurrence of the doctor's templates that a slot would overlap on its date. Occurrences of the slot's
+     * own shift do not count, since the slot replaces them. The templates are read from the database rather than
+     * the cache, as the caller holds the doctor's lock and must see every committed template.
+     *
+     * @param slot The slot about to be written, with a complete time range.
+     * @return DoctorSchedule The earliest overlapping occurrence, or null if there is none.
+     */
+    @Override
+    public DoctorSchedule findOverlappingOccurrence(DoctorSchedule slot) {
+        Long doctorId = slot.getDoctorId();
+        return findOverlappingOccurrence(slot, shardCoordinator.readOnShardOf(doctorId, () -> repo.findByDoctorId(doctorId)));
+    }
+
+    /**
+     * Finds an occurrence of the given templates that a slot would overlap on its date, for callers checking many
+     * slots of a doctor against the templates they read once.
+     *
+     * @param slot      The slot about to be written, with a complete time range.
+     * @param templates The current templates of the slot's doctor.
+     * @return DoctorSchedule The earliest overlapping occurrence, or null if there is none.
+     */
+    @Override
+    public DoctorSchedule findOverlappingOccurrence(DoctorSchedule slot, List<ScheduleTemplate> templates) {
+        LocalDate date = slot.getDate().toLocalDate();
+        for (DoctorSchedule occurrence : expand(templates, date, date)) {
+            if (!Objects.equals(occurrence.getShift(), slot.getShift())
+                    && occurrence.getStartTime().before(slot.getEndTime()) && occurrence.getEndTime().after(slot.getStartTime())) {
+                return occurrence;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<DoctorSchedule> expandAll(LocalDate from, LocalDate to) {
+        List<DoctorSchedule> occurrences = new ArrayList<>();
+        List<ScheduleTemplate> valid = shardCoordinator.gather(
+                shard -> repo.findValidBetween(Date.valueOf(from), Date.valueOf(to)), ScheduleTemplate::getDoctorId);
+        for (ScheduleTemplate template : valid) {
+            expand(template, from, to, occurrences);
+        }
+        occurrences.sort(Comparator.comparing(DoctorSchedule::getDoctorId).thenComparing(SLOT_ORDER));
+        return occurrences;
+    }
+
+    /**
+     * Adds a doctor's template occurrences within a window to the doctor's stored slots.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param stored   The doctor's stored slots, ordered by date and start time.
+     * @param from     The first date to expand templates for.
+     * @param to       The last date to expand templates for.
+     * @return List<DoctorSchedule> The stored slots and the occurrences not replaced by a stored slot,
+     *         ordered by date and start time.
+     */
+    @Override
+    public List<DoctorSchedule> withOccurrences(Long doctorId, List<DoctorSchedule> stored, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return stored;
+        }
+        List<DoctorSchedule> occurrences = expand(doctorId, from, to);
+        if (occurrences.isEmpty()) {
+            return stored;
+        }
+
+        // Stored slots replace the occurrence with the same date and shift
+        Set<String> storedKeys = new HashSet<>();
+        for (DoctorSchedule slot : stored) {
+            if (slot.getDate() != null) {
+                storedKeys.add(slot.getDate().toLocalDate() + "|" + slot.getShift());
+            }
+        }
+
+        // Merge the two sorted lists
+        List<DoctorSchedule> merged = new ArrayList<>(stored.size() + occurrences.size());
+        int i = 0;
+        for (DoctorSchedule occurrence : occurrences) {
+            if (storedKeys.contains(occurrence.getDate().toLocalDate() + "|" + occurrence.getShift())) {
+                continue;
+            }
+            while (i < stored.size() && !isAfter(stored.get(i), occurrence)) {
+                merged.add(stored.get(i++));
+            }
+            merged.add(occurrence);
+        }
+        while (i < stored.size()) {
+            merged.add(stored.get(i++));
+        }
+        return merged;
+    }
+
+    @Override
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    private static List<DoctorSchedule> expand(List<ScheduleTemplate> templates, LocalDate from, LocalDate to) {
+        List<DoctorSchedule> occurrences = new ArrayList<>();
+        for (ScheduleTemplate template : templates) {
+            expand(template, from, to, occurrences);
+        }
+        occurrences.sort(SLOT_ORDER);
+        return occurrences;
+    }
+
+    // Adds one occurrence per matching weekday of the window, skipping excluded dates
+    private static void expand(ScheduleTemplate template, LocalDate from, LocalDate to, List<DoctorSchedule> occurrences) {
+        LocalDate start = template.getValidFrom().toLocalDate().isAfter(from) ? template.getValidFrom().toLocalDate() : from;
+        LocalDate end = template.getValidUntil() != null && template.getValidUntil().toLocalDate().isBefore(to)
+                ? template.getValidUntil().toLocalDate() : to;
+        Set<LocalDate> excluded = new HashSet<>();
+        for (Date date : template.getExcludedDates()) {
+            excluded.add(date.toLocalDate());
+        }
+        for (LocalDate date = start.with(TemporalAdjusters.nextOrSame(template.getDayOfWeek()));
+                !date.isAfter(end); date = date.plusWeeks(1)) {
+            if (excluded.contains(date)) {
+                continue;
+            }
+            DoctorSchedule occurrence = new DoctorSchedule(null, template.getDoctorId(), Date.valueOf(date),
+                    template.getStartTime(), template.getEndTime(), template.getTypeAvailability(),
+                    template.getAddressAvailability(), template.getShift());
+            occurrence.setTemplateId(template.getTemplateId());
+            occurrences.add(occurrence);
+        }
+    }
+
+    // Rejects a template whose occurrences would overlap those of another of the doctor's templates, or a stored
+    // slot of another shift. The doctor's schedule stays locked until the surrounding transaction ends, as in the
+    // overlap check of slots, so template and slot writes for the doctor are checked one after another.
+    private void checkOverlap(ScheduleTemplate template) throws ScheduleConflictException {
+        jdbcRepo.lockDoctors(List.of(template.getDoctorId()));
+        for (ScheduleTemplate other : repo.findByDoctorId(template.getDoctorId())) {
+            if (other.getTemplateId().equals(template.getTemplateId()) || other.getDayOfWeek() != template.getDayOfWeek()
+                    || !other.getStartTime().before(template.getEndTime()) || !other.getEndTime().after(template.getStartTime())) {
+                continue;
+            }
+            LocalDate shared = firstSharedDate(template, other);
+            if (shared != null) {
+                throw metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP, new ScheduleConflictException("Template Overlaps Template "
+                        + other.getTemplateId() + " On " + shared + " From " + other.getStartTime() + " To " + other.getEndTime()));
+            }
+        }
+        DoctorSchedule overlapping = jdbcRepo.findSlotOverlappingTemplate(template);
+        if (overlapping != null) {
+            throw metrics.rejected(ScheduleMetrics.REJECTED_OVERLAP, new ScheduleConflictException("Template Overlaps Existing Schedule On "
+                    + overlapping.getDate() + " From " + overlapping.getStartTime() + " To " + overlapping.getEndTime()));
+        }
+    }
+
+    // The first date two templates of the same weekday both apply on, or null if they share none. Every week of the
+    // common validity that is skipped is excluded by one of them, so this stops after at most as many weeks as the
+    // two exclude.
+    private static LocalDate firstSharedDate(ScheduleTemplate a, ScheduleTemplate b) {
+        LocalDate start = later(a.getValidFrom().toLocalDate(), b.getValidFrom().toLocalDate());
+        LocalDate end = a.getValidUntil() == null ? null : a.getValidUntil().toLocalDate();
+        if (b.getValidUntil() != null && (end == null || b.getValidUntil().toLocalDate().isBefore(end))) {
+            end = b.getValidUntil().toLocalDate();
+        }
+        Set<LocalDate> excluded = new HashSet<>();
+        for (Date date : a.getExcludedDates()) {
+            excluded.add(date.toLocalDate());
+        }
+        for (Date date : b.getExcludedDates()) {
+            excluded.add(date.toLocalDate());
+        }
+        for (LocalDate date = start.with(TemporalAdjusters.nextOrSame(a.getDayOfWeek()));
+                end == null || !date.isAfter(end); date = date.plusWeeks(1)) {
+            if (!excluded.contains(date)) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    // Stored slots without a date sort last, like in the index
+    private static boolean isAfter(DoctorSchedule slot, DoctorSchedule occurrence) {
+        return slot.getDate() == null || slot.getStartTime() == null || SLOT_ORDER.compare(slot, occurrence) > 0;
+    }
+
+    private synchronized void invalidate(Long doctorId) {
+        invalidationEpoch++;
+        cache.remove(doctorId);
+    }
+
+    // Drops the doctor's cached templates once the surrounding transaction commits, before the change is published
+    private void invalidateAfterCommit(Long doctorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(doctorId);
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(doctorId);
+                }
+            });
+        }
+        changes.changed(ScheduleChangeEventDTO.Type.TEMPLATE_CHANGED, doctorId, null);
+    }
+}
@@ -0,0 +1,360 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oneHealth.DoctorSchedule.exception.ShardMovedException;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.repository.ShardMoveRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+
+/**
+ * Runs the services' work on the right shard when doctor schedules are sharded (see ShardRouter).
+ *
+ * Reads that span doctors are scattered to every shard in parallel, each in a read-only transaction of its own, and
+ * gathered per shard; callers keep only the rows of doctors the shard owns, since a doctor that just moved still has
+ * a copy on the shard it left. Writes to a doctor lock the doctor on its shard and check that it has not moved away
+ * in the meantime, which the move itself checks under the same lock, so no write lands on a copy no longer in use.
+ * Slots and templates named by ID alone are looked up on the shard whose ID range holds the ID, following their
+ * doctor's moves from there, and on every shard only when that misses.
+ *
+ * Without shards every method runs its work directly, or does nothing.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Component
+public class ShardCoordinator implements DisposableBean {
+
+    // A slot or template found on the shard holding the copy in use of its doctor's data
+    private record Located(String shard, Long doctorId) {
+    }
+
+    @Autowired
+    private ShardRouter shards;
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ShardMoveRepository moveRepo;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TransactionTemplate transaction;
+
+    // Runs the per-shard parts of scattered reads and work on another shard than the caller's transaction. Its
+    // threads are only started for tasks that hold a permit, so they stay bounded by the permits.
+    private final ExecutorService executor;
+
+    // Bounds the tasks running at once; a caller waits for a permit instead of starting yet another thread. Tasks
+    // started by a task take none, since a task waiting for a permit while holding one could deadlock.
+    private final Semaphore permits;
+
+    // Set on the executor's threads while they run a task
+    private final ThreadLocal<Boolean> inTask = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public ShardCoordinator(PlatformTransactionManager transactionManager,
+            @Value("${doctorschedule.shards.max-parallel-tasks:64}") int maxParallelTasks) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.permits = new Semaphore(Math.max(1, maxParallelTasks));
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a read on every shard in parallel.
+     *
+     * @param read The read, given the name of the shard it runs on.
+     * @return Map<String, T> The result of every shard, in shard order.
+     */
+    public <T> Map<String, T> onEveryShard(Function<String, T> read) {
+        return onShards(shards.getShards(), read);
+    }
+
+    /**
+     * Runs a read on some shards in parallel.
+     *
+     * @param names The names of the shards.
+     * @param read  The read, given the name of the shard it runs on.
+     * @return Map<String, T> The result of every shard, in the order given.
+     */
+    public <T> Map<String, T> onShards(Collection<String> names, Function<String, T> read) {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (!shards.isSharded()) {
+            names.forEach(shard -> results.put(shard, inTransaction(readOnlyTransaction, shard, () -> read.apply(shard))));
+            return results;
+        }
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (String shard : names) {
+            pending.put(shard, submit(() -> inTransaction(readOnlyTransaction, shard, () -> read.apply(shard))));
+        }
+        pending.forEach((shard, result) -> results.put(shard, join(result)));
+        return results;
+    }
+
+    /**
+     * Runs a read on every shard in parallel and keeps the rows of the doctors each shard owns.
+     *
+     * @param read     The read, given the name of the shard it runs on.
+     * @param doctorOf The doctor of a row.
+     * @return List<T> The owned rows, shard after shard.
+     */
+    public <T> List<T> gather(Function<String, List<T>> read, Function<T, Long> doctorOf) {
+        List<T> gathered = new ArrayList<>();
+        onEveryShard(read).forEach((shard, rows) -> {
+            for (T row : rows) {
+                if (shards.owns(shard, doctorOf.apply(row))) {
+                    gathered.add(row);
+                }
+            }
+        });
+        return gathered;
+    }
+
+    /**
+     * Groups doctors by the shard holding their schedules.
+     *
+     * @param doctorIds The IDs of the doctors.
+     * @return Map<String, Set<Long>> The doctors of every shard that holds any of them.
+     */
+    public Map<String, Set<Long>> groupByShard(Collection<Long> doctorIds) {
+        Map<String, Set<Long>> groups = new LinkedHashMap<>();
+        for (Long doctorId : doctorIds) {
+            groups.computeIfAbsent(shards.shardOf(doctorId), shard -> new LinkedHashSet<>()).add(doctorId);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs work in a transaction of its own on a shard, also when the caller's transaction runs on another shard.
+     *
+     * @param shard    The name of the shard.
+     * @param readOnly Whether the work only reads.
+     * @param work     The work.
+     * @return T The result of the work.
+     */
+    public <T> T onShard(String shard, boolean readOnly, Supplier<T> work) {
+        TransactionTemplate template = readOnly ? readOnlyTransaction : transaction;
+        if (!shards.isSharded()) {
+            return inTransaction(template, shard, work);
+        }
+        return join(submit(() -> inTransaction(template, shard, work)));
+    }
+
+    /**
+     * Reads a doctor's data on the doctor's shard: directly when unsharded or when the current transaction already
+     * runs there, otherwise in a read-only transaction of its own.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param read     The read.
+     * @return T The result of the read.
+     */
+    public <T> T readOnShardOf(Long doctorId, Supplier<T> read) {
+        if (!shards.isSharded()) {
+            return read.get();
+        }
+        String shard = shards.shardOf(doctorId);
+        return shard.equals(ShardRouter.currentShard()) ? read.get() : onShard(shard, true, read);
+    }
+
+    /**
+     * Runs the current transaction on a doctor's shard and makes sure the doctor did not move away from it.
+     * Must be called before the transaction's first statement.
+     *
+     * @param doctorId The ID of the doctor about to be written, or null for data without a doctor.
+     * @throws ShardMovedException If the doctor moved to another shard; the request can be retried.
+     */
+    public void writingDoctor(Long doctorId) {
+        if (!shards.isSharded()) {
+            return;
+        }
+        shards.useShardOf(doctorId);
+        if (doctorId != null) {
+            lockAndCheck(doctorId);
+        }
+    }
+
+    /**
+     * Makes sure none of the given doctors moved away from the shard of the current transaction. The caller has
+     * locked the doctors there, so a move cannot start until the transaction ends.
+     *
+     * @param doctorIds The IDs of the locked doctors.
+     * @throws ShardMovedException If a doctor moved to another shard; the moves are recorded for the retry.
+     */
+    public void checkNotMoved(Collection<Long> doctorIds) {
+        if (!shards.isSharded() || doctorIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> moved = moveRepo.findMoves(doctorIds);
+        if (moved.isEmpty()) {
+            return;
+        }
+        String from = ShardRouter.currentShard() != null ? ShardRouter.currentShard() : shards.getHomeShard();
+        moved.forEach((doctorId, to) -> shards.recordMove(from, doctorId, to));
+        Map.Entry<Long, String> first = moved.entrySet().iterator().next();
+        throw new ShardMovedException("The schedule of doctor " + first.getKey() + " moved to shard " + first.getValue()
+                + ", retry the request");
+    }
+
+    /**
+     * Runs the current transaction on the shard of a slot about to be written, see writingDoctor, and locks the
+     * slot's doctor there. A slot found on no shard leaves the transaction on the home shard, where the write then
+     * finds nothing.
+     *
+     * The doctor is locked even when schedules are not sharded: saves and updates take the doctor's lock before
+     * the row's, so a conditional UPDATE or DELETE that took the row's lock first could deadlock with them.
+     *
+     * @param slotId The ID of the slot.
+     * @throws ShardMovedException If the slot's doctor moved to another shard.
+     */
+    public void writingSlot(long slotId) {
+        if (shards.isSharded()) {
+            useLocated(locate(moveRepo::findDoctorOfSlot, slotId), true);
+            return;
+        }
+        // The doctor of a slot never changes, so the lock taken here is the one the write needs
+        List<Long> doctorIds = moveRepo.findDoctorOfSlot(slotId);
+        if (!doctorIds.isEmpty() && doctorIds.get(0) != null) {
+            jdbcRepo.lockDoctors(List.of(doctorIds.get(0)));
+        }
+    }
+
+    /**
+     * Runs the current transaction on the shard of a slot about to be read.
+     *
+     * @param slotId The ID of the slot.
+     */
+    public void readingSlot(long slotId) {
+        if (shards.isSharded()) {
+            useLocated(locate(moveRepo::findDoctorOfSlot, slotId), false);
+        }
+    }
+
+    /**
+     * Runs the current transaction on the shard of a template about to be written, see writingSlot.
+     *
+     * @param templateId The ID of the template.
+     * @throws ShardMovedException If the template's doctor moved to another shard.
+     */
+    public void writingTemplate(long templateId) {
+        if (shards.isSharded()) {
+            useLocated(locate(moveRepo::findDoctorOfTemplate, templateId), true);
+        }
+    }
+
+    private void useLocated(Located located, boolean writing) {
+        shards.useShard(located == null ? shards.getHomeShard() : located.shard());
+        if (writing && located != null && located.doctorId() != null) {
+            lockAndCheck(located.doctorId());
+        }
+    }
+
+    private void lockAndCheck(Long doctorId) {
+        jdbcRepo.lockDoctors(List.of(doctorId));
+        checkNotMoved(List.of(doctorId));
+    }
+
+    // Finds the doctor of a slot or template. IDs never repeat across shards, so the row was created on the shard
+    // whose range holds its ID; if its doctor moved away since, the copy in use is on the doctor's shard. Every
+    // shard is asked only when the row is not on its origin any more, i.e. the copy left behind was purged, or a
+    // move not yet known here is in the way.
+    private Located locate(Function<Long, List<Long>> lookup, long id) {
+        String origin = shards.originOf(id);
+        if (origin != null) {
+            for (Long doctorId : onShard(origin, true, () -> lookup.apply(id))) {
+                String shard = shards.shardOf(doctorId);
+                if (shard.equals(origin) || onShard(shard, true, () -> lookup.apply(id)).contains(doctorId)) {
+                    return new Located(shard, doctorId);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Long>> found : onEveryShard(shard -> lookup.apply(id)).entrySet()) {
+            for (Long doctorId : found.getValue()) {
+                if (shards.owns(found.getKey(), doctorId)) {
+                    return new Located(found.getKey(), doctorId);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Starts a task on the executor, waiting for a permit unless the caller is a task itself
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        boolean nested = inTask.get();
+        if (!nested) {
+            permits.acquireUninterruptibly();
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                inTask.set(Boolean.TRUE);
+                try {
+                    return task.get();
+                } finally {
+                    inTask.remove();
+                    if (!nested) {
+                        permits.release();
+                    }
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            if (!nested) {
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    private <T> T inTransaction(TransactionTemplate template, String shard, Supplier<T> work) {
+        return template.execute(status -> {
+            shards.useShard(shard);
+            return work.get();
+        });
+    }
+
+    // Passes on what the task threw as if it had run on the calling thread
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
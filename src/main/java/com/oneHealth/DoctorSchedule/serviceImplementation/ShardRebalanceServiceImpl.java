@@ -0,0 +1,180 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.DTO.ShardMoveDTO;
+import com.oneHealth.DoctorSchedule.exception.ShardMovedException;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleJdbcRepository;
+import com.oneHealth.DoctorSchedule.repository.ShardMoveRepository;
+import com.oneHealth.DoctorSchedule.repository.ShardMoveRepository.DoctorRows;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+import com.oneHealth.DoctorSchedule.service.ShardRebalanceService;
+
+/**
+ * The ShardRebalanceServiceImpl class moves doctors between shards while their schedules stay readable and writable.
+ *
+ * A move of a doctor from shard S to shard T takes the doctor's lock on S, so writes to the doctor on S wait, and
+ * reads all of the doctor's rows there. In a transaction of its own on T it replaces whatever T still holds of the
+ * doctor with these rows, keeping their IDs and versions. Then S records a marker naming T and commits, which
+ * releases the waiting writes: they find the marker and are sent to T. Reads routed to S meanwhile still see the
+ * rows, which stay on S until purge-after-ms after the move.
+ *
+ * Every refresh-ms each instance reads the markers of all shards, so its routing follows moves made elsewhere, and
+ * deletes the rows that moved away from a shard long enough ago. Doctors whose shard changed are reported to the
+ * ScheduleChangeNotifier, since copies cached from the old shard may miss writes made on the new one.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+@Service
+public class ShardRebalanceServiceImpl implements ShardRebalanceService {
+
+    private final Logger logger = LoggerFactory.getLogger(ShardRebalanceServiceImpl.class);
+
+    @Autowired
+    private ShardRouter shards;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    @Autowired
+    private ShardMoveRepository moveRepo;
+
+    @Autowired
+    private DoctorScheduleJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ScheduleChangeNotifier changes;
+
+    // How long the rows of a moved doctor stay on the shard it left, for instances that still route to it
+    @Value("${doctorschedule.shards.purge-after-ms:60000}")
+    private long purgeAfterMillis;
+
+    /**
+     * Moves one doctor's schedule to another shard.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param shard    The name of the shard to move to.
+     * @return ShardMoveDTO The move, with the number of slots and templates copied.
+     * @throws IllegalArgumentException If the shard is unknown or the schedules are not sharded.
+     * @throws ShardMovedException      If the doctor moved elsewhere since this instance last looked.
+     */
+    @Override
+    public ShardMoveDTO moveDoctor(long doctorId, String shard) {
+        if (!shards.isSharded() || !shards.getShards().contains(shard)) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        String from = shards.shardOf(doctorId);
+        if (from.equals(shard)) {
+            return new ShardMoveDTO(doctorId, from, shard, 0, 0);
+        }
+        ShardMoveDTO move = shardCoordinator.onShard(from, false, () -> {
+            jdbcRepo.lockDoctors(List.of(doctorId));
+            shardCoordinator.checkNotMoved(List.of(doctorId));
+            DoctorRows rows = moveRepo.readDoctor(doctorId);
+            shardCoordinator.onShard(shard, false, () -> {
+                // Leftovers of an earlier stay on the target, or of a move that failed before its marker committed
+                jdbcRepo.lockDoctors(List.of(doctorId));
+                moveRepo.deleteDoctor(doctorId);
+                moveRepo.deleteMove(doctorId);
+                moveRepo.insertDoctor(rows);
+                return null;
+            });
+            moveRepo.recordMove(doctorId, shard);
+            return new ShardMoveDTO(doctorId, from, shard,
+                    rows.count("doctor_schedule") + rows.count("doctor_schedule_archive"), rows.count("schedule_template"));
+        });
+        shards.recordMove(from, doctorId, shard);
+        changes.changed(ScheduleChangeEventDTO.Type.MOVED, doctorId, null);
+        logger.info("Shards - Moved doctor {} from {} to {} with {} slots and {} templates", doctorId, from, shard,
+                move.getSlots(), move.getTemplates());
+        return move;
+    }
+
+    /**
+     * Moves every doctor stored on another shard than its owner on the current ring. Doctors that move elsewhere
+     * while the rebalance runs are skipped; run it again until it moves no more doctors.
+     *
+     * @return List<ShardMoveDTO> The moves made.
+     * @throws IllegalArgumentException If the schedules are not sharded.
+     */
+    @Override
+    public List<ShardMoveDTO> rebalance() {
+        if (!shards.isSharded()) {
+            throw new IllegalArgumentException("Doctor schedules are not sharded");
+        }
+        List<ShardMoveDTO> moves = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> stored : shardCoordinator.onEveryShard(shard -> moveRepo.findStoredDoctors()).entrySet()) {
+            for (Long doctorId : stored.getValue()) {
+                String owner = shards.ringOwnerOf(doctorId);
+                if (owner.equals(stored.getKey()) || !shards.owns(stored.getKey(), doctorId)) {
+                    continue;
+                }
+                try {
+                    moves.add(moveDoctor(doctorId, owner));
+                } catch (ShardMovedException e) {
+                    logger.info("Shards - Skipped doctor {} during the rebalance: {}", doctorId, e.getMessage());
+                }
+            }
+        }
+        logger.info("Shards - Rebalance moved {} doctors", moves.size());
+        return moves;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    /**
+     * Reads the moves of all shards into the routing and purges the rows of doctors that moved away long enough ago.
+     */
+    @Scheduled(fixedDelayString = "${doctorschedule.shards.refresh-ms:5000}")
+    public void refresh() {
+        if (!shards.isSharded()) {
+            return;
+        }
+        try {
+            Set<Long> changed = shards.replaceMoves(shardCoordinator.onEveryShard(shard -> moveRepo.findAllMoves()));
+            changed.forEach(doctorId -> changes.changed(ScheduleChangeEventDTO.Type.MOVED, doctorId, null));
+            for (String shard : shards.getShards()) {
+                purgeMoved(shard);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Shards - Refreshing the doctor moves failed, retrying in the next run", e);
+        }
+    }
+
+    // Deletes the rows of doctors that left the shard; a doctor that came back meanwhile has no marker any more
+    private void purgeMoved(String shard) {
+        Duration delay = Duration.ofMillis(purgeAfterMillis);
+        for (Long doctorId : shardCoordinator.onShard(shard, true, () -> moveRepo.findUnpurgedMoves(delay))) {
+            Integer deleted = shardCoordinator.onShard(shard, false, () -> {
+                jdbcRepo.lockDoctors(List.of(doctorId));
+                if (!moveRepo.findMoves(List.of(doctorId)).containsKey(doctorId)) {
+                    return null;
+                }
+                int slots = moveRepo.deleteDoctor(doctorId);
+                moveRepo.markPurged(doctorId);
+                return slots;
+            });
+            if (deleted != null) {
+                logger.info("Shards - Purged {} slots of doctor {} from shard {}", deleted, doctorId, shard);
+            }
+        }
+    }
+}
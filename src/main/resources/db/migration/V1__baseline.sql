@@ -0,0 +1,59 @@
+-- Baseline of the schema Hibernate used to create with ddl-auto=update.
+-- Every statement is idempotent, so the script runs unchanged on an empty database and on one whose tables
+-- Hibernate already created (spring.flyway.baseline-version=0 makes Flyway run it there too).
+
+CREATE SEQUENCE IF NOT EXISTS doctor_schedule_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS schedule_template_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS schedule_outbox_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS doctor_schedule (
+    slot_id bigint NOT NULL,
+    doctor_id bigint,
+    date date,
+    start_time time(6),
+    end_time time(6),
+    type_availability varchar(255),
+    address_availability varchar(255),
+    shift varchar(255),
+    version bigint DEFAULT 0,
+    CONSTRAINT doctor_schedule_pkey PRIMARY KEY (slot_id),
+    CONSTRAINT uk_doctor_schedule_doctor_date_shift UNIQUE (doctor_id, date, shift)
+);
+
+ALTER TABLE doctor_schedule ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_doctor_schedule_doctor_date_start ON doctor_schedule (doctor_id, date, start_time);
+
+CREATE TABLE IF NOT EXISTS schedule_template (
+    template_id bigint NOT NULL,
+    doctor_id bigint,
+    day_of_week varchar(255),
+    start_time time(6),
+    end_time time(6),
+    type_availability varchar(255),
+    address_availability varchar(255),
+    shift varchar(255),
+    valid_from date,
+    valid_until date,
+    CONSTRAINT schedule_template_pkey PRIMARY KEY (template_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_schedule_template_doctor ON schedule_template (doctor_id, valid_from);
+
+CREATE TABLE IF NOT EXISTS schedule_template_exception (
+    template_id bigint NOT NULL REFERENCES schedule_template (template_id),
+    excluded_date date NOT NULL,
+    PRIMARY KEY (template_id, excluded_date)
+);
+
+CREATE TABLE IF NOT EXISTS schedule_outbox (
+    event_id bigint NOT NULL,
+    doctor_id bigint,
+    slot_id bigint,
+    event_type varchar(255),
+    payload text,
+    created_at timestamp(6),
+    CONSTRAINT schedule_outbox_pkey PRIMARY KEY (event_id)
+);
@@ -0,0 +1,76 @@
+-- Turns doctor_schedule into a table range-partitioned by date, one partition per calendar month, and adds the
+-- archive that SchedulePartitionMaintenance moves months past the retention into.
+--
+-- Partitions are named doctor_schedule_pYYYYMM and cover [first day of the month, first day of the next month).
+-- Rows without a date, or dated in a month that has no partition yet, land in doctor_schedule_default; the
+-- maintenance job creates upcoming months ahead of time and moves such rows into their month when it does.
+--
+-- A unique constraint of a partitioned table must contain the partition key, so slot_id is only unique together
+-- with date. Slot IDs still come from doctor_schedule_seq and never repeat.
+
+ALTER TABLE doctor_schedule RENAME TO doctor_schedule_unpartitioned;
+
+CREATE TABLE doctor_schedule (
+    slot_id bigint NOT NULL,
+    doctor_id bigint,
+    date date,
+    start_time time(6),
+    end_time time(6),
+    type_availability varchar(255),
+    address_availability varchar(255),
+    shift varchar(255),
+    version bigint DEFAULT 0
+) PARTITION BY RANGE (date);
+
+CREATE TABLE doctor_schedule_default PARTITION OF doctor_schedule DEFAULT;
+
+-- One partition per month from the oldest stored slot to three months ahead; later dates go to the default
+-- partition until the maintenance job creates their month
+DO $$
+DECLARE
+    first_month date;
+    last_month date := date_trunc('month', current_date + interval '3 months')::date;
+    month date;
+BEGIN
+    SELECT least(date_trunc('month', min(date))::date, date_trunc('month', current_date)::date)
+        INTO first_month FROM doctor_schedule_unpartitioned;
+    first_month := coalesce(first_month, date_trunc('month', current_date)::date);
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF doctor_schedule FOR VALUES FROM (%L) TO (%L)',
+                'doctor_schedule_p' || to_char(month, 'YYYYMM'), month, (month + interval '1 month')::date);
+        month := (month + interval '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO doctor_schedule (slot_id, doctor_id, date, start_time, end_time, type_availability, address_availability, shift, version)
+SELECT slot_id, doctor_id, date, start_time, end_time, type_availability, address_availability, shift, coalesce(version, 0)
+FROM doctor_schedule_unpartitioned;
+
+DROP TABLE doctor_schedule_unpartitioned;
+
+-- Created on the parent once the old table and its constraint names are gone; every partition gets its own copy
+ALTER TABLE doctor_schedule ADD CONSTRAINT uk_doctor_schedule_doctor_date_shift UNIQUE (doctor_id, date, shift);
+
+ALTER TABLE doctor_schedule ADD CONSTRAINT uk_doctor_schedule_slot_date UNIQUE (slot_id, date);
+
+CREATE INDEX idx_doctor_schedule_doctor_date_start ON doctor_schedule (doctor_id, date, start_time);
+
+-- Slots of archived months. Rows are appended a month at a time, sorted by doctor and date, so a BRIN index on
+-- (doctor_id, date) narrows a doctor's history down to a few block ranges at a fraction of a B-tree's size.
+CREATE TABLE doctor_schedule_archive (
+    slot_id bigint NOT NULL,
+    doctor_id bigint,
+    date date,
+    start_time time(6),
+    end_time time(6),
+    type_availability varchar(255),
+    address_availability varchar(255),
+    shift varchar(255),
+    version bigint,
+    archived_at timestamp(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX brin_doctor_schedule_archive_doctor_date ON doctor_schedule_archive USING brin (doctor_id, date)
+    WITH (pages_per_range = 16);
@@ -0,0 +1,14 @@
+-- Markers of doctors that moved to another shard, kept on the shard they left (see ShardRebalanceServiceImpl).
+--
+-- A writer that reaches a shard with stale routing finds the doctor's marker after taking the doctor's lock and
+-- is sent to the new shard instead of writing here. The doctor's rows stay in place for a while so that readers
+-- with stale routing still see them; purged_at is set once they are deleted. Unsharded deployments never write
+-- to this table.
+
+CREATE TABLE doctor_shard_move (
+    doctor_id bigint NOT NULL,
+    shard varchar(255) NOT NULL,
+    moved_at timestamp(6) NOT NULL DEFAULT now(),
+    purged_at timestamp(6),
+    CONSTRAINT doctor_shard_move_pkey PRIMARY KEY (doctor_id)
+);
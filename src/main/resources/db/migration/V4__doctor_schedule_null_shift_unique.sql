@@ -0,0 +1,11 @@
+-- One rule for (doctor_id, date, shift) uniqueness, with a missing shift counting as a shift of its own.
+--
+-- The constraint created by V1/V2 treats NULL shifts as distinct, so any number of slots without a shift could be
+-- saved for one doctor and date, while the bulk import's duplicate check (IS NOT DISTINCT FROM) rejected them.
+-- The unique index below keys on coalesce(shift, '') instead; inserts name it as their ON CONFLICT target, see
+-- DoctorSchedule.UNIQUE_DOCTOR_DATE_SHIFT_KEY. Creating it fails if a doctor already holds two slots without a
+-- shift on one date; those have to be resolved by hand before migrating.
+
+ALTER TABLE doctor_schedule DROP CONSTRAINT uk_doctor_schedule_doctor_date_shift;
+
+CREATE UNIQUE INDEX uk_doctor_schedule_doctor_date_shift ON doctor_schedule (doctor_id, date, (coalesce(shift, '')));
@@ -0,0 +1,143 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of AvailabilityBitmapStore: which cells a time range covers, at cell, word and day boundaries, and the
+ * version and size rules of the store.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class AvailabilityBitmapStoreTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static long[] covered(int day, String start, String end) {
+        long[] words = AvailabilityBitmapStore.newMonth(MONTH);
+        AvailabilityBitmapStore.cover(words, day, LocalTime.parse(start), LocalTime.parse(end));
+        return words;
+    }
+
+    // The cell a time of day falls into
+    private static int cell(String time) {
+        return LocalTime.parse(time).toSecondOfDay() / (AvailabilityBitmapStore.CELL_MINUTES * 60);
+    }
+
+    @Test
+    public void aRangeOnCellBoundariesCoversItsCells() {
+        long[] words = covered(1, "10:00", "10:05");
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, cell("10:00"), cell("10:05")));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, cell("09:55"), cell("10:05")));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, cell("10:00"), cell("10:10")));
+        assertEquals(1, AvailabilityBitmapStore.countCovered(words, 1));
+    }
+
+    @Test
+    public void partlyCoveredCellsAtEitherEndStayClear() {
+        // 10:02 to 10:58 covers the cells from 10:05 up to 10:55 only
+        long[] words = covered(1, "10:02", "10:58");
+        assertEquals(121, cell("10:05"));
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, 121, 131));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, 120, 131));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, 121, 132));
+        assertEquals(10, AvailabilityBitmapStore.countCovered(words, 1));
+    }
+
+    @Test
+    public void aRangeWithinOneCellCoversNothing() {
+        assertEquals(0, AvailabilityBitmapStore.countCovered(covered(1, "10:01", "10:04"), 1));
+    }
+
+    @Test
+    public void cellsOnBothSidesOfAWordBoundary() {
+        // Cell 63 (05:15) is the last bit of the day's first word, cell 64 (05:20) the first bit of the second
+        long[] words = covered(1, "05:15", "05:25");
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, 63, 65));
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, 63, 64));
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, 64, 65));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, 62, 65));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, 63, 66));
+        assertEquals(Long.MIN_VALUE, words[0]);
+        assertEquals(1L, words[1]);
+
+        byte[] bytes = AvailabilityBitmapStore.dayBytes(words, 1);
+        assertEquals((byte) 0x80, bytes[7]);
+        assertEquals((byte) 0x01, bytes[8]);
+    }
+
+    @Test
+    public void aWholeWordIsCheckedAtOnce() {
+        // 00:00 to 05:20 is cells 0 to 63, exactly the first word
+        long[] words = covered(1, "00:00", "05:20");
+        assertEquals(-1L, words[0]);
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, 0, 64));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, 0, 65));
+        assertEquals(64, AvailabilityBitmapStore.countCovered(words, 1));
+    }
+
+    @Test
+    public void aRangeEndingAt2359LeavesTheLastCellClear() {
+        long[] words = covered(1, "23:00", "23:59");
+        int last = AvailabilityBitmapStore.CELLS_PER_DAY - 1;
+        assertEquals(last, cell("23:55"));
+        assertTrue(AvailabilityBitmapStore.allCovered(words, 1, cell("23:00"), last));
+        assertFalse(AvailabilityBitmapStore.allCovered(words, 1, cell("23:00"), last + 1));
+        assertEquals(11, AvailabilityBitmapStore.countCovered(words, 1));
+    }
+
+    @Test
+    public void daysDoNotShareCells() {
+        long[] words = covered(MONTH.lengthOfMonth(), "00:00", "23:55");
+        assertEquals(AvailabilityBitmapStore.CELLS_PER_DAY - 1, AvailabilityBitmapStore.countCovered(words, MONTH.lengthOfMonth()));
+        assertEquals(0, AvailabilityBitmapStore.countCovered(words, MONTH.lengthOfMonth() - 1));
+        assertEquals(AvailabilityBitmapStore.WORDS_PER_DAY * MONTH.lengthOfMonth(), words.length);
+        assertArrayEquals(new byte[AvailabilityBitmapStore.CELLS_PER_DAY / 8], AvailabilityBitmapStore.dayBytes(words, 1));
+    }
+
+    @Test
+    public void aBitmapIsOnlyServedForItsVersion() {
+        AvailabilityBitmapStore store = new AvailabilityBitmapStore(10);
+        long[] words = AvailabilityBitmapStore.newMonth(MONTH);
+        store.put(7L, MONTH, 3L, words);
+
+        assertSame(words, store.get(7L, MONTH, 3L));
+        assertNull(store.get(7L, MONTH, 4L));
+        assertNull(store.get(7L, MONTH.plusMonths(1), 3L));
+        assertEquals(1, store.getHits());
+        assertEquals(2, store.getMisses());
+    }
+
+    @Test
+    public void anOlderBuildDoesNotReplaceANewerOne() {
+        AvailabilityBitmapStore store = new AvailabilityBitmapStore(10);
+        long[] newer = AvailabilityBitmapStore.newMonth(MONTH);
+        store.put(7L, MONTH, 5L, newer);
+        store.put(7L, MONTH, 4L, AvailabilityBitmapStore.newMonth(MONTH));
+
+        assertSame(newer, store.get(7L, MONTH, 5L));
+    }
+
+    @Test
+    public void theLeastRecentlyReadMonthIsEvicted() {
+        AvailabilityBitmapStore store = new AvailabilityBitmapStore(2);
+        store.put(1L, MONTH, 0L, AvailabilityBitmapStore.newMonth(MONTH));
+        store.put(2L, MONTH, 0L, AvailabilityBitmapStore.newMonth(MONTH));
+        store.get(1L, MONTH, 0L);
+        store.put(3L, MONTH, 0L, AvailabilityBitmapStore.newMonth(MONTH));
+
+        assertEquals(2, store.getMonthCount());
+        assertNull(store.get(2L, MONTH, 0L));
+        assertTrue(store.get(1L, MONTH, 0L) != null && store.get(3L, MONTH, 0L) != null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Tests of DoctorScheduleIndex: a write to a doctor during a load keeps that load out of the index, but not the
+ * loads of other doctors.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class DoctorScheduleIndexTest {
+
+    private final DoctorScheduleIndex index = new DoctorScheduleIndex(true, 100, 1000);
+
+    private static List<DoctorSchedule> slotsOf(Long doctorId) {
+        return List.of(new DoctorSchedule(doctorId * 10, doctorId, null, null, null, "available", null, null));
+    }
+
+    @Test
+    public void aLoadIsIndexed() {
+        index.get(1L, DoctorScheduleIndexTest::slotsOf);
+        assertNotNull(index.getIfPresent(1L));
+    }
+
+    @Test
+    public void aWriteToTheDoctorDuringItsLoadKeepsTheLoadOut() {
+        index.get(1L, doctorId -> {
+            index.invalidate(1L);
+            return slotsOf(doctorId);
+        });
+        assertNull(index.getIfPresent(1L));
+
+        // The next load is indexed again
+        index.get(1L, DoctorScheduleIndexTest::slotsOf);
+        assertNotNull(index.getIfPresent(1L));
+    }
+
+    @Test
+    public void aWriteToAnotherDoctorDuringALoadDoesNotKeepItOut() {
+        index.get(1L, doctorId -> {
+            index.invalidate(2L);
+            return slotsOf(doctorId);
+        });
+        assertNotNull(index.getIfPresent(1L));
+    }
+
+    @Test
+    public void aWriteDuringABatchLoadKeepsOutOnlyThatDoctor() {
+        index.getAll(List.of(1L, 2L, 3L), missing -> {
+            index.invalidate(2L);
+            return Map.of(1L, slotsOf(1L), 2L, slotsOf(2L));
+        });
+        assertNotNull(index.getIfPresent(1L));
+        assertNull(index.getIfPresent(2L));
+        // Doctors without slots are indexed with none
+        assertEquals(List.of(), index.getIfPresent(3L));
+    }
+
+    @Test
+    public void aLoadStartedWhileAnotherRacedWithAWriteIsKeptOutToo() {
+        // The inner load starts before the write, so neither of the two may be indexed
+        index.get(1L, doctorId -> {
+            index.get(1L, inner -> {
+                index.invalidate(1L);
+                return slotsOf(inner);
+            });
+            return slotsOf(doctorId);
+        });
+        assertNull(index.getIfPresent(1L));
+    }
+
+    @Test
+    public void aFailedLoadLeavesNothingBehind() {
+        assertThrows(IllegalStateException.class, () -> index.getAll(Set.of(1L), missing -> {
+            throw new IllegalStateException("down");
+        }));
+        index.get(1L, DoctorScheduleIndexTest::slotsOf);
+        assertNotNull(index.getIfPresent(1L));
+    }
+}
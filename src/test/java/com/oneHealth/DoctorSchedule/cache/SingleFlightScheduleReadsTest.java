@@ -0,0 +1,201 @@
+package com.oneHealth.DoctorSchedule.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Tests of SingleFlightScheduleReads with a loader whose loads complete only when the test says so: which reads
+ * share a load, when a result stops being handed out, and that failed loads and invalidated doctors load afresh.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class SingleFlightScheduleReadsTest {
+
+    private static final Long DOCTOR = 7L;
+
+    private static final Long OTHER_DOCTOR = 8L;
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 5);
+
+    private static final LocalDate TO = LocalDate.of(2026, 1, 11);
+
+    // Long enough never to pass during a test
+    private static final long LONG_TTL_MS = 60_000L;
+
+    // Hands out one pending load per call, which the test completes or fails
+    private final List<Sinks.One<List<DoctorSchedule>>> loads = new ArrayList<>();
+
+    private synchronized Mono<List<DoctorSchedule>> load() {
+        Sinks.One<List<DoctorSchedule>> load = Sinks.one();
+        loads.add(load);
+        return load.asMono();
+    }
+
+    private synchronized int loadsStarted() {
+        return loads.size();
+    }
+
+    // Completes the latest load with a result of its own
+    private synchronized List<DoctorSchedule> completeLoad() {
+        List<DoctorSchedule> slots = List.of(new DoctorSchedule((long) loads.size(), DOCTOR, null, null, null, "available", null, null));
+        loads.get(loads.size() - 1).tryEmitValue(slots).orThrow();
+        return slots;
+    }
+
+    private synchronized void failLoad(RuntimeException e) {
+        loads.get(loads.size() - 1).tryEmitError(e).orThrow();
+    }
+
+    // Starts a read of a doctor's window and returns its pending result
+    private CompletableFuture<List<DoctorSchedule>> read(SingleFlightScheduleReads reads, Long doctorId) {
+        return reads.get(doctorId, FROM, TO, this::load).toFuture();
+    }
+
+    private static List<DoctorSchedule> await(CompletableFuture<List<DoctorSchedule>> read) throws Exception {
+        return read.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void concurrentReadsShareOneLoad() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        CompletableFuture<List<DoctorSchedule>> second = read(reads, DOCTOR);
+        assertFalse(first.isDone());
+
+        List<DoctorSchedule> slots = completeLoad();
+        assertSame(slots, await(first));
+        assertSame(slots, await(second));
+        assertEquals(1, loadsStarted());
+        assertEquals(1, reads.getLoads());
+        assertEquals(1, reads.getShares());
+    }
+
+    @Test
+    public void aResultIsHandedOutWithinTheTtl() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        List<DoctorSchedule> slots = completeLoad();
+        await(first);
+
+        assertSame(slots, await(read(reads, DOCTOR)));
+        assertEquals(1, loadsStarted());
+    }
+
+    @Test
+    public void aResultIsNotHandedOutOnceTheTtlPassed() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, 50L);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        completeLoad();
+        await(first);
+
+        Thread.sleep(200L);
+        CompletableFuture<List<DoctorSchedule>> afterTtl = read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+        List<DoctorSchedule> reloaded = completeLoad();
+        assertSame(reloaded, await(afterTtl));
+    }
+
+    @Test
+    public void withoutATtlOnlyReadsDuringTheLoadShare() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, 0L);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        CompletableFuture<List<DoctorSchedule>> during = read(reads, DOCTOR);
+        completeLoad();
+        await(first);
+        await(during);
+        assertEquals(1, loadsStarted());
+
+        read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+    }
+
+    @Test
+    public void aFailedLoadFailsItsReadsAndIsNotHandedOut() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        CompletableFuture<List<DoctorSchedule>> second = read(reads, DOCTOR);
+        IllegalStateException failure = new IllegalStateException("down");
+        failLoad(failure);
+        assertSame(failure, assertThrows(ExecutionException.class, () -> await(first)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> await(second)).getCause());
+
+        // The next read loads afresh, although the TTL has not passed
+        CompletableFuture<List<DoctorSchedule>> retry = read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+        List<DoctorSchedule> slots = completeLoad();
+        assertSame(slots, await(retry));
+    }
+
+    @Test
+    public void invalidatingADoctorMakesItsNextReadLoadAfresh() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> first = read(reads, DOCTOR);
+        completeLoad();
+        await(first);
+
+        reads.invalidate(DOCTOR);
+        CompletableFuture<List<DoctorSchedule>> afterWrite = read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+        List<DoctorSchedule> reloaded = completeLoad();
+        assertSame(reloaded, await(afterWrite));
+    }
+
+    @Test
+    public void aReadAfterAnInvalidationDoesNotJoinALoadStartedBefore() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> before = read(reads, DOCTOR);
+        reads.invalidate(DOCTOR);
+        CompletableFuture<List<DoctorSchedule>> after = read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+
+        List<DoctorSchedule> fresh = completeLoad();
+        assertSame(fresh, await(after));
+        assertFalse(before.isDone());
+    }
+
+    @Test
+    public void invalidatingADoctorKeepsTheResultsOfOthers() throws Exception {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        CompletableFuture<List<DoctorSchedule>> other = read(reads, OTHER_DOCTOR);
+        List<DoctorSchedule> slots = completeLoad();
+        await(other);
+
+        reads.invalidate(DOCTOR);
+        assertSame(slots, await(read(reads, OTHER_DOCTOR)));
+        assertEquals(1, loadsStarted());
+    }
+
+    @Test
+    public void otherWindowsDoNotShare() {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(true, LONG_TTL_MS);
+        read(reads, DOCTOR);
+        reads.get(DOCTOR, FROM, TO.plusDays(1), this::load).toFuture();
+        reads.get(DOCTOR, null, null, this::load).toFuture();
+        assertEquals(3, loadsStarted());
+    }
+
+    @Test
+    public void whenDisabledEveryReadLoads() {
+        SingleFlightScheduleReads reads = new SingleFlightScheduleReads(false, LONG_TTL_MS);
+        read(reads, DOCTOR);
+        read(reads, DOCTOR);
+        assertEquals(2, loadsStarted());
+    }
+}
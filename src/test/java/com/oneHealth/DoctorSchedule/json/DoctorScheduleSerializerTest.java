@@ -0,0 +1,99 @@
+package com.oneHealth.DoctorSchedule.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.oneHealth.DoctorSchedule.DTO.CompactScheduleListDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+
+/**
+ * Tests of DoctorScheduleSerializer: it must write exactly what Jackson's bean serializer writes with Spring Boot's
+ * default ObjectMapper settings, and its compact variant what the bean serializer writes when leaving out nulls.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class DoctorScheduleSerializerTest {
+
+    // Jackson configured like Spring Boot's auto-configured ObjectMapper, without the serializer registered
+    private final ObjectMapper beans = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper compactBeans = beans.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final ObjectMapper serializer = beans.copy()
+            .registerModule(new SimpleModule().addSerializer(DoctorSchedule.class, new DoctorScheduleSerializer()));
+
+    private final ObjectMapper compactSerializer = beans.copy()
+            .registerModule(new SimpleModule().addSerializer(DoctorSchedule.class, new DoctorScheduleSerializer(true)));
+
+    // Every field set, with characters that need escaping
+    private static DoctorSchedule complete() {
+        DoctorSchedule schedule = new DoctorSchedule(41L, 7L, Date.valueOf("2026-01-05"), Time.valueOf("09:30:00"),
+                Time.valueOf("12:00:00"), "available", "Clinic \"A\", Stra\u00dfe 5\n2nd floor", "morning");
+        schedule.setVersion(3L);
+        schedule.setTemplateId(9L);
+        return schedule;
+    }
+
+    // An online slot: no address, no template
+    private static DoctorSchedule online() {
+        DoctorSchedule schedule = new DoctorSchedule(42L, 7L, Date.valueOf("2026-12-31"), Time.valueOf("23:00:00"),
+                Time.valueOf("23:59:59"), "busy", null, null);
+        schedule.setVersion(0L);
+        return schedule;
+    }
+
+    // A template occurrence: no slotId or version
+    private static DoctorSchedule occurrence() {
+        DoctorSchedule schedule = new DoctorSchedule(null, 8L, Date.valueOf("2026-02-02"), Time.valueOf("14:00:00"),
+                Time.valueOf("15:30:00"), "available", "Clinic B", "afternoon");
+        schedule.setTemplateId(12L);
+        return schedule;
+    }
+
+    private static List<DoctorSchedule> schedules() {
+        return List.of(complete(), online(), occurrence(), new DoctorSchedule());
+    }
+
+    @Test
+    public void writesWhatTheBeanSerializerWrites() throws JsonProcessingException {
+        for (DoctorSchedule schedule : schedules()) {
+            assertEquals(beans.writeValueAsString(schedule), serializer.writeValueAsString(schedule));
+        }
+        assertEquals(beans.writeValueAsString(schedules()), serializer.writeValueAsString(schedules()));
+    }
+
+    @Test
+    public void writesNullFieldsAsNull() throws JsonProcessingException {
+        assertEquals("{\"slotId\":null,\"doctorId\":null,\"date\":null,\"startTime\":null,\"endTime\":null,"
+                + "\"typeAvailability\":null,\"addressAvailability\":null,\"shift\":null,\"version\":null,\"templateId\":null}",
+                serializer.writeValueAsString(new DoctorSchedule()));
+    }
+
+    @Test
+    public void theCompactVariantWritesWhatTheBeanSerializerWritesWithoutNulls() throws JsonProcessingException {
+        for (DoctorSchedule schedule : schedules()) {
+            assertEquals(compactBeans.writeValueAsString(schedule), compactSerializer.writeValueAsString(schedule));
+        }
+        assertEquals("{}", compactSerializer.writeValueAsString(new DoctorSchedule()));
+    }
+
+    @Test
+    public void aCompactListIsAPlainArrayOfCompactSchedules() throws JsonProcessingException {
+        assertEquals(compactBeans.writeValueAsString(schedules()), beans.writeValueAsString(new CompactScheduleListDTO(schedules())));
+        assertEquals("[]", beans.writeValueAsString(new CompactScheduleListDTO(List.of())));
+    }
+}
@@ -0,0 +1,79 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of ConsistentHashRing: stable placement, and how few doctors move when the shards change.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ConsistentHashRingTest {
+
+    private static final int DOCTORS = 100_000;
+
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    public void placementDoesNotDependOnTheOrderOfTheShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), VIRTUAL_NODES);
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            assertEquals(ring.ownerOf(doctorId), reordered.ownerOf(doctorId));
+        }
+    }
+
+    @Test
+    public void doctorsAreSpreadOverAllShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            counts.merge(ring.ownerOf(doctorId), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        // Each shard holds a quarter give or take what 128 points per shard leave uneven
+        counts.values().forEach(count -> assertTrue(count > DOCTORS / 8 && count < DOCTORS * 3 / 8, counts.toString()));
+    }
+
+    @Test
+    public void addingAShardOnlyMovesDoctorsOntoIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        int moved = 0;
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            String owner = after.ownerOf(doctorId);
+            if (!owner.equals(before.ownerOf(doctorId))) {
+                assertEquals("d", owner, "doctor " + doctorId + " moved between two old shards");
+                moved++;
+            }
+        }
+        // About 1/4 of the doctors belong to the new shard; hash-modulo placement would move about 3/4
+        assertTrue(moved > DOCTORS / 8 && moved < DOCTORS * 3 / 8, "moved " + moved);
+    }
+
+    @Test
+    public void removingAShardOnlyMovesItsDoctors() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            String owner = before.ownerOf(doctorId);
+            if (!owner.equals("d")) {
+                assertEquals(owner, after.ownerOf(doctorId));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsARingWithoutShardsOrPoints() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), VIRTUAL_NODES));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a"), 0));
+    }
+}
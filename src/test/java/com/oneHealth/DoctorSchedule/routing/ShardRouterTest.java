@@ -0,0 +1,145 @@
+package com.oneHealth.DoctorSchedule.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of ShardRouter: following move markers, including chains and stale cycles, and the ID ranges of the shards.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ShardRouterTest {
+
+    private static final long DOCTOR = 42L;
+
+    private static ShardRouter router(String urls) {
+        return new ShardRouter(urls, "", "", 128);
+    }
+
+    private static ShardRouter threeShards() {
+        return router("a=jdbc:postgresql://a/db,b=jdbc:postgresql://b/db,c=jdbc:postgresql://c/db");
+    }
+
+    // The shards other than the doctor's ring owner, in configuration order
+    private static List<String> others(ShardRouter router, long doctorId) {
+        String owner = router.ringOwnerOf(doctorId);
+        return router.getShards().stream().filter(shard -> !shard.equals(owner)).toList();
+    }
+
+    @Test
+    public void withoutShardsEverythingIsOnTheDefaultShard() {
+        ShardRouter router = router("");
+        assertFalse(router.isSharded());
+        assertEquals(ShardRouter.DEFAULT_SHARD, router.shardOf(DOCTOR));
+        assertEquals(0L, router.idRangeStart(ShardRouter.DEFAULT_SHARD));
+    }
+
+    @Test
+    public void aDoctorWithoutMovesIsOnItsRingOwner() {
+        ShardRouter router = threeShards();
+        assertEquals(router.ringOwnerOf(DOCTOR), router.shardOf(DOCTOR));
+        assertEquals(router.getHomeShard(), router.shardOf(null));
+    }
+
+    @Test
+    public void followsAChainOfMoves() {
+        ShardRouter router = threeShards();
+        String owner = router.ringOwnerOf(DOCTOR);
+        List<String> others = others(router, DOCTOR);
+
+        router.recordMove(owner, DOCTOR, others.get(0));
+        router.recordMove(others.get(0), DOCTOR, others.get(1));
+
+        assertEquals(others.get(1), router.shardOf(DOCTOR));
+        assertTrue(router.owns(others.get(1), DOCTOR));
+        assertFalse(router.owns(owner, DOCTOR));
+        assertFalse(router.owns(others.get(0), DOCTOR));
+    }
+
+    @Test
+    public void movingBackToTheRingOwnerEndsTheChain() {
+        ShardRouter router = threeShards();
+        String owner = router.ringOwnerOf(DOCTOR);
+        String other = others(router, DOCTOR).get(0);
+
+        router.recordMove(owner, DOCTOR, other);
+        router.recordMove(other, DOCTOR, owner);
+
+        assertEquals(owner, router.shardOf(DOCTOR));
+    }
+
+    @Test
+    public void aStaleCycleOfMovesStillResolves() {
+        ShardRouter router = threeShards();
+        String owner = router.ringOwnerOf(DOCTOR);
+        String other = others(router, DOCTOR).get(0);
+
+        // Markers read from two shards at different times can point at each other
+        router.replaceMoves(Map.of(owner, Map.of(DOCTOR, other), other, Map.of(DOCTOR, owner)));
+
+        assertTrue(Set.of(owner, other).contains(router.shardOf(DOCTOR)));
+    }
+
+    @Test
+    public void replacingMovesReportsTheDoctorsWhoseShardChanged() {
+        ShardRouter router = threeShards();
+        String owner = router.ringOwnerOf(DOCTOR);
+        String other = others(router, DOCTOR).get(0);
+        router.recordMove(owner, DOCTOR, other);
+
+        assertEquals(Set.of(), router.replaceMoves(Map.of(owner, Map.of(DOCTOR, other))));
+        assertEquals(Set.of(DOCTOR), router.replaceMoves(Map.of()));
+        assertEquals(owner, router.shardOf(DOCTOR));
+    }
+
+    @Test
+    public void idRangesAreDisjointAndSafeForJavaScriptClients() {
+        ShardRouter router = threeShards();
+        long maxSafeInteger = (1L << 53) - 1;
+        for (int i = 0; i < router.getShards().size(); i++) {
+            long start = router.idRangeStart(router.getShards().get(i));
+            assertEquals(i * ShardRouter.ID_RANGE, start);
+            assertTrue(start + ShardRouter.ID_RANGE - 1 <= maxSafeInteger);
+        }
+        assertTrue((long) ShardRouter.MAX_SHARDS * ShardRouter.ID_RANGE - 1 <= maxSafeInteger);
+        assertThrows(IllegalArgumentException.class, () -> router.idRangeStart("unknown"));
+    }
+
+    @Test
+    public void anIdBelongsToTheShardWhoseRangeHoldsIt() {
+        ShardRouter router = threeShards();
+        for (String shard : router.getShards()) {
+            long start = router.idRangeStart(shard);
+            assertEquals(shard, router.originOf(start));
+            assertEquals(shard, router.originOf(start + ShardRouter.ID_RANGE - 1));
+        }
+        assertNull(router.originOf(router.getShards().size() * ShardRouter.ID_RANGE));
+        assertNull(router.originOf(-1L));
+    }
+
+    @Test
+    public void rejectsMoreShardsThanIdRanges() {
+        String urls = IntStream.rangeClosed(0, ShardRouter.MAX_SHARDS)
+                .mapToObj(i -> "s" + i + "=jdbc:postgresql://s" + i + "/db")
+                .collect(Collectors.joining(","));
+        assertThrows(IllegalArgumentException.class, () -> router(urls));
+    }
+
+    @Test
+    public void rejectsARingShardWithoutUrl() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter("a=jdbc:postgresql://a/db", "a,b", "", 128));
+    }
+}
@@ -0,0 +1,149 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests of BatchCoalescer: callers within one window share one load, a full batch makes newcomers open the next
+ * one, and whatever a load throws reaches every caller of its batch.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class BatchCoalescerTest {
+
+    // Long enough for the second caller to join the batch of the first one
+    private static final long WINDOW_MS = 2_000L;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    // The key sets the loader was called with
+    private final List<Set<Integer>> loads = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    // Values the keys as their squares
+    private Map<Integer, Integer> squares(Set<Integer> keys) {
+        loads.add(Set.copyOf(keys));
+        Map<Integer, Integer> values = new HashMap<>();
+        keys.forEach(key -> values.put(key, key * key));
+        return values;
+    }
+
+    private static <T> T await(CompletableFuture<T> call) throws Exception {
+        return call.get(10, TimeUnit.SECONDS);
+    }
+
+    // Starts a call on another thread and returns once it opened a batch
+    private <T> CompletableFuture<T> startFirst(BatchCoalescer<Integer, Integer> coalescer, Function<BatchCoalescer<Integer, Integer>, T> call)
+            throws InterruptedException {
+        CompletableFuture<T> first = CompletableFuture.supplyAsync(() -> call.apply(coalescer), callers);
+        while (ReflectionTestUtils.getField(coalescer, "open") == null) {
+            Thread.sleep(1);
+        }
+        return first;
+    }
+
+    @Test
+    public void callersWithinOneWindowShareOneLoad() throws Exception {
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(this::squares, WINDOW_MS, 100);
+        CompletableFuture<Map<Integer, Integer>> first = startFirst(coalescer, c -> c.load(List.of(1, 2)));
+        CompletableFuture<Map<Integer, Integer>> second = CompletableFuture.supplyAsync(() -> coalescer.load(List.of(2, 3)), callers);
+
+        // Every caller only gets its own keys, and keys without a value are left out
+        assertEquals(Map.of(1, 1, 2, 4), await(first));
+        assertEquals(Map.of(2, 4, 3, 9), await(second));
+        assertEquals(List.of(Set.of(1, 2, 3)), loads);
+    }
+
+    @Test
+    public void aFullBatchSendsNewcomersToTheNextOne() throws Exception {
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(this::squares, WINDOW_MS, 2);
+        CompletableFuture<Map<Integer, Integer>> first = startFirst(coalescer, c -> c.load(List.of(1, 2)));
+        CompletableFuture<Map<Integer, Integer>> second = CompletableFuture.supplyAsync(() -> coalescer.load(List.of(3)), callers);
+
+        assertEquals(Map.of(1, 1, 2, 4), await(first));
+        assertEquals(Map.of(3, 9), await(second));
+        assertEquals(Set.of(Set.of(1, 2), Set.of(3)), Set.copyOf(loads));
+    }
+
+    @Test
+    public void withoutAWindowEveryCallLoadsAlone() {
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(this::squares, 0L, 100);
+        assertEquals(Map.of(2, 4), coalescer.load(List.of(2)));
+        assertEquals(Map.of(), coalescer.load(List.of()));
+        assertEquals(List.of(Set.of(2)), loads);
+    }
+
+    @Test
+    public void aFailedLoadFailsEveryCallerOfTheBatch() throws Exception {
+        IllegalStateException failure = new IllegalStateException("down");
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(keys -> {
+            throw failure;
+        }, WINDOW_MS, 100);
+        CompletableFuture<Throwable> first = startFirst(coalescer, c -> thrownBy(() -> c.load(List.of(1))));
+        CompletableFuture<Throwable> second = CompletableFuture.supplyAsync(() -> thrownBy(() -> coalescer.load(List.of(2))), callers);
+
+        assertSame(failure, await(first));
+        assertSame(failure, await(second));
+    }
+
+    @Test
+    public void anErrorInALoadFailsEveryCallerInsteadOfLeavingThemWaiting() throws Exception {
+        AssertionError failure = new AssertionError("broken");
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(keys -> {
+            throw failure;
+        }, WINDOW_MS, 100);
+        CompletableFuture<Throwable> first = startFirst(coalescer, c -> thrownBy(() -> c.load(List.of(1))));
+        CompletableFuture<Throwable> second = CompletableFuture.supplyAsync(() -> thrownBy(() -> coalescer.load(List.of(2))), callers);
+
+        assertSame(failure, await(first));
+        assertSame(failure, await(second));
+    }
+
+    @Test
+    public void aFailedBatchDoesNotAffectTheNextOne() {
+        boolean[] fail = {true};
+        BatchCoalescer<Integer, Integer> coalescer = new BatchCoalescer<>(keys -> {
+            if (fail[0]) {
+                throw new IllegalStateException("down");
+            }
+            return squares(keys);
+        }, 1L, 100);
+        assertThrows(IllegalStateException.class, () -> coalescer.load(List.of(1)));
+        fail[0] = false;
+        assertEquals(Map.of(1, 1), coalescer.load(List.of(1)));
+        assertTrue(loads.contains(Set.of(1)));
+    }
+
+    // What a call throws, or null if it returns
+    private static Throwable thrownBy(Runnable call) {
+        try {
+            call.run();
+            return null;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+}
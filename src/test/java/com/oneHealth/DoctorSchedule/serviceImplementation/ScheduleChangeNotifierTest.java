@@ -0,0 +1,217 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneHealth.DoctorSchedule.DTO.ScheduleChangeEventDTO;
+import com.oneHealth.DoctorSchedule.cache.DoctorScheduleIndex;
+import com.oneHealth.DoctorSchedule.cache.RedisSharedScheduleCache;
+import com.oneHealth.DoctorSchedule.cache.ScheduleVersionRegistry;
+import com.oneHealth.DoctorSchedule.cache.SingleFlightScheduleReads;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.routing.ReadYourWritesTracker;
+import com.oneHealth.DoctorSchedule.routing.ReplicaRoutingDataSource;
+import com.oneHealth.DoctorSchedule.service.ScheduleChangeFeedService;
+
+/**
+ * Tests of read-your-writes with both read replicas and the Redis shared tier on: two instances share one Redis,
+ * stood in for by a map and a list of subscribers, and one primary and one lagging replica, whose answers tell
+ * which of the two a load read from.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ScheduleChangeNotifierTest {
+
+    private static final long DOCTOR = 7L;
+
+    private static final long SLOT = 70L;
+
+    // The keys and values stored in Redis
+    private final Map<String, String> redisValues = new HashMap<>();
+
+    // Subscribers of the invalidation channel; messages are lost while delivery is paused
+    private final List<RedisSharedScheduleCache> subscribers = new ArrayList<>();
+    private boolean deliveryPaused;
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+
+    // What the primary and the replica hold for the doctor; the replica has not caught up with the write
+    private String typeOnPrimary = "available";
+    private String typeOnReplica = "available";
+
+    private int loads;
+
+    private Instance writer;
+    private Instance reader;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        writer = new Instance();
+        reader = new Instance();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    public void aWriteOnAnotherInstanceKeepsReloadsOffTheReplicas() {
+        assertEquals("available", reader.readDoctor());
+        assertEquals(1, loads);
+
+        write("busy");
+
+        assertEquals("busy", reader.readDoctor());
+        assertEquals(2, loads);
+    }
+
+    @Test
+    public void aReplicaReadIsNotShared() {
+        // The reader reads before the invalidation reaches it, so the doctor is not pinned there yet
+        deliveryPaused = true;
+        write("busy");
+        assertEquals("available", reader.readDoctor());
+        assertFalse(isDoctorShared());
+
+        // Had the replica's copy been stored under the new generation, the writer would be served it too
+        assertEquals("busy", writer.readDoctor());
+        assertEquals(2, loads);
+        assertTrue(isDoctorShared());
+    }
+
+    @Test
+    public void aPrimaryReadIsShared() {
+        write("busy");
+        assertEquals("busy", reader.readDoctor());
+
+        // The writer is served what the reader loaded from the primary
+        assertEquals("busy", writer.readDoctor());
+        assertEquals(1, loads);
+    }
+
+    private boolean isDoctorShared() {
+        return redisValues.keySet().stream().anyMatch(key -> key.startsWith("test:doctor:" + DOCTOR + ":"));
+    }
+
+    // Commits a change of the doctor's slot on the primary through the writer
+    private void write(String type) {
+        typeOnPrimary = type;
+        writer.notifier.changed(ScheduleChangeEventDTO.Type.UPDATED, DOCTOR, SLOT);
+    }
+
+    private void publish(String message) {
+        if (deliveryPaused) {
+            return;
+        }
+        Message received = mock(Message.class);
+        when(received.getBody()).thenReturn(message.getBytes(StandardCharsets.UTF_8));
+        for (RedisSharedScheduleCache subscriber : subscribers) {
+            ReflectionTestUtils.invokeMethod(subscriber, "onMessage", received, new byte[0]);
+        }
+    }
+
+    /**
+     * One instance of the service: its shared tier client, routing DataSource, tracker and notifier.
+     */
+    private class Instance {
+
+        private final RedisSharedScheduleCache sharedCache = new RedisSharedScheduleCache();
+
+        private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica));
+
+        private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(5000L);
+
+        private final ScheduleChangeNotifier notifier;
+
+        @SuppressWarnings("unchecked")
+        Instance() {
+            StringRedisTemplate redis = mock(StringRedisTemplate.class);
+            ValueOperations<String, String> values = mock(ValueOperations.class);
+            when(redis.opsForValue()).thenReturn(values);
+            when(values.get(any())).thenAnswer(invocation -> redisValues.get(invocation.getArgument(0)));
+            doAnswer(invocation -> redisValues.put(invocation.getArgument(0), invocation.getArgument(1)))
+                    .when(values).set(anyString(), anyString(), any(Duration.class));
+            when(values.increment(anyString())).thenAnswer(invocation -> Long.valueOf(redisValues.merge(
+                    invocation.getArgument(0), "1", (previous, one) -> Long.toString(Long.parseLong(previous) + 1))));
+            doAnswer(invocation -> {
+                publish(invocation.getArgument(1));
+                return 1L;
+            }).when(redis).convertAndSend(anyString(), anyString());
+
+            ReflectionTestUtils.setField(sharedCache, "redis", redis);
+            ReflectionTestUtils.setField(sharedCache, "objectMapper", new ObjectMapper());
+            ReflectionTestUtils.setField(sharedCache, "keyPrefix", "test:");
+            ReflectionTestUtils.setField(sharedCache, "doctorTtlSeconds", 300L);
+            ReflectionTestUtils.setField(sharedCache, "slotTtlSeconds", 60L);
+            subscribers.add(sharedCache);
+            routing.afterPropertiesSet();
+
+            notifier = new ScheduleChangeNotifier(sharedCache);
+            ReflectionTestUtils.setField(notifier, "index", mock(DoctorScheduleIndex.class));
+            ReflectionTestUtils.setField(notifier, "versions", new ScheduleVersionRegistry(sharedCache));
+            ReflectionTestUtils.setField(notifier, "singleFlight", mock(SingleFlightScheduleReads.class));
+            ReflectionTestUtils.setField(notifier, "feed", mock(ScheduleChangeFeedService.class));
+            ReflectionTestUtils.setField(notifier, "readYourWrites", readYourWrites);
+        }
+
+        // Reads the doctor's slots in a read-only transaction, like findByDoctorId on an index miss, and returns
+        // the type of the doctor's slot
+        String readDoctor() {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                readYourWrites.readingDoctor(DOCTOR);
+                return sharedCache.getDoctorSlots(DOCTOR, this::load).get(0).getTypeAvailability();
+            } finally {
+                for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+                }
+                TransactionSynchronizationManager.clear();
+            }
+        }
+
+        private List<DoctorSchedule> load(Long doctorId) {
+            loads++;
+            try {
+                String type = routing.getConnection() == primaryConnection ? typeOnPrimary : typeOnReplica;
+                return List.of(new DoctorSchedule(SLOT, doctorId, null, null, null, type, null, null));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Time;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests of ScheduleIntervalSet: how added ranges merge, which candidates overlap, and the edges of the lookup of the
+ * interval starting last before a candidate ends.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ScheduleIntervalSetTest {
+
+    private final ScheduleIntervalSet set = new ScheduleIntervalSet();
+
+    private void add(String start, String end) {
+        set.add(time(start), time(end));
+    }
+
+    private Map.Entry<Integer, Integer> overlap(String start, String end) {
+        return set.findOverlap(time(start), time(end));
+    }
+
+    private static Time time(String time) {
+        return Time.valueOf(time + ":00");
+    }
+
+    private static int second(String time) {
+        return ScheduleIntervalSet.secondOfDay(time(time));
+    }
+
+    // The covered intervals, as start and end times
+    @SuppressWarnings("unchecked")
+    private Map<String, String> intervals() {
+        Map<String, String> intervals = new TreeMap<>();
+        ((TreeMap<Integer, Integer>) ReflectionTestUtils.getField(set, "intervals")).forEach((start, end) ->
+                intervals.put(clock(start), clock(end)));
+        return intervals;
+    }
+
+    private static String clock(int second) {
+        return String.format("%02d:%02d", second / 3600, second / 60 % 60);
+    }
+
+    @Test
+    public void disjointRangesStaySeparate() {
+        add("09:00", "10:00");
+        add("11:00", "12:00");
+        assertEquals(Map.of("09:00", "10:00", "11:00", "12:00"), intervals());
+    }
+
+    @Test
+    public void touchingRangesMerge() {
+        add("09:00", "10:00");
+        add("10:00", "11:00");
+        add("08:00", "09:00");
+        assertEquals(Map.of("08:00", "11:00"), intervals());
+    }
+
+    @Test
+    public void anOverlappingRangeExtendsAnInterval() {
+        add("09:00", "10:00");
+        add("09:30", "10:30");
+        add("08:30", "09:15");
+        assertEquals(Map.of("08:30", "10:30"), intervals());
+    }
+
+    @Test
+    public void aRangeWithinAnIntervalChangesNothing() {
+        add("09:00", "12:00");
+        add("10:00", "11:00");
+        assertEquals(Map.of("09:00", "12:00"), intervals());
+    }
+
+    @Test
+    public void aRangeSpanningSeveralIntervalsMergesThemAll() {
+        add("09:00", "09:30");
+        add("10:00", "10:30");
+        add("11:00", "11:30");
+        add("13:00", "14:00");
+        add("09:15", "11:10");
+        assertEquals(Map.of("09:00", "11:30", "13:00", "14:00"), intervals());
+
+        // Covering everything, from before the first to after the last
+        add("08:00", "15:00");
+        assertEquals(Map.of("08:00", "15:00"), intervals());
+    }
+
+    @Test
+    public void aRangeBridgingTwoIntervalsByTouchingBothMergesThem() {
+        add("09:00", "10:00");
+        add("11:00", "12:00");
+        add("10:00", "11:00");
+        assertEquals(Map.of("09:00", "12:00"), intervals());
+    }
+
+    @Test
+    public void touchingRangesDoNotOverlap() {
+        add("09:00", "10:00");
+        assertNull(overlap("10:00", "11:00"));
+        assertNull(overlap("08:00", "09:00"));
+    }
+
+    @Test
+    public void findsTheOverlappedInterval() {
+        add("09:00", "10:00");
+        add("11:00", "12:00");
+        assertEquals(Map.entry(second("09:00"), second("10:00")), overlap("09:59", "10:30"));
+        assertEquals(Map.entry(second("11:00"), second("12:00")), overlap("10:30", "11:01"));
+        assertEquals(Map.entry(second("09:00"), second("10:00")), overlap("09:15", "09:45"));
+        assertNull(overlap("10:00", "11:00"));
+    }
+
+    @Test
+    public void aCandidateSpanningSeveralIntervalsOverlapsTheLastOneStartingBeforeItsEnd() {
+        add("09:00", "10:00");
+        add("11:00", "12:00");
+        add("13:00", "14:00");
+        assertEquals(Map.entry(second("13:00"), second("14:00")), overlap("08:00", "15:00"));
+        assertEquals(Map.entry(second("11:00"), second("12:00")), overlap("08:00", "13:00"));
+    }
+
+    @Test
+    public void lowerEntryEdges() {
+        // Nothing covered yet
+        assertNull(overlap("00:00", "23:59"));
+
+        add("09:00", "10:00");
+        // An interval starting exactly at the candidate's end is not a lower entry, so it does not overlap
+        assertNull(overlap("08:00", "09:00"));
+        // One second later it is
+        assertEquals(Map.entry(second("09:00"), second("10:00")), set.findOverlap(time("08:00"), Time.valueOf("09:00:01")));
+        // A candidate ending before the first interval has no lower entry at all
+        assertNull(overlap("07:00", "08:00"));
+        // A candidate after the last interval finds it as lower entry, but it ends too early
+        assertNull(overlap("10:30", "11:00"));
+        // The first second of the day
+        add("00:00", "00:30");
+        assertEquals(Map.entry(0, second("00:30")), overlap("00:00", "00:01"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.oneHealth.DoctorSchedule.serviceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.oneHealth.DoctorSchedule.DTO.SchedulePageDTO;
+import com.oneHealth.DoctorSchedule.entity.DoctorSchedule;
+import com.oneHealth.DoctorSchedule.repository.DoctorScheduleRepository;
+import com.oneHealth.DoctorSchedule.routing.ShardRouter;
+
+/**
+ * Tests of the keyset pages of DoctorScheduleServiceImpl merged from several shards: paging through every slot
+ * must return each slot in use exactly once, in slotId order, whatever the page size, even though moved doctors
+ * keep their slotIds and leave copies behind on the shard they left.
+ *
+ * @author Madhavi
+ * @version 1.0
+ */
+public class ShardedSchedulePageTest {
+
+    private static final int SLOTS = 2_000;
+
+    private static final int DOCTORS = 150;
+
+    private ShardRouter router;
+
+    // The rows of every shard by slotId, copies left behind by moves included
+    private final Map<String, List<DoctorSchedule>> rows = new HashMap<>();
+
+    // The shard whose rows the repository mock serves
+    private String currentShard;
+
+    private DoctorScheduleServiceImpl service;
+
+    // The slotIds a full pass has to return, in order
+    private final List<Long> expected = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        router = new ShardRouter("a=jdbc:postgresql://a/db,b=jdbc:postgresql://b/db,c=jdbc:postgresql://c/db", "", "", 128);
+        router.getShards().forEach(shard -> rows.put(shard, new ArrayList<>()));
+
+        // Slots of all doctors are created in turn, so the slotIds of the shards interleave
+        Random random = new Random(7);
+        Map<Long, String> createdOn = new HashMap<>();
+        for (long slotId = 1; slotId <= SLOTS; slotId++) {
+            long doctorId = 1 + random.nextInt(DOCTORS);
+            String shard = createdOn.computeIfAbsent(doctorId, router::shardOf);
+            rows.get(shard).add(new DoctorSchedule(slotId, doctorId, null, null, null, "available", null, null));
+        }
+        // Every tenth doctor moved: its rows are copied with their slotIds, and the old copy stays until purged
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId += 10) {
+            String from = router.shardOf(doctorId);
+            String to = router.getShards().get((router.getShards().indexOf(from) + 1) % router.getShards().size());
+            for (DoctorSchedule slot : List.copyOf(rows.get(from))) {
+                if (slot.getDoctorId() == doctorId) {
+                    rows.get(to).add(slot);
+                }
+            }
+            router.recordMove(from, doctorId, to);
+        }
+        rows.values().forEach(shardRows -> shardRows.sort((x, y) -> Long.compare(x.getSlotId(), y.getSlotId())));
+        for (long slotId = 1; slotId <= SLOTS; slotId++) {
+            expected.add(slotId);
+        }
+
+        DoctorScheduleRepository repo = mock(DoctorScheduleRepository.class);
+        when(repo.findBySlotIdGreaterThanOrderBySlotIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return rows.get(currentShard).stream()
+                    .filter(slot -> slot.getSlotId() > after)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        ShardCoordinator coordinator = mock(ShardCoordinator.class);
+        when(coordinator.onEveryShard(any())).thenAnswer(invocation -> {
+            Function<String, Object> read = invocation.getArgument(0);
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (String shard : router.getShards()) {
+                currentShard = shard;
+                results.put(shard, read.apply(shard));
+            }
+            return results;
+        });
+
+        service = new DoctorScheduleServiceImpl(1000L, mock(PlatformTransactionManager.class), 0L, 2000);
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "shards", router);
+        ReflectionTestUtils.setField(service, "shardCoordinator", coordinator);
+    }
+
+    @Test
+    public void pagesReturnEverySlotOnceInOrder() {
+        for (int size : new int[] {1, 3, 7, 50, 333, 1000}) {
+            assertEquals(expected, pageThrough(size), "page size " + size);
+        }
+    }
+
+    @Test
+    public void pagingAfterTheLastSlotEnds() {
+        SchedulePageDTO page = service.getSchedulePage((long) SLOTS, 10, null, null);
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    private List<Long> pageThrough(int size) {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        // Every page either returns slots or moves the cursor past a shard's full page, so this many pages suffice
+        for (int pages = 0; pages <= SLOTS * 2; pages++) {
+            SchedulePageDTO page = service.getSchedulePage(cursor, size, null, null);
+            for (DoctorSchedule slot : page.getItems()) {
+                assertTrue(cursor == null || slot.getSlotId() > cursor, "slot " + slot.getSlotId() + " is not after " + cursor);
+                seen.add(slot.getSlotId());
+            }
+            if (page.getNextCursor() == null) {
+                return seen;
+            }
+            assertTrue(cursor == null || page.getNextCursor() > cursor, "the cursor did not advance from " + cursor);
+            cursor = page.getNextCursor();
+        }
+        throw new AssertionError("Paging with page size " + size + " did not end");
+    }
+}